@@ -153,4 +153,9 @@ public class UsuarioServiceImpl implements UsuarioService {
                 .clientes(clientes)
                 .build();
     }
+
+    @Override
+    public List<Usuario> obtenerUsuariosPagina(Long despuesDeId, int limite) {
+        return usuarioRepository.findPagina(despuesDeId, limite);
+    }
 }
\ No newline at end of file
@@ -28,4 +28,5 @@ public interface UsuarioRepository {
     long countByActivoTrue();
     long countByActivoFalse();
     long countByRolesContaining(String rol);
+    List<Usuario> findPagina(Long despuesDeId, int limite);
 }
\ No newline at end of file
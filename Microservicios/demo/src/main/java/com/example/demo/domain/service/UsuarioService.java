@@ -27,4 +27,5 @@ public interface UsuarioService {
     List<Usuario> buscarUsuarios(String query);
     List<Usuario> buscarPorRol(String rol);
     EstadisticasUsuariosDto obtenerEstadisticas();
+    List<Usuario> obtenerUsuariosPagina(Long despuesDeId, int limite);
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.example.demo.infrastructure.persistence.entity.UsuarioEntity;
 import com.example.demo.infrastructure.persistence.repository.UsuarioJpaRepository;
 import com.example.demo.application.mapper.UsuarioMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -114,4 +115,11 @@ public class UsuarioRepositoryImpl implements UsuarioRepository {
     public long countByRolesContaining(String rol) {
         return jpaRepository.countByRolesContaining(rol);
     }
+
+    @Override
+    public List<Usuario> findPagina(Long despuesDeId, int limite) {
+        return jpaRepository.findByIdGreaterThanOrderByIdAsc(despuesDeId, PageRequest.of(0, limite)).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
 }
\ No newline at end of file
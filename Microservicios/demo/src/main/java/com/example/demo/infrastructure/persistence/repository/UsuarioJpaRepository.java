@@ -1,6 +1,7 @@
 package com.example.demo.infrastructure.persistence.repository;
 
 import com.example.demo.infrastructure.persistence.entity.UsuarioEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -26,4 +27,7 @@ public interface UsuarioJpaRepository extends JpaRepository<UsuarioEntity, Long>
     long countByActivoTrue();
     long countByActivoFalse();
     long countByRolesContaining(String rol);
+
+    // Paginación por cursor (keyset) sobre la clave primaria
+    List<UsuarioEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
\ No newline at end of file
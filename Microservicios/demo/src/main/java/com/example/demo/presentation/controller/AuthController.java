@@ -118,6 +118,25 @@ public class AuthController {
         }
     }
 
+    @GetMapping("/usuarios/pagina")
+    @Operation(summary = "Listar usuarios paginados por cursor (Solo Admin)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PaginaResponseDto<UsuarioResponseDto>> obtenerUsuariosPaginados(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        int tamano = PaginaResponseDto.normalizarLimite(limite);
+        // Se pide un registro extra para saber si existe una página siguiente
+        List<Usuario> usuarios = usuarioService.obtenerUsuariosPagina(PaginaResponseDto.decodificarCursor(cursor), tamano + 1);
+        boolean hayMas = usuarios.size() > tamano;
+        List<Usuario> pagina = hayMas ? usuarios.subList(0, tamano) : usuarios;
+
+        List<UsuarioResponseDto> usuariosDto = pagina.stream()
+                .map(usuarioMapper::toResponseDto)
+                .collect(Collectors.toList());
+        Long ultimoId = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId();
+        return ResponseEntity.ok(PaginaResponseDto.de(usuariosDto, hayMas, ultimoId));
+    }
+
     @GetMapping("/usuarios/{id}")
     @Operation(summary = "Obtener usuario por ID (Solo Admin)")
     @PreAuthorize("hasRole('ADMIN')")
@@ -4,16 +4,28 @@ import com.example.msvc_inventario.application.dto.ProductoDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "msvc-producto", url = "${app.msvc-producto.url}", fallback = ProductoClientFallback.class)
+import java.util.List;
+import java.util.Map;
+
+@FeignClient(name = "msvc-producto", url = "${app.msvc-producto.url}", fallbackFactory = ProductoClientFallbackFactory.class)
 public interface ProductoClient {
 
     @GetMapping("/api/productos/{id}")
     ProductoDto obtenerProducto(@PathVariable("id") Long id);
 
+    @PostMapping("/api/productos/batch")
+    List<ProductoDto> obtenerProductosPorIds(@RequestBody List<Long> ids);
+
     @PutMapping("/api/productos/{id}/sincronizar-stock")
     void actualizarStockProducto(@PathVariable("id") Long id, @RequestParam("stock") Integer stock);
 
+    // Sincronización por lotes: productoId -> cantidad actual
+    @PutMapping("/api/productos/sincronizar-stock")
+    void sincronizarStock(@RequestBody Map<Long, Integer> stocks);
+
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.example.msvc_inventario.application.client;
+
+import com.example.msvc_inventario.application.dto.ProductoDto;
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementación por defecto: ejecuta el cliente Feign en el pool acotado de consultas remotas.
+ * El plazo libera al llamador, pero la llamada Feign sigue ocupando su hilo hasta su read-timeout.
+ * Si el pool rechaza la tarea se devuelve un futuro fallido.
+ */
+@Component
+@ConditionalOnProperty(name = "app.consultas-remotas.cliente", havingValue = "feign", matchIfMissing = true)
+public class ProductoClientAsyncFeign implements ProductoClientAsync {
+
+    private final ProductoClient productoClient;
+    private final Executor consultasRemotasExecutor;
+    private final long timeoutMs;
+
+    public ProductoClientAsyncFeign(
+            @Qualifier("com.example.msvc_inventario.application.client.ProductoClient") ProductoClient productoClient,
+            @Qualifier("consultasRemotasExecutor") Executor consultasRemotasExecutor,
+            @Value("${app.consultas-remotas.llamada-timeout-ms:3000}") long timeoutMs) {
+        this.productoClient = productoClient;
+        this.consultasRemotasExecutor = consultasRemotasExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public CompletableFuture<List<ProductoDto>> obtenerProductosPorIds(List<Long> ids) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return productoClient.obtenerProductosPorIds(ids);
+                        } catch (FeignException.NotFound e) {
+                            throw new NoSuchElementException("Productos no encontrados: " + ids);
+                        }
+                    }, consultasRemotasExecutor)
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Pool saturado: la consulta falla de inmediato en lugar de bloquear al llamador
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Demasiadas consultas remotas en curso, reintente más tarde", e));
+        }
+    }
+}
@@ -1,22 +1,46 @@
 package com.example.msvc_inventario.application.client;
 
 import com.example.msvc_inventario.application.dto.ProductoDto;
-import org.springframework.stereotype.Component;
 
-@Component
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 public class ProductoClientFallback implements ProductoClient {
 
+    static final String NOMBRE_NO_DISPONIBLE = "Producto no disponible";
+
+    /**
+     * Indica si el producto es el valor de respaldo y no información real de msvc-producto.
+     */
+    public static boolean esRespaldo(ProductoDto producto) {
+        return producto != null && producto.getPrecio() == null && NOMBRE_NO_DISPONIBLE.equals(producto.getNombre());
+    }
+
     @Override
     public ProductoDto obtenerProducto(Long id) {
         ProductoDto dto = new ProductoDto();
         dto.setId(id);
-        dto.setNombre("Producto no disponible");
+        dto.setNombre(NOMBRE_NO_DISPONIBLE);
         return dto;
     }
 
+    @Override
+    public List<ProductoDto> obtenerProductosPorIds(List<Long> ids) {
+        return ids.stream()
+                .map(this::obtenerProducto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void actualizarStockProducto(Long id, Integer stock) {
         // Fallback: no hacer nada si el servicio de productos no está disponible
         System.out.println("Fallback: No se pudo sincronizar stock para producto " + id);
     }
+
+    @Override
+    public void sincronizarStock(Map<Long, Integer> stocks) {
+        // Se lanza la excepción para que el publicador vuelva a encolar el lote
+        throw new IllegalStateException("Servicio de productos no disponible para sincronizar stock");
+    }
 }
\ No newline at end of file
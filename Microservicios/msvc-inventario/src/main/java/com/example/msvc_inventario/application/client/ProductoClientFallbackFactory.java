@@ -0,0 +1,27 @@
+package com.example.msvc_inventario.application.client;
+
+import feign.FeignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entrega el fallback de {@link ProductoClient} cuando la llamada falla, el circuito está abierto, el
+ * bulkhead está lleno o se agota el plazo. Un error 4xx es una respuesta válida de productos
+ * (por ejemplo un 404) y se propaga tal cual para que el llamador lo trate.
+ */
+@Component
+public class ProductoClientFallbackFactory implements FallbackFactory<ProductoClient> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductoClientFallbackFactory.class);
+
+    @Override
+    public ProductoClient create(Throwable cause) {
+        if (cause instanceof FeignException.FeignClientException errorCliente) {
+            throw errorCliente;
+        }
+        logger.debug("ProductoClient no disponible, se usa el fallback: {}", cause.toString());
+        return new ProductoClientFallback();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.msvc_inventario.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para confirmar en lote las reservas de varias ventas.
+ * Los items solo se usan si la referencia no tiene reservas (ventas anteriores a las reservas):
+ * en ese caso se reserva y confirma en la misma transacción, manteniendo la idempotencia por referencia.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfirmacionReservaRequestDto {
+
+    @NotBlank(message = "La referencia es requerida")
+    private String referencia;
+
+    private String motivo;
+
+    @Valid
+    private List<SalidaInventarioItemDto> items;
+}
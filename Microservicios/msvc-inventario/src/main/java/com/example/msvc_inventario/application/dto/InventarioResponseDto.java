@@ -6,6 +6,8 @@ public class InventarioResponseDto {
     private Long id;
     private ProductoDto producto;
     private Integer cantidad;
+    private Integer cantidadReservada;
+    private Integer cantidadDisponible;
     private String ubicacion;
     private Boolean activo;
     private LocalDateTime fechaCreacion;
@@ -40,6 +42,22 @@ public class InventarioResponseDto {
         this.cantidad = cantidad;
     }
 
+    public Integer getCantidadReservada() {
+        return cantidadReservada;
+    }
+
+    public void setCantidadReservada(Integer cantidadReservada) {
+        this.cantidadReservada = cantidadReservada;
+    }
+
+    public Integer getCantidadDisponible() {
+        return cantidadDisponible;
+    }
+
+    public void setCantidadDisponible(Integer cantidadDisponible) {
+        this.cantidadDisponible = cantidadDisponible;
+    }
+
     public String getUbicacion() {
         return ubicacion;
     }
@@ -0,0 +1,84 @@
+package com.example.msvc_inventario.application.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor (keyset sobre el ID).
+ * El cursor es opaco para el cliente: basta con reenviar siguienteCursor para obtener la página siguiente.
+ */
+public class PaginaResponseDto<T> {
+
+    public static final int LIMITE_POR_DEFECTO = 20;
+    public static final int LIMITE_MAXIMO = 100;
+
+    private List<T> items;
+    private String siguienteCursor;
+    private boolean hayMas;
+
+    // Constructor vacío
+    public PaginaResponseDto() {
+    }
+
+    public PaginaResponseDto(List<T> items, String siguienteCursor, boolean hayMas) {
+        this.items = items;
+        this.siguienteCursor = siguienteCursor;
+        this.hayMas = hayMas;
+    }
+
+    // Getters y setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+
+    public static int normalizarLimite(Integer limite) {
+        if (limite == null || limite < 1) {
+            return LIMITE_POR_DEFECTO;
+        }
+        return Math.min(limite, LIMITE_MAXIMO);
+    }
+
+    /**
+     * Decodifica el cursor recibido; sin cursor se empieza desde el primer registro.
+     */
+    public static Long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+
+    public static String codificarCursor(Long ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(ultimoId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static <T> PaginaResponseDto<T> de(List<T> items, boolean hayMas, Long ultimoId) {
+        return new PaginaResponseDto<>(items, hayMas ? codificarCursor(ultimoId) : null, hayMas);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.msvc_inventario.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para reservar stock mientras una venta está pendiente.
+ * La referencia identifica la venta (número de factura) y hace idempotente la reserva.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaInventarioRequestDto {
+
+    @NotBlank(message = "La referencia es requerida")
+    private String referencia;
+
+    @NotEmpty(message = "Debe incluir al menos un item")
+    @Valid
+    private List<SalidaInventarioItemDto> items;
+}
@@ -0,0 +1,21 @@
+package com.example.msvc_inventario.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaInventarioResponseDto {
+    private Long id;
+    private String referencia;
+    private Long productoId;
+    private Integer cantidad;
+    private String estado;
+    private LocalDateTime expiraEn;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaActualizacion;
+}
@@ -0,0 +1,19 @@
+package com.example.msvc_inventario.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de confirmar las reservas de una referencia dentro de un lote.
+ * Un error reintentable (fallo técnico) puede volver a enviarse; uno de negocio no.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoConfirmacionDto {
+    private String referencia;
+    private boolean confirmada;
+    private boolean reintentable;
+    private String mensaje;
+}
@@ -0,0 +1,17 @@
+package com.example.msvc_inventario.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de reservar el stock de una referencia dentro de un lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoReservaDto {
+    private String referencia;
+    private boolean reservada;
+    private String mensaje;
+}
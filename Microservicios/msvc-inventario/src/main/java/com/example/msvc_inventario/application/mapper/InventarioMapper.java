@@ -1,5 +1,6 @@
 package com.example.msvc_inventario.application.mapper;
 
+import com.example.msvc_inventario.application.dto.InventarioInfoDto;
 import com.example.msvc_inventario.application.dto.InventarioRequestDto;
 import com.example.msvc_inventario.application.dto.InventarioResponseDto;
 import com.example.msvc_inventario.application.dto.ProductoDto;
@@ -15,6 +16,7 @@ public class InventarioMapper {
         Inventario inventario = new Inventario();
         inventario.setProductoId(dto.getProductoId());
         inventario.setCantidad(dto.getCantidad());
+        inventario.setCantidadReservada(0);
         inventario.setUbicacion(dto.getUbicacion());
         inventario.setActivo(dto.getActivo() != null ? dto.getActivo() : true);
         return inventario;
@@ -25,6 +27,8 @@ public class InventarioMapper {
         dto.setId(entity.getId());
         dto.setProducto(producto);
         dto.setCantidad(entity.getCantidad());
+        dto.setCantidadReservada(entity.getCantidadReservada());
+        dto.setCantidadDisponible(entity.getCantidadDisponible());
         dto.setUbicacion(entity.getUbicacion());
         dto.setActivo(entity.getActivo());
         dto.setFechaCreacion(entity.getFechaCreacion());
@@ -32,11 +36,21 @@ public class InventarioMapper {
         return dto;
     }
 
+    // Información resumida de stock que consumen otros microservicios: se informa lo disponible para vender
+    public InventarioInfoDto toInfoDto(Inventario entity) {
+        return new InventarioInfoDto(
+                entity.getId(),
+                entity.getCantidadDisponible(),
+                entity.getUbicacion());
+    }
+
     // Método simple para cuando no tenemos información del producto
     public InventarioResponseDto toDto(Inventario entity) {
         InventarioResponseDto dto = new InventarioResponseDto();
         dto.setId(entity.getId());
         dto.setCantidad(entity.getCantidad());
+        dto.setCantidadReservada(entity.getCantidadReservada());
+        dto.setCantidadDisponible(entity.getCantidadDisponible());
         dto.setUbicacion(entity.getUbicacion());
         dto.setActivo(entity.getActivo());
         dto.setFechaCreacion(entity.getFechaCreacion());
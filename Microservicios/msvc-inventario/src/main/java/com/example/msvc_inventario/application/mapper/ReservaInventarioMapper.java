@@ -0,0 +1,22 @@
+package com.example.msvc_inventario.application.mapper;
+
+import com.example.msvc_inventario.application.dto.ReservaInventarioResponseDto;
+import com.example.msvc_inventario.domain.model.ReservaInventario;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservaInventarioMapper {
+
+    public ReservaInventarioResponseDto toDto(ReservaInventario entity) {
+        ReservaInventarioResponseDto dto = new ReservaInventarioResponseDto();
+        dto.setId(entity.getId());
+        dto.setReferencia(entity.getReferencia());
+        dto.setProductoId(entity.getProductoId());
+        dto.setCantidad(entity.getCantidad());
+        dto.setEstado(entity.getEstado().name());
+        dto.setExpiraEn(entity.getExpiraEn());
+        dto.setFechaCreacion(entity.getFechaCreacion());
+        dto.setFechaActualizacion(entity.getFechaActualizacion());
+        return dto;
+    }
+}
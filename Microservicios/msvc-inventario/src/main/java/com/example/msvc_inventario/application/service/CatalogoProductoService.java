@@ -0,0 +1,68 @@
+package com.example.msvc_inventario.application.service;
+
+import com.example.msvc_inventario.application.client.ProductoClientAsync;
+import com.example.msvc_inventario.application.dto.ProductoDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Obtiene la información de varios productos desde msvc-producto con un número acotado de
+ * llamadas: los IDs distintos se dividen en lotes que se consultan en paralelo mediante el
+ * cliente asíncrono, cada uno con su propio plazo.
+ */
+@Service
+public class CatalogoProductoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoProductoService.class);
+
+    private final ProductoClientAsync productoClientAsync;
+    private final int tamanoLote;
+
+    public CatalogoProductoService(
+            ProductoClientAsync productoClientAsync,
+            @Value("${app.productos.batch-size:200}") int tamanoLote) {
+        this.productoClientAsync = productoClientAsync;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Devuelve los productos indexados por ID. Los lotes que fallan o no responden a tiempo
+     * se omiten, de modo que el llamador puede continuar con la información básica.
+     */
+    public Map<Long, ProductoDto> obtenerProductos(Collection<Long> productoIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(productoIds));
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<CompletableFuture<List<ProductoDto>>> futuros = new ArrayList<>();
+        for (int desde = 0; desde < ids.size(); desde += tamanoLote) {
+            List<Long> lote = ids.subList(desde, Math.min(desde + tamanoLote, ids.size()));
+            futuros.add(productoClientAsync.obtenerProductosPorIds(lote)
+                    .exceptionally(e -> {
+                        logger.warn("No se pudo obtener un lote de {} productos: {}", lote.size(), e.getMessage());
+                        return Collections.emptyList();
+                    }));
+        }
+
+        Map<Long, ProductoDto> productos = new HashMap<>();
+        for (CompletableFuture<List<ProductoDto>> futuro : futuros) {
+            List<ProductoDto> lote = futuro.join();
+            if (lote != null) {
+                lote.forEach(producto -> productos.put(producto.getId(), producto));
+            }
+        }
+        return productos;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.msvc_inventario.application.service;
+
+import com.example.msvc_inventario.application.client.ProductoClient;
+import com.example.msvc_inventario.application.dto.InventarioResponseDto;
+import com.example.msvc_inventario.application.dto.ProductoDto;
+import com.example.msvc_inventario.application.mapper.InventarioMapper;
+import com.example.msvc_inventario.domain.model.Inventario;
+import com.example.msvc_inventario.domain.service.InventarioService;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Consulta del inventario de un producto junto con la información del producto. Las solicitudes
+ * simultáneas del mismo producto comparten una sola lectura a la base de datos y una sola
+ * llamada a msvc-producto.
+ */
+@Service
+public class ConsultaInventarioService {
+
+    private final InventarioService inventarioService;
+    private final InventarioMapper inventarioMapper;
+    private final ProductoClient productoClient;
+    private final SingleFlight<Long, InventarioResponseDto> inventariosEnCurso;
+
+    public ConsultaInventarioService(
+            InventarioService inventarioService,
+            InventarioMapper inventarioMapper,
+            @Qualifier("com.example.msvc_inventario.application.client.ProductoClient") ProductoClient productoClient,
+            MeterRegistry meterRegistry) {
+        this.inventarioService = inventarioService;
+        this.inventarioMapper = inventarioMapper;
+        this.productoClient = productoClient;
+        this.inventariosEnCurso = new SingleFlight<>("inventario-producto", meterRegistry);
+    }
+
+    public InventarioResponseDto obtenerPorProductoId(Long productoId) {
+        return inventariosEnCurso.ejecutar(productoId, () -> {
+            Inventario inventario = inventarioService.obtenerPorProductoId(productoId);
+
+            // Obtener información del producto
+            ProductoDto productoDto = null;
+            try {
+                productoDto = productoClient.obtenerProducto(inventario.getProductoId());
+            } catch (FeignException e) {
+                // Si no se puede obtener el producto, continuamos con la información básica
+            }
+
+            return (productoDto != null)
+                    ? inventarioMapper.toDto(inventario, productoDto)
+                    : inventarioMapper.toDto(inventario);
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.msvc_inventario.application.service;
+
+import com.example.msvc_inventario.domain.service.ReservaInventarioService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Barrido periódico de reservas vencidas. Recorre el índice (estado, expira_en) por páginas,
+ * cada una en su propia transacción, y las filas que otra instancia ya tiene bloqueadas se saltan.
+ */
+@Component
+public class ExpiracionReservasScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiracionReservasScheduler.class);
+
+    private final ReservaInventarioService reservaInventarioService;
+    private final int tamanoLote;
+
+    public ExpiracionReservasScheduler(ReservaInventarioService reservaInventarioService,
+                                       @Value("${app.reservas.tamano-lote:500}") int tamanoLote) {
+        this.reservaInventarioService = reservaInventarioService;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservas.barrido-ms:30000}")
+    public void expirarVencidas() {
+        int total = 0;
+        try {
+            int procesadas;
+            do {
+                procesadas = reservaInventarioService.expirarReservasVencidas(tamanoLote);
+                total += procesadas;
+            } while (procesadas == tamanoLote);
+        } catch (Exception e) {
+            logger.warn("Error al expirar reservas vencidas, se reintentará en el siguiente barrido: {}", e.getMessage());
+        }
+
+        if (total > 0) {
+            logger.info("Reservas de inventario expiradas: {}", total);
+        }
+    }
+}
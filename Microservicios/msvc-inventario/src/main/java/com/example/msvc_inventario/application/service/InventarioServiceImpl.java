@@ -1,6 +1,7 @@
 package com.example.msvc_inventario.application.service;
 
 import com.example.msvc_inventario.application.client.ProductoClient;
+import com.example.msvc_inventario.application.client.ProductoClientFallback;
 import com.example.msvc_inventario.application.dto.ProductoDto;
 import com.example.msvc_inventario.application.dto.SalidaInventarioItemDto;
 import com.example.msvc_inventario.domain.model.Inventario;
@@ -15,9 +16,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 public class InventarioServiceImpl implements InventarioService {
@@ -25,14 +29,17 @@ public class InventarioServiceImpl implements InventarioService {
     private final InventarioRepository inventarioRepository;
     private final MovimientoInventarioRepository movimientoRepository;
     private final ProductoClient productoClient;
+    private final SincronizacionStockPublisher sincronizacionStockPublisher;
 
     public InventarioServiceImpl(
             InventarioRepository inventarioRepository,
             MovimientoInventarioRepository movimientoRepository,
-            @Qualifier("com.example.msvc_inventario.application.client.ProductoClient") ProductoClient productoClient) {
+            @Qualifier("com.example.msvc_inventario.application.client.ProductoClient") ProductoClient productoClient,
+            SincronizacionStockPublisher sincronizacionStockPublisher) {
         this.inventarioRepository = inventarioRepository;
         this.movimientoRepository = movimientoRepository;
         this.productoClient = productoClient;
+        this.sincronizacionStockPublisher = sincronizacionStockPublisher;
     }
 
     @Override
@@ -44,6 +51,9 @@ public class InventarioServiceImpl implements InventarioService {
             if (producto == null) {
                 throw new IllegalArgumentException("El producto no existe");
             }
+            if (ProductoClientFallback.esRespaldo(producto)) {
+                throw new IllegalArgumentException("No se pudo verificar el producto: servicio de productos no disponible");
+            }
         } catch (FeignException e) {
             throw new IllegalArgumentException("Error al verificar el producto: " + e.getMessage());
         }
@@ -66,6 +76,17 @@ public class InventarioServiceImpl implements InventarioService {
     public Inventario actualizarInventario(Long id, Inventario inventarioActualizado) {
         Inventario inventario = obtenerPorId(id);
 
+        // Bloquear la fila para comparar con lo reservado sin que una reserva concurrente lo cambie
+        Integer cantidadReservada = inventarioRepository.findByProductoIdInParaActualizar(List.of(inventario.getProductoId()))
+                .stream()
+                .findFirst()
+                .map(Inventario::getCantidadReservada)
+                .orElse(0);
+        if (inventarioActualizado.getCantidad() == null || inventarioActualizado.getCantidad() < cantidadReservada) {
+            throw new IllegalArgumentException("La cantidad no puede ser menor que la reservada por ventas pendientes ("
+                    + cantidadReservada + ")");
+        }
+
         // Verificar que el producto existe si es que se cambió
         if (!inventario.getProductoId().equals(inventarioActualizado.getProductoId())) {
             try {
@@ -73,6 +94,9 @@ public class InventarioServiceImpl implements InventarioService {
                 if (producto == null) {
                     throw new IllegalArgumentException("El producto no existe");
                 }
+                if (ProductoClientFallback.esRespaldo(producto)) {
+                    throw new IllegalArgumentException("No se pudo verificar el producto: servicio de productos no disponible");
+                }
             } catch (FeignException e) {
                 throw new IllegalArgumentException("Error al verificar el producto: " + e.getMessage());
             }
@@ -84,15 +108,12 @@ public class InventarioServiceImpl implements InventarioService {
         inventario.setActivo(inventarioActualizado.getActivo());
         inventario.setFechaActualizacion(LocalDateTime.now());
 
-        // Actualizar también el stock en el microservicio de productos
-        try {
-            productoClient.actualizarStockProducto(inventario.getProductoId(), inventario.getCantidad());
-        } catch (FeignException e) {
-            // Loguear el error pero continuar con la actualización
-            System.out.println("Error al actualizar stock en productos: " + e.getMessage());
-        }
+        Inventario inventarioGuardado = inventarioRepository.save(inventario);
 
-        return inventarioRepository.save(inventario);
+        // Sincronizar el stock con el microservicio de productos después del commit
+        sincronizacionStockPublisher.publicar(inventarioGuardado);
+
+        return inventarioGuardado;
     }
 
     @Override
@@ -112,6 +133,11 @@ public class InventarioServiceImpl implements InventarioService {
         return inventarioRepository.findAll();
     }
 
+    @Override
+    public List<Inventario> listarPagina(Long despuesDeId, int limite) {
+        return inventarioRepository.findPagina(despuesDeId, limite);
+    }
+
     @Override
     @Transactional
     public void eliminar(Long id) {
@@ -124,10 +150,27 @@ public class InventarioServiceImpl implements InventarioService {
     @Override
     @Transactional
     public Inventario actualizarStock(Long productoId, Integer cantidad, String tipoMovimientoStr, String motivo) {
-        Inventario inventario = obtenerPorProductoId(productoId);
         MovimientoInventario.TipoMovimiento tipoMovimiento = MovimientoInventario.TipoMovimiento.valueOf(tipoMovimientoStr);
 
-        int nuevaCantidad = calcularNuevaCantidad(inventario.getCantidad(), cantidad, tipoMovimiento);
+        if (cantidad == null || cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad del movimiento no puede ser negativa");
+        }
+
+        // Un único UPDATE condicional: no hay lectura-modificación-escritura ni actualizaciones perdidas
+        int filasAfectadas = aplicarMovimiento(productoId, cantidad, tipoMovimiento);
+        if (filasAfectadas == 0) {
+            // O no existe inventario para el producto, o (en una SALIDA) el stock no alcanza,
+            // o (en un AJUSTE) el nuevo total queda por debajo de lo reservado
+            Inventario actual = obtenerPorProductoId(productoId);
+            if (tipoMovimiento == MovimientoInventario.TipoMovimiento.AJUSTE) {
+                throw new IllegalArgumentException("La cantidad ajustada no puede ser menor que la reservada por ventas pendientes ("
+                        + actual.getCantidadReservada() + ")");
+            }
+            throw new IllegalArgumentException("No hay suficiente stock disponible");
+        }
+
+        // Releer la fila ya actualizada para devolver la cantidad resultante
+        Inventario inventario = obtenerPorProductoId(productoId);
 
         // Registrar el movimiento
         MovimientoInventario movimiento = new MovimientoInventario();
@@ -140,46 +183,76 @@ public class InventarioServiceImpl implements InventarioService {
 
         movimientoRepository.save(movimiento);
 
-        // Actualizar el inventario
-        inventario.setCantidad(nuevaCantidad);
-        inventario.setFechaActualizacion(LocalDateTime.now());
-
-        // Actualizar también el stock en el microservicio de productos
-        try {
-            productoClient.actualizarStockProducto(inventario.getProductoId(), nuevaCantidad);
-        } catch (FeignException e) {
-            // Loguear el error pero continuar con la actualización
-            System.out.println("Error al actualizar stock en productos: " + e.getMessage());
-        }
+        // Sincronizar el stock con el microservicio de productos después del commit
+        sincronizacionStockPublisher.publicar(inventario);
 
-        return inventarioRepository.save(inventario);
+        return inventario;
     }
 
     /**
-     * Nuevo método para procesar salidas en lote (para integrarse con el microservicio de ventas)
+     * Procesa salidas en lote (para integrarse con el microservicio de ventas).
+     * Bloquea todas las filas en orden de producto_id, valida en memoria y aplica los
+     * descuentos y los movimientos con un batch JDBC cada uno: el número de sentencias
+     * no depende de la cantidad de líneas de la venta.
      */
     @Override
     @Transactional
     public List<Inventario> procesarSalidaLote(List<SalidaInventarioItemDto> items, String motivo) {
-        List<Inventario> inventariosActualizados = new ArrayList<>();
-
-        // Procesamos cada item como una salida individual
+        // Agrupar líneas repetidas del mismo producto; TreeMap mantiene el orden ascendente de producto_id
+        Map<Long, Integer> cantidadesPorProducto = new TreeMap<>();
         for (SalidaInventarioItemDto item : items) {
-            try {
-                Inventario inventario = actualizarStock(
-                        item.getProductoId(),
-                        item.getCantidad(),
-                        MovimientoInventario.TipoMovimiento.SALIDA.name(),
-                        motivo
-                );
-                inventariosActualizados.add(inventario);
-            } catch (Exception e) {
-                // Si falla alguno, lanzar excepción para hacer rollback de toda la transacción
-                throw new RuntimeException("Error al procesar salida para producto ID " +
-                        item.getProductoId() + ": " + e.getMessage(), e);
+            cantidadesPorProducto.merge(item.getProductoId(), item.getCantidad(), Integer::sum);
+        }
+
+        List<Inventario> inventarios = inventarioRepository.findByProductoIdInParaActualizar(cantidadesPorProducto.keySet());
+        Map<Long, Inventario> inventariosPorProducto = new HashMap<>();
+        for (Inventario inventario : inventarios) {
+            inventariosPorProducto.put(inventario.getProductoId(), inventario);
+        }
+
+        // Validar todo antes de escribir: si falla alguno, no se modifica nada
+        for (Map.Entry<Long, Integer> entrada : cantidadesPorProducto.entrySet()) {
+            Inventario inventario = inventariosPorProducto.get(entrada.getKey());
+            if (inventario == null) {
+                throw new NoSuchElementException("Inventario no encontrado para el producto con ID: " + entrada.getKey());
+            }
+            // Lo reservado por ventas pendientes no puede salir por esta vía
+            if (inventario.getCantidadDisponible() < entrada.getValue()) {
+                throw new IllegalArgumentException("Error al procesar salida para producto ID " +
+                        entrada.getKey() + ": No hay suficiente stock disponible");
             }
         }
 
+        inventarioRepository.descontarStockLote(cantidadesPorProducto);
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<MovimientoInventario> movimientos = new ArrayList<>(cantidadesPorProducto.size());
+        List<Inventario> inventariosActualizados = new ArrayList<>(cantidadesPorProducto.size());
+        for (Map.Entry<Long, Integer> entrada : cantidadesPorProducto.entrySet()) {
+            Inventario inventario = inventariosPorProducto.get(entrada.getKey());
+            inventario.setCantidad(inventario.getCantidad() - entrada.getValue());
+            inventario.setFechaActualizacion(ahora);
+            // La fila sigue bloqueada: el batch la incrementó exactamente una vez
+            inventario.setVersion(inventario.getVersion() + 1);
+            inventariosActualizados.add(inventario);
+
+            MovimientoInventario movimiento = new MovimientoInventario();
+            movimiento.setInventarioId(inventario.getId());
+            movimiento.setTipoMovimiento(MovimientoInventario.TipoMovimiento.SALIDA);
+            movimiento.setCantidad(entrada.getValue());
+            movimiento.setMotivo(motivo);
+            movimiento.setFechaMovimiento(ahora);
+            movimiento.setUsuarioId(1L); // Se podría obtener del contexto de seguridad
+            movimientos.add(movimiento);
+        }
+
+        movimientoRepository.saveAll(movimientos);
+
+        // Sincronizar el stock con el microservicio de productos después del commit
+        for (Inventario inventario : inventariosActualizados) {
+            sincronizacionStockPublisher.publicar(inventario);
+        }
+
         return inventariosActualizados;
     }
 
@@ -205,18 +278,14 @@ public class InventarioServiceImpl implements InventarioService {
         }
     }
 
-    private int calcularNuevaCantidad(int cantidadActual, int cantidadMovimiento, MovimientoInventario.TipoMovimiento tipoMovimiento) {
+    private int aplicarMovimiento(Long productoId, Integer cantidad, MovimientoInventario.TipoMovimiento tipoMovimiento) {
         switch (tipoMovimiento) {
             case ENTRADA:
-                return cantidadActual + cantidadMovimiento;
+                return inventarioRepository.incrementarStock(productoId, cantidad);
             case SALIDA:
-                int nuevaCantidad = cantidadActual - cantidadMovimiento;
-                if (nuevaCantidad < 0) {
-                    throw new IllegalArgumentException("No hay suficiente stock disponible");
-                }
-                return nuevaCantidad;
+                return inventarioRepository.descontarStock(productoId, cantidad);
             case AJUSTE:
-                return cantidadMovimiento; // La cantidad proporcionada es el nuevo valor total
+                return inventarioRepository.establecerStock(productoId, cantidad); // La cantidad proporcionada es el nuevo valor total
             default:
                 throw new IllegalArgumentException("Tipo de movimiento no válido");
         }
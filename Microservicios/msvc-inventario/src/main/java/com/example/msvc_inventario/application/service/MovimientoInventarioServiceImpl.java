@@ -41,4 +41,9 @@ public class MovimientoInventarioServiceImpl implements MovimientoInventarioServ
     public List<MovimientoInventario> listarTodos() {
         return movimientoRepository.findAll();
     }
+
+    @Override
+    public List<MovimientoInventario> listarPagina(Long despuesDeId, int limite) {
+        return movimientoRepository.findPagina(despuesDeId, limite);
+    }
 }
\ No newline at end of file
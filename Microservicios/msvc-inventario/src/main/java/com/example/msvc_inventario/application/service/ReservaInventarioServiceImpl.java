@@ -0,0 +1,307 @@
+package com.example.msvc_inventario.application.service;
+
+import com.example.msvc_inventario.application.dto.SalidaInventarioItemDto;
+import com.example.msvc_inventario.domain.model.Inventario;
+import com.example.msvc_inventario.domain.model.MovimientoInventario;
+import com.example.msvc_inventario.domain.model.ReservaInventario;
+import com.example.msvc_inventario.domain.repository.InventarioRepository;
+import com.example.msvc_inventario.domain.repository.MovimientoInventarioRepository;
+import com.example.msvc_inventario.domain.repository.ReservaInventarioRepository;
+import com.example.msvc_inventario.domain.service.ReservaInventarioService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Reservas de stock para ventas pendientes. Reservar solo incrementa cantidad_reservada en la fila
+ * del inventario, de modo que el disponible (cantidad - cantidad_reservada) se obtiene sin recorrer
+ * las reservas. La reserva se confirma como salida al completar la venta, se libera al cancelarla
+ * y, si nadie la toca antes de su vencimiento, la libera el barrido periódico.
+ */
+@Service
+public class ReservaInventarioServiceImpl implements ReservaInventarioService {
+
+    // Tope de una extensión: ningún reintento de confirmación debería durar más
+    private static final Duration EXTENSION_MAXIMA = Duration.ofHours(24);
+
+    private final ReservaInventarioRepository reservaRepository;
+    private final InventarioRepository inventarioRepository;
+    private final MovimientoInventarioRepository movimientoRepository;
+    private final SincronizacionStockPublisher sincronizacionStockPublisher;
+    private final Duration duracionReserva;
+
+    public ReservaInventarioServiceImpl(
+            ReservaInventarioRepository reservaRepository,
+            InventarioRepository inventarioRepository,
+            MovimientoInventarioRepository movimientoRepository,
+            SincronizacionStockPublisher sincronizacionStockPublisher,
+            @Value("${app.reservas.ttl-minutos:30}") long ttlMinutos) {
+        this.reservaRepository = reservaRepository;
+        this.inventarioRepository = inventarioRepository;
+        this.movimientoRepository = movimientoRepository;
+        this.sincronizacionStockPublisher = sincronizacionStockPublisher;
+        this.duracionReserva = Duration.ofMinutes(ttlMinutos);
+    }
+
+    @Override
+    @Transactional
+    public List<ReservaInventario> reservar(String referencia, List<SalidaInventarioItemDto> items) {
+        if (referencia == null || referencia.isBlank()) {
+            throw new IllegalArgumentException("La referencia de la reserva es requerida");
+        }
+
+        // Reintento de la misma venta: se devuelven las reservas ya registradas sin volver a reservar
+        List<ReservaInventario> existentes = reservaRepository.findByReferenciaParaActualizar(referencia);
+        if (!existentes.isEmpty()) {
+            return existentes;
+        }
+
+        // Agrupar líneas repetidas; TreeMap mantiene el orden de producto_id para evitar interbloqueos
+        Map<Long, Integer> cantidadesPorProducto = new TreeMap<>();
+        for (SalidaInventarioItemDto item : items) {
+            cantidadesPorProducto.merge(item.getProductoId(), item.getCantidad(), Integer::sum);
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<ReservaInventario> reservas = new ArrayList<>(cantidadesPorProducto.size());
+        for (Map.Entry<Long, Integer> entrada : cantidadesPorProducto.entrySet()) {
+            int filasAfectadas = inventarioRepository.reservarStock(entrada.getKey(), entrada.getValue());
+            if (filasAfectadas == 0) {
+                // Distinguir inventario inexistente (404) de stock insuficiente (400)
+                inventarioRepository.findByProductoId(entrada.getKey())
+                        .orElseThrow(() -> new NoSuchElementException(
+                                "Inventario no encontrado para el producto con ID: " + entrada.getKey()));
+                throw new IllegalArgumentException("Error al reservar stock para producto ID " +
+                        entrada.getKey() + ": No hay suficiente stock disponible");
+            }
+
+            ReservaInventario reserva = new ReservaInventario();
+            reserva.setReferencia(referencia);
+            reserva.setProductoId(entrada.getKey());
+            reserva.setCantidad(entrada.getValue());
+            reserva.setEstado(ReservaInventario.EstadoReserva.ACTIVA);
+            reserva.setExpiraEn(ahora.plus(duracionReserva));
+            reserva.setFechaCreacion(ahora);
+            reserva.setFechaActualizacion(ahora);
+            reservas.add(reserva);
+        }
+
+        List<ReservaInventario> guardadas = reservaRepository.saveAll(reservas);
+        publicarDisponibles(cantidadesPorProducto.keySet());
+        return guardadas;
+    }
+
+    @Override
+    @Transactional
+    public List<ReservaInventario> confirmar(String referencia, String motivo) {
+        return confirmarReservas(obtenerParaActualizar(referencia), referencia, motivo);
+    }
+
+    /**
+     * Confirma las reservas de la referencia; si no tiene ninguna, reserva los items y los confirma
+     * en la misma transacción. Así un reintento de la misma referencia nunca descuenta dos veces.
+     */
+    @Override
+    @Transactional
+    public List<ReservaInventario> confirmar(String referencia, String motivo, List<SalidaInventarioItemDto> items) {
+        List<ReservaInventario> reservas = reservaRepository.findByReferenciaParaActualizar(referencia);
+        if (reservas.isEmpty()) {
+            if (items == null || items.isEmpty()) {
+                throw new NoSuchElementException("No existen reservas para la referencia: " + referencia);
+            }
+            reservas = reservar(referencia, items);
+        }
+        return confirmarReservas(reservas, referencia, motivo);
+    }
+
+    private List<ReservaInventario> confirmarReservas(List<ReservaInventario> reservas, String referencia, String motivo) {
+
+        List<Long> idsConfirmados = new ArrayList<>();
+        Map<Long, Integer> salidasPorProducto = new TreeMap<>();
+        for (ReservaInventario reserva : reservas) {
+            switch (reserva.getEstado()) {
+                case CONFIRMADA:
+                    // Ya confirmada en un intento anterior
+                    continue;
+                case LIBERADA:
+                    throw new IllegalStateException("La reserva de la referencia " + referencia + " fue liberada");
+                case ACTIVA:
+                    if (inventarioRepository.confirmarReserva(reserva.getProductoId(), reserva.getCantidad()) == 0) {
+                        throw new IllegalStateException("No se pudo confirmar la reserva del producto ID " +
+                                reserva.getProductoId() + ": el stock reservado no es consistente");
+                    }
+                    break;
+                case EXPIRADA:
+                    // El barrido ya devolvió lo reservado: se descuenta si aún hay stock disponible
+                    if (inventarioRepository.descontarStock(reserva.getProductoId(), reserva.getCantidad()) == 0) {
+                        throw new IllegalArgumentException("Error al procesar salida para producto ID " +
+                                reserva.getProductoId() + ": No hay suficiente stock disponible");
+                    }
+                    break;
+            }
+            idsConfirmados.add(reserva.getId());
+            salidasPorProducto.merge(reserva.getProductoId(), reserva.getCantidad(), Integer::sum);
+        }
+
+        if (idsConfirmados.isEmpty()) {
+            return reservas;
+        }
+
+        reservaRepository.actualizarEstado(idsConfirmados, ReservaInventario.EstadoReserva.CONFIRMADA);
+
+        // Registrar la salida de cada producto en un único batch de movimientos
+        Map<Long, Inventario> inventariosPorProducto = cargarInventarios(salidasPorProducto.keySet());
+        LocalDateTime ahora = LocalDateTime.now();
+        List<MovimientoInventario> movimientos = new ArrayList<>(salidasPorProducto.size());
+        for (Map.Entry<Long, Integer> entrada : salidasPorProducto.entrySet()) {
+            Inventario inventario = inventariosPorProducto.get(entrada.getKey());
+            MovimientoInventario movimiento = new MovimientoInventario();
+            movimiento.setInventarioId(inventario.getId());
+            movimiento.setTipoMovimiento(MovimientoInventario.TipoMovimiento.SALIDA);
+            movimiento.setCantidad(entrada.getValue());
+            movimiento.setMotivo(motivo);
+            movimiento.setFechaMovimiento(ahora);
+            movimiento.setUsuarioId(1L); // Se podría obtener del contexto de seguridad
+            movimientos.add(movimiento);
+
+            sincronizacionStockPublisher.publicar(inventario);
+        }
+        movimientoRepository.saveAll(movimientos);
+
+        return reservaRepository.findByReferencia(referencia);
+    }
+
+    @Override
+    @Transactional
+    public void liberar(String referencia) {
+        List<ReservaInventario> activas = reservaRepository.findByReferenciaParaActualizar(referencia).stream()
+                .filter(reserva -> reserva.getEstado() == ReservaInventario.EstadoReserva.ACTIVA)
+                .toList();
+
+        // Sin reservas activas (ya liberadas, expiradas o confirmadas) no hay nada que devolver
+        devolverAlDisponible(activas, ReservaInventario.EstadoReserva.LIBERADA);
+    }
+
+    /**
+     * Al completar una venta su salida se confirma en segundo plano y con reintentos: ampliar aquí el
+     * vencimiento evita que el barrido devuelva el stock mientras esa confirmación sigue pendiente.
+     * Con la fila bloqueada, una reserva que el barrido ya expiró o que se liberó se rechaza.
+     */
+    @Override
+    @Transactional
+    public List<ReservaInventario> extender(String referencia, Duration plazo) {
+        if (plazo.isNegative() || plazo.isZero() || plazo.compareTo(EXTENSION_MAXIMA) > 0) {
+            throw new IllegalArgumentException("El plazo de extensión de la reserva debe estar entre 1 segundo y "
+                    + EXTENSION_MAXIMA.toHours() + " horas");
+        }
+
+        List<ReservaInventario> reservas = reservaRepository.findByReferenciaParaActualizar(referencia);
+        if (reservas.isEmpty()) {
+            throw new NoSuchElementException("No existen reservas para la referencia: " + referencia);
+        }
+
+        List<Long> activas = new ArrayList<>();
+        for (ReservaInventario reserva : reservas) {
+            switch (reserva.getEstado()) {
+                case ACTIVA:
+                    activas.add(reserva.getId());
+                    break;
+                case CONFIRMADA:
+                    // Ya confirmada en un intento anterior: no necesita más plazo
+                    break;
+                default:
+                    throw new IllegalStateException("La reserva de la referencia " + referencia +
+                            " ya no está activa (" + reserva.getEstado() + ")");
+            }
+        }
+
+        reservaRepository.extenderVencimiento(activas, LocalDateTime.now().plus(plazo));
+        return reservaRepository.findByReferencia(referencia);
+    }
+
+    @Override
+    @Transactional
+    public void liberarLote(Collection<String> referencias) {
+        if (referencias.isEmpty()) {
+            return;
+        }
+        List<ReservaInventario> activas = reservaRepository.findByReferenciaInParaActualizar(referencias).stream()
+                .filter(reserva -> reserva.getEstado() == ReservaInventario.EstadoReserva.ACTIVA)
+                .toList();
+        devolverAlDisponible(activas, ReservaInventario.EstadoReserva.LIBERADA);
+    }
+
+    @Override
+    public List<ReservaInventario> obtenerPorReferencia(String referencia) {
+        List<ReservaInventario> reservas = reservaRepository.findByReferencia(referencia);
+        if (reservas.isEmpty()) {
+            throw new NoSuchElementException("No existen reservas para la referencia: " + referencia);
+        }
+        return reservas;
+    }
+
+    @Override
+    @Transactional
+    public int expirarReservasVencidas(int limite) {
+        List<ReservaInventario> vencidas = new ArrayList<>(
+                reservaRepository.findVencidasParaActualizar(LocalDateTime.now(), limite));
+
+        // Aplicar en orden de producto_id, igual que el resto de operaciones sobre inventarios
+        vencidas.sort(Comparator.comparing(ReservaInventario::getProductoId));
+        devolverAlDisponible(vencidas, ReservaInventario.EstadoReserva.EXPIRADA);
+        return vencidas.size();
+    }
+
+    private List<ReservaInventario> obtenerParaActualizar(String referencia) {
+        List<ReservaInventario> reservas = reservaRepository.findByReferenciaParaActualizar(referencia);
+        if (reservas.isEmpty()) {
+            throw new NoSuchElementException("No existen reservas para la referencia: " + referencia);
+        }
+        return reservas;
+    }
+
+    private void devolverAlDisponible(List<ReservaInventario> reservas, ReservaInventario.EstadoReserva estadoFinal) {
+        if (reservas.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(reservas.size());
+        Collection<Long> productoIds = new TreeSet<>();
+        for (ReservaInventario reserva : reservas) {
+            if (inventarioRepository.liberarReserva(reserva.getProductoId(), reserva.getCantidad()) == 0) {
+                throw new IllegalStateException("No se pudo liberar la reserva del producto ID " +
+                        reserva.getProductoId() + ": el stock reservado no es consistente");
+            }
+            ids.add(reserva.getId());
+            productoIds.add(reserva.getProductoId());
+        }
+
+        reservaRepository.actualizarEstado(ids, estadoFinal);
+        publicarDisponibles(productoIds);
+    }
+
+    private Map<Long, Inventario> cargarInventarios(Collection<Long> productoIds) {
+        Map<Long, Inventario> inventariosPorProducto = new HashMap<>();
+        for (Inventario inventario : inventarioRepository.findByProductoIdIn(new ArrayList<>(productoIds))) {
+            inventariosPorProducto.put(inventario.getProductoId(), inventario);
+        }
+        return inventariosPorProducto;
+    }
+
+    // Sincronizar el disponible con el microservicio de productos después del commit
+    private void publicarDisponibles(Collection<Long> productoIds) {
+        cargarInventarios(productoIds).values().forEach(sincronizacionStockPublisher::publicar);
+    }
+}
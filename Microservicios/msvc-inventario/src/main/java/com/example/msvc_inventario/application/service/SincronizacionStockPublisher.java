@@ -0,0 +1,118 @@
+package com.example.msvc_inventario.application.service;
+
+import com.example.msvc_inventario.application.client.ProductoClient;
+import com.example.msvc_inventario.domain.model.Inventario;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publica los cambios de stock hacia el microservicio de productos fuera de la transacción.
+ * Solo se guarda la última cantidad de cada producto, de modo que una ráfaga de movimientos
+ * sobre el mismo producto se envía como un único valor en el siguiente envío por lotes.
+ * Las confirmaciones pueden notificarse fuera de orden, por lo que cada cantidad lleva la
+ * columna version de su fila y se descarta la que sea más antigua que la pendiente. Solo se
+ * guardan productos con un valor por enviar.
+ */
+@Component
+public class SincronizacionStockPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SincronizacionStockPublisher.class);
+
+    private final ProductoClient productoClient;
+    private final int tamanoLote;
+    private final Map<Long, StockPendiente> pendientes = new ConcurrentHashMap<>();
+    private final Timer tiempoEnvio;
+
+    public SincronizacionStockPublisher(
+            @Qualifier("com.example.msvc_inventario.application.client.ProductoClient") ProductoClient productoClient,
+            @Value("${app.sincronizacion-stock.tamano-lote:200}") int tamanoLote,
+            MeterRegistry meterRegistry) {
+        this.productoClient = productoClient;
+        this.tamanoLote = tamanoLote;
+        meterRegistry.gauge("inventario.sincronizacion.stock.pendientes", pendientes, Map::size);
+        this.tiempoEnvio = Timer.builder("inventario.sincronizacion.stock.envio")
+                .description("Duración de cada envío de stock por lotes a msvc-producto")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra el disponible de un inventario recién actualizado. Si hay una transacción activa,
+     * el valor solo se encola cuando esta confirma; si se revierte, se descarta.
+     */
+    public void publicar(Inventario inventario) {
+        Long productoId = inventario.getProductoId();
+        Integer cantidad = inventario.getCantidadDisponible();
+        long version = inventario.getVersion() != null ? inventario.getVersion() : 0L;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    encolar(productoId, cantidad, version);
+                }
+            });
+        } else {
+            encolar(productoId, cantidad, version);
+        }
+    }
+
+    private void encolar(Long productoId, Integer cantidad, long version) {
+        pendientes.merge(productoId, new StockPendiente(cantidad, version), StockPendiente::masReciente);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sincronizacion-stock.intervalo-ms:500}")
+    public void enviarPendientes() {
+        while (!pendientes.isEmpty()) {
+            Map<Long, StockPendiente> lote = tomarLote();
+            if (lote.isEmpty()) {
+                return;
+            }
+
+            Map<Long, Integer> cantidades = new LinkedHashMap<>();
+            lote.forEach((productoId, pendiente) -> cantidades.put(productoId, pendiente.cantidad()));
+            try {
+                tiempoEnvio.record(() -> productoClient.sincronizarStock(cantidades));
+            } catch (Exception e) {
+                // Reencolar sin pisar valores más recientes que hayan llegado mientras tanto
+                lote.forEach((productoId, pendiente) ->
+                        pendientes.merge(productoId, pendiente, StockPendiente::masReciente));
+                logger.warn("No se pudo sincronizar el stock de {} productos, se reintentará: {}",
+                        lote.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private Map<Long, StockPendiente> tomarLote() {
+        Map<Long, StockPendiente> lote = new LinkedHashMap<>();
+        Iterator<Long> ids = pendientes.keySet().iterator();
+        while (ids.hasNext() && lote.size() < tamanoLote) {
+            Long productoId = ids.next();
+            StockPendiente pendiente = pendientes.remove(productoId);
+            if (pendiente != null) {
+                lote.put(productoId, pendiente);
+            }
+        }
+        return lote;
+    }
+
+    private record StockPendiente(Integer cantidad, long version) {
+
+        // Con la misma versión gana el valor nuevo, como ocurría antes al sobrescribir
+        StockPendiente masReciente(StockPendiente otro) {
+            return otro.version >= version ? otro : this;
+        }
+    }
+}
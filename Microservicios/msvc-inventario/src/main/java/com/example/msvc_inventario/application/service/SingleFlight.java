@@ -0,0 +1,75 @@
+package com.example.msvc_inventario.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las cargas simultáneas de una misma clave: la primera solicitud ejecuta la carga y las
+ * que llegan mientras está en curso esperan y reciben el mismo resultado (o la misma excepción).
+ * No es una caché: la clave se retira apenas termina la carga, así que nunca se sirve un valor
+ * obtenido antes de que empezara la solicitud en curso más antigua.
+ * <p>
+ * Métricas (tag consulta): singleflight.cargas, singleflight.compartidas y singleflight.en.curso.
+ * La tasa de aciertos es compartidas / (cargas + compartidas).
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+    private final Counter cargas;
+    private final Counter compartidas;
+
+    public SingleFlight(String nombre, MeterRegistry meterRegistry) {
+        this.cargas = Counter.builder("singleflight.cargas")
+                .description("Cargas ejecutadas")
+                .tag("consulta", nombre)
+                .register(meterRegistry);
+        this.compartidas = Counter.builder("singleflight.compartidas")
+                .description("Solicitudes que reutilizaron una carga en curso")
+                .tag("consulta", nombre)
+                .register(meterRegistry);
+        meterRegistry.gauge("singleflight.en.curso", Tags.of("consulta", nombre), enCurso, Map::size);
+    }
+
+    public V ejecutar(K clave, Supplier<V> carga) {
+        CompletableFuture<V> propia = new CompletableFuture<>();
+        CompletableFuture<V> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            compartidas.increment();
+            return esperar(existente);
+        }
+
+        cargas.increment();
+        try {
+            V valor = carga.get();
+            propia.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    private V esperar(CompletableFuture<V> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            // Relanzar la excepción original para que el manejador global la trate igual
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
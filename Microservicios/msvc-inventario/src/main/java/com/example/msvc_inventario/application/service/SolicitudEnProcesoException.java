@@ -0,0 +1,12 @@
+package com.example.msvc_inventario.application.service;
+
+/**
+ * Otra solicitud con la misma Idempotency-Key todavía se está procesando. Se responde 409 para
+ * que el cliente reintente más tarde, a diferencia de los errores de validación (400).
+ */
+public class SolicitudEnProcesoException extends RuntimeException {
+
+    public SolicitudEnProcesoException(String message) {
+        super(message);
+    }
+}
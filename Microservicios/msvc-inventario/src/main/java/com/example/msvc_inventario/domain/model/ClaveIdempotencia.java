@@ -0,0 +1,82 @@
+package com.example.msvc_inventario.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de una solicitud recibida con cabecera Idempotency-Key y de la respuesta que produjo.
+ */
+public class ClaveIdempotencia {
+    private String clave;
+    private String operacion;
+    private String hashSolicitud;
+    private EstadoClave estado;
+    private String respuesta;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime expiraEn;
+
+    public enum EstadoClave {
+        EN_PROCESO,
+        COMPLETADA
+    }
+
+    // Constructor vacío
+    public ClaveIdempotencia() {
+    }
+
+    // Getters y setters
+    public String getClave() {
+        return clave;
+    }
+
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public void setOperacion(String operacion) {
+        this.operacion = operacion;
+    }
+
+    public String getHashSolicitud() {
+        return hashSolicitud;
+    }
+
+    public void setHashSolicitud(String hashSolicitud) {
+        this.hashSolicitud = hashSolicitud;
+    }
+
+    public EstadoClave getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoClave estado) {
+        this.estado = estado;
+    }
+
+    public String getRespuesta() {
+        return respuesta;
+    }
+
+    public void setRespuesta(String respuesta) {
+        this.respuesta = respuesta;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public LocalDateTime getExpiraEn() {
+        return expiraEn;
+    }
+
+    public void setExpiraEn(LocalDateTime expiraEn) {
+        this.expiraEn = expiraEn;
+    }
+}
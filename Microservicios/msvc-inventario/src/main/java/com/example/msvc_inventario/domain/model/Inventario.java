@@ -6,10 +6,12 @@ public class Inventario {
     private Long id;
     private Long productoId;
     private Integer cantidad;
+    private Integer cantidadReservada;
     private String ubicacion;
     private Boolean activo;
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaActualizacion;
+    private Long version;
 
     // Constructor vacío
     public Inventario() {
@@ -52,6 +54,21 @@ public class Inventario {
         this.cantidad = cantidad;
     }
 
+    public Integer getCantidadReservada() {
+        return cantidadReservada;
+    }
+
+    public void setCantidadReservada(Integer cantidadReservada) {
+        this.cantidadReservada = cantidadReservada;
+    }
+
+    // Stock que aún puede venderse: existencias menos lo reservado por ventas pendientes
+    public Integer getCantidadDisponible() {
+        int total = cantidad != null ? cantidad : 0;
+        int reservada = cantidadReservada != null ? cantidadReservada : 0;
+        return Math.max(total - reservada, 0);
+    }
+
     public String getUbicacion() {
         return ubicacion;
     }
@@ -83,4 +100,12 @@ public class Inventario {
     public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
         this.fechaActualizacion = fechaActualizacion;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.msvc_inventario.domain.repository;
+
+import com.example.msvc_inventario.domain.model.ClaveIdempotencia;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ClaveIdempotenciaRepository {
+    // Registra la clave como EN_PROCESO a nombre del token; devuelve false si ya existía
+    boolean registrar(String clave, String operacion, String hashSolicitud, String token, LocalDateTime expiraEn);
+    Optional<ClaveIdempotencia> findByClave(String clave);
+    // Retoma una clave EN_PROCESO registrada antes del límite; devuelve false si otra solicitud la retomó o terminó
+    boolean retomarVencida(String clave, String token, LocalDateTime limite, LocalDateTime ahora, LocalDateTime expiraEn);
+    // Se ejecuta dentro de la transacción de la operación; devuelve false si el token ya no es el dueño
+    boolean completar(String clave, String token, String respuesta);
+    void eliminar(String clave, String token);
+    int eliminarVencidas(LocalDateTime ahora);
+}
@@ -2,7 +2,9 @@ package com.example.msvc_inventario.domain.repository;
 
 import com.example.msvc_inventario.domain.model.Inventario;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface InventarioRepository {
@@ -10,6 +12,21 @@ public interface InventarioRepository {
     Optional<Inventario> findById(Long id);
     Optional<Inventario> findByProductoId(Long productoId);
     List<Inventario> findAll();
+    List<Inventario> findPagina(Long despuesDeId, int limite);
     void deleteById(Long id);
     List<Inventario> findByProductoIdIn(List<Long> productosIds);
+
+    // Actualizaciones atómicas de stock; devuelven la cantidad de filas afectadas
+    int descontarStock(Long productoId, Integer cantidad);
+    int incrementarStock(Long productoId, Integer cantidad);
+    int establecerStock(Long productoId, Integer cantidad);
+
+    // Reservas de stock para ventas pendientes; devuelven la cantidad de filas afectadas
+    int reservarStock(Long productoId, Integer cantidad);
+    int liberarReserva(Long productoId, Integer cantidad);
+    int confirmarReserva(Long productoId, Integer cantidad);
+
+    // Operaciones por lote
+    List<Inventario> findByProductoIdInParaActualizar(Collection<Long> productosIds);
+    void descontarStockLote(Map<Long, Integer> cantidadesPorProducto);
 }
\ No newline at end of file
@@ -7,7 +7,9 @@ import java.util.Optional;
 
 public interface MovimientoInventarioRepository {
     MovimientoInventario save(MovimientoInventario movimiento);
+    void saveAll(List<MovimientoInventario> movimientos);
     Optional<MovimientoInventario> findById(Long id);
     List<MovimientoInventario> findByInventarioId(Long inventarioId);
     List<MovimientoInventario> findAll();
+    List<MovimientoInventario> findPagina(Long despuesDeId, int limite);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.msvc_inventario.domain.repository;
+
+import com.example.msvc_inventario.domain.model.ReservaInventario;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ReservaInventarioRepository {
+    List<ReservaInventario> saveAll(List<ReservaInventario> reservas);
+    List<ReservaInventario> findByReferencia(String referencia);
+    List<ReservaInventario> findByReferenciaParaActualizar(String referencia);
+    List<ReservaInventario> findByReferenciaInParaActualizar(Collection<String> referencias);
+    List<ReservaInventario> findVencidasParaActualizar(LocalDateTime ahora, int limite);
+    int actualizarEstado(Collection<Long> ids, ReservaInventario.EstadoReserva estado);
+    // Nunca acorta un vencimiento: solo afecta a las reservas que vencen antes de expiraEn
+    int extenderVencimiento(Collection<Long> ids, LocalDateTime expiraEn);
+}
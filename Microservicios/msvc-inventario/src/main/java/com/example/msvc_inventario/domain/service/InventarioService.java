@@ -11,6 +11,7 @@ public interface InventarioService {
     Inventario obtenerPorId(Long id);
     Inventario obtenerPorProductoId(Long productoId);
     List<Inventario> listarTodos();
+    List<Inventario> listarPagina(Long despuesDeId, int limite);
     void eliminar(Long id);
     Inventario actualizarStock(Long productoId, Integer cantidad, String tipoMovimiento, String motivo);
     List<Inventario> procesarSalidaLote(List<SalidaInventarioItemDto> items, String motivo);
@@ -9,4 +9,5 @@ public interface MovimientoInventarioService {
     MovimientoInventario obtenerPorId(Long id);
     List<MovimientoInventario> listarPorInventarioId(Long inventarioId);
     List<MovimientoInventario> listarTodos();
+    List<MovimientoInventario> listarPagina(Long despuesDeId, int limite);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.msvc_inventario.domain.service;
+
+import com.example.msvc_inventario.application.dto.SalidaInventarioItemDto;
+import com.example.msvc_inventario.domain.model.ReservaInventario;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+public interface ReservaInventarioService {
+    List<ReservaInventario> reservar(String referencia, List<SalidaInventarioItemDto> items);
+    List<ReservaInventario> confirmar(String referencia, String motivo);
+    List<ReservaInventario> confirmar(String referencia, String motivo, List<SalidaInventarioItemDto> items);
+    void liberar(String referencia);
+
+    // Amplía el vencimiento de las reservas activas mientras se confirma su salida
+    List<ReservaInventario> extender(String referencia, Duration plazo);
+
+    // Libera en una sola transacción las reservas activas de varias referencias
+    void liberarLote(Collection<String> referencias);
+    List<ReservaInventario> obtenerPorReferencia(String referencia);
+
+    // Libera las reservas activas vencidas; devuelve cuántas se procesaron
+    int expirarReservasVencidas(int limite);
+}
@@ -0,0 +1,33 @@
+package com.example.msvc_inventario.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ConcurrenciaConfig {
+
+    /**
+     * Pool acotado para las consultas remotas a msvc-producto que se lanzan en paralelo.
+     * Si la cola se llena, la tarea se rechaza y el cliente asíncrono devuelve un futuro fallido:
+     * ejecutarla en el hilo que la envía lo dejaría bloqueado en la llamada Feign, sin el plazo de la consulta.
+     */
+    @Bean(name = "consultasRemotasExecutor")
+    public Executor consultasRemotasExecutor(
+            @Value("${app.consultas-remotas.pool-size:8}") int poolSize,
+            @Value("${app.consultas-remotas.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("consultas-remotas-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
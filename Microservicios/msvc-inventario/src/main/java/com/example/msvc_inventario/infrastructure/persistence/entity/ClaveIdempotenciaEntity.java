@@ -0,0 +1,107 @@
+package com.example.msvc_inventario.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "claves_idempotencia",
+        indexes = @Index(name = "idx_claves_idempotencia_expira", columnList = "expira_en"))
+public class ClaveIdempotenciaEntity {
+
+    @Id
+    @Column(length = 100)
+    private String clave;
+
+    @Column(nullable = false, length = 50)
+    private String operacion;
+
+    @Column(name = "hash_solicitud", nullable = false, length = 64)
+    private String hashSolicitud;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private EstadoClave estado;
+
+    @Column(columnDefinition = "TEXT")
+    private String respuesta;
+
+    // Identifica la ejecución dueña de la clave: solo ella puede completarla o eliminarla
+    @Column(name = "token_proceso", length = 36)
+    private String tokenProceso;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    public enum EstadoClave {
+        EN_PROCESO,
+        COMPLETADA
+    }
+
+    // Getters y setters
+    public String getClave() {
+        return clave;
+    }
+
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public void setOperacion(String operacion) {
+        this.operacion = operacion;
+    }
+
+    public String getHashSolicitud() {
+        return hashSolicitud;
+    }
+
+    public void setHashSolicitud(String hashSolicitud) {
+        this.hashSolicitud = hashSolicitud;
+    }
+
+    public EstadoClave getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoClave estado) {
+        this.estado = estado;
+    }
+
+    public String getRespuesta() {
+        return respuesta;
+    }
+
+    public void setRespuesta(String respuesta) {
+        this.respuesta = respuesta;
+    }
+
+    public String getTokenProceso() {
+        return tokenProceso;
+    }
+
+    public void setTokenProceso(String tokenProceso) {
+        this.tokenProceso = tokenProceso;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public LocalDateTime getExpiraEn() {
+        return expiraEn;
+    }
+
+    public void setExpiraEn(LocalDateTime expiraEn) {
+        this.expiraEn = expiraEn;
+    }
+}
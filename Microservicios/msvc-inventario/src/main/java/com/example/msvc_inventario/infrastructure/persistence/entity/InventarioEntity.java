@@ -17,6 +17,10 @@ public class InventarioEntity {
     @Column(nullable = false)
     private Integer cantidad;
 
+    // Solo cambia con las actualizaciones atómicas de reservas: guardar la entidad no la pisa con un valor leído antes
+    @Column(name = "cantidad_reservada", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private Integer cantidadReservada = 0;
+
     @Column(length = 100)
     private String ubicacion;
 
@@ -29,6 +33,12 @@ public class InventarioEntity {
     @Column(name = "fecha_actualizacion", nullable = false)
     private LocalDateTime fechaActualizacion;
 
+    // Crece en cada cambio de la fila, dentro de la misma sentencia: ordena los cambios de stock
+    // confirmados. Las actualizaciones atómicas la incrementan explícitamente
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Getters y setters
     public Long getId() {
         return id;
@@ -54,6 +64,14 @@ public class InventarioEntity {
         this.cantidad = cantidad;
     }
 
+    public Integer getCantidadReservada() {
+        return cantidadReservada;
+    }
+
+    public void setCantidadReservada(Integer cantidadReservada) {
+        this.cantidadReservada = cantidadReservada;
+    }
+
     public String getUbicacion() {
         return ubicacion;
     }
@@ -85,4 +103,12 @@ public class InventarioEntity {
     public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
         this.fechaActualizacion = fechaActualizacion;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
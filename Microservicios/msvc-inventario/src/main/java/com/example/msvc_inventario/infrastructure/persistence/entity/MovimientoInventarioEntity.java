@@ -7,8 +7,10 @@ import java.time.LocalDateTime;
 @Table(name = "movimientos_inventario")
 public class MovimientoInventarioEntity {
 
+    // Secuencia con asignación por bloques (pooled): permite a Hibernate agrupar los INSERT en batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_inventario_seq")
+    @SequenceGenerator(name = "movimientos_inventario_seq", sequenceName = "movimientos_inventario_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "inventario_id", nullable = false)
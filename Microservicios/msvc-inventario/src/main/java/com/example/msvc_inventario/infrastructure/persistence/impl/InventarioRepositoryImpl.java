@@ -5,9 +5,16 @@ import com.example.msvc_inventario.domain.repository.InventarioRepository;
 import com.example.msvc_inventario.infrastructure.persistence.entity.InventarioEntity;
 import com.example.msvc_inventario.infrastructure.persistence.mapper.InventarioEntityMapper;
 import com.example.msvc_inventario.infrastructure.persistence.repository.InventarioJpaRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -16,16 +23,20 @@ public class InventarioRepositoryImpl implements InventarioRepository {
 
     private final InventarioJpaRepository jpaRepository;
     private final InventarioEntityMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
 
-    public InventarioRepositoryImpl(InventarioJpaRepository jpaRepository, InventarioEntityMapper mapper) {
+    public InventarioRepositoryImpl(InventarioJpaRepository jpaRepository, InventarioEntityMapper mapper,
+                                    JdbcTemplate jdbcTemplate) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
     public Inventario save(Inventario inventario) {
         InventarioEntity entity = mapper.toEntity(inventario);
-        entity = jpaRepository.save(entity);
+        // La versión se incrementa al vaciar la sesión: así el resultado ya lleva la nueva
+        entity = jpaRepository.saveAndFlush(entity);
         return mapper.toDomain(entity);
     }
 
@@ -56,8 +67,76 @@ public class InventarioRepositoryImpl implements InventarioRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Inventario> findPagina(Long despuesDeId, int limite) {
+        return jpaRepository.findByIdGreaterThanOrderByIdAsc(despuesDeId, PageRequest.of(0, limite)).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void deleteById(Long id) {
         jpaRepository.deleteById(id);
     }
+
+    @Override
+    public int descontarStock(Long productoId, Integer cantidad) {
+        return jpaRepository.descontarStock(productoId, cantidad, LocalDateTime.now());
+    }
+
+    @Override
+    public int incrementarStock(Long productoId, Integer cantidad) {
+        return jpaRepository.incrementarStock(productoId, cantidad, LocalDateTime.now());
+    }
+
+    @Override
+    public int establecerStock(Long productoId, Integer cantidad) {
+        return jpaRepository.establecerStock(productoId, cantidad, LocalDateTime.now());
+    }
+
+    @Override
+    public int reservarStock(Long productoId, Integer cantidad) {
+        return jpaRepository.reservarStock(productoId, cantidad, LocalDateTime.now());
+    }
+
+    @Override
+    public int liberarReserva(Long productoId, Integer cantidad) {
+        return jpaRepository.liberarReserva(productoId, cantidad, LocalDateTime.now());
+    }
+
+    @Override
+    public int confirmarReserva(Long productoId, Integer cantidad) {
+        return jpaRepository.confirmarReserva(productoId, cantidad, LocalDateTime.now());
+    }
+
+    @Override
+    public List<Inventario> findByProductoIdInParaActualizar(Collection<Long> productosIds) {
+        return jpaRepository.findByProductoIdInParaActualizar(productosIds).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void descontarStockLote(Map<Long, Integer> cantidadesPorProducto) {
+        if (cantidadesPorProducto.isEmpty()) {
+            return;
+        }
+
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> parametros = new ArrayList<>(cantidadesPorProducto.size());
+        cantidadesPorProducto.forEach((productoId, cantidad) ->
+                parametros.add(new Object[]{cantidad, ahora, productoId, cantidad}));
+
+        int[] filas = jdbcTemplate.batchUpdate(
+                "UPDATE inventarios SET cantidad = cantidad - ?, fecha_actualizacion = ?, version = version + 1 " +
+                        "WHERE producto_id = ? AND cantidad - cantidad_reservada >= ?",
+                parametros);
+
+        // Las filas ya están bloqueadas y validadas; una fila sin actualizar indica un estado inconsistente
+        for (int f : filas) {
+            if (f == 0) {
+                throw new IllegalStateException("No se pudo descontar el stock de uno de los productos del lote");
+            }
+        }
+    }
 }
\ No newline at end of file
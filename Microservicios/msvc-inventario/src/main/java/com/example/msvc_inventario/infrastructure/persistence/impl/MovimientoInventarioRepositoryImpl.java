@@ -5,6 +5,7 @@ import com.example.msvc_inventario.domain.repository.MovimientoInventarioReposit
 import com.example.msvc_inventario.infrastructure.persistence.entity.MovimientoInventarioEntity;
 import com.example.msvc_inventario.infrastructure.persistence.mapper.MovimientoInventarioEntityMapper;
 import com.example.msvc_inventario.infrastructure.persistence.repository.MovimientoInventarioJpaRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -31,6 +32,18 @@ public class MovimientoInventarioRepositoryImpl implements MovimientoInventarioR
         return mapper.toDomain(entity);
     }
 
+    // Los IDs salen de la secuencia pooled, por lo que Hibernate envía los INSERT en batch (hibernate.jdbc.batch_size)
+    @Override
+    public void saveAll(List<MovimientoInventario> movimientos) {
+        if (movimientos.isEmpty()) {
+            return;
+        }
+
+        jpaRepository.saveAll(movimientos.stream()
+                .map(mapper::toEntity)
+                .collect(Collectors.toList()));
+    }
+
     @Override
     public Optional<MovimientoInventario> findById(Long id) {
         return jpaRepository.findById(id)
@@ -50,4 +63,11 @@ public class MovimientoInventarioRepositoryImpl implements MovimientoInventarioR
                 .map(mapper::toDomain)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public List<MovimientoInventario> findPagina(Long despuesDeId, int limite) {
+        return jpaRepository.findByIdGreaterThanOrderByIdAsc(despuesDeId, PageRequest.of(0, limite)).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.example.msvc_inventario.infrastructure.persistence.impl;
+
+import com.example.msvc_inventario.domain.model.ReservaInventario;
+import com.example.msvc_inventario.domain.repository.ReservaInventarioRepository;
+import com.example.msvc_inventario.infrastructure.persistence.entity.ReservaInventarioEntity;
+import com.example.msvc_inventario.infrastructure.persistence.mapper.ReservaInventarioEntityMapper;
+import com.example.msvc_inventario.infrastructure.persistence.repository.ReservaInventarioJpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class ReservaInventarioRepositoryImpl implements ReservaInventarioRepository {
+
+    private final ReservaInventarioJpaRepository jpaRepository;
+    private final ReservaInventarioEntityMapper mapper;
+
+    public ReservaInventarioRepositoryImpl(ReservaInventarioJpaRepository jpaRepository,
+                                           ReservaInventarioEntityMapper mapper) {
+        this.jpaRepository = jpaRepository;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public List<ReservaInventario> saveAll(List<ReservaInventario> reservas) {
+        List<ReservaInventarioEntity> entities = reservas.stream()
+                .map(mapper::toEntity)
+                .collect(Collectors.toList());
+        return jpaRepository.saveAll(entities).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ReservaInventario> findByReferencia(String referencia) {
+        return jpaRepository.findByReferencia(referencia).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ReservaInventario> findByReferenciaParaActualizar(String referencia) {
+        return jpaRepository.findByReferenciaParaActualizar(referencia).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ReservaInventario> findByReferenciaInParaActualizar(Collection<String> referencias) {
+        return jpaRepository.findByReferenciaInParaActualizar(referencias).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ReservaInventario> findVencidasParaActualizar(LocalDateTime ahora, int limite) {
+        return jpaRepository.findVencidasParaActualizar(ahora, limite).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int actualizarEstado(Collection<Long> ids, ReservaInventario.EstadoReserva estado) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jpaRepository.actualizarEstado(ids, mapper.convertToEntityEnum(estado), LocalDateTime.now());
+    }
+
+    @Override
+    public int extenderVencimiento(Collection<Long> ids, LocalDateTime expiraEn) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jpaRepository.extenderVencimiento(ids, expiraEn, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.msvc_inventario.infrastructure.persistence.mapper;
+
+import com.example.msvc_inventario.domain.model.ClaveIdempotencia;
+import com.example.msvc_inventario.infrastructure.persistence.entity.ClaveIdempotenciaEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ClaveIdempotenciaEntityMapper {
+
+    public ClaveIdempotencia toDomain(ClaveIdempotenciaEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        ClaveIdempotencia domain = new ClaveIdempotencia();
+        domain.setClave(entity.getClave());
+        domain.setOperacion(entity.getOperacion());
+        domain.setHashSolicitud(entity.getHashSolicitud());
+        domain.setEstado(ClaveIdempotencia.EstadoClave.valueOf(entity.getEstado().name()));
+        domain.setRespuesta(entity.getRespuesta());
+        domain.setFechaCreacion(entity.getFechaCreacion());
+        domain.setExpiraEn(entity.getExpiraEn());
+
+        return domain;
+    }
+}
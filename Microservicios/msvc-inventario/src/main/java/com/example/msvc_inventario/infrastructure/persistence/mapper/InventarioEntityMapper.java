@@ -16,10 +16,12 @@ public class InventarioEntityMapper {
         entity.setId(domain.getId());
         entity.setProductoId(domain.getProductoId());
         entity.setCantidad(domain.getCantidad());
+        entity.setCantidadReservada(domain.getCantidadReservada() != null ? domain.getCantidadReservada() : 0);
         entity.setUbicacion(domain.getUbicacion());
         entity.setActivo(domain.getActivo());
         entity.setFechaCreacion(domain.getFechaCreacion());
         entity.setFechaActualizacion(domain.getFechaActualizacion());
+        entity.setVersion(domain.getVersion());
 
         return entity;
     }
@@ -33,10 +35,12 @@ public class InventarioEntityMapper {
         domain.setId(entity.getId());
         domain.setProductoId(entity.getProductoId());
         domain.setCantidad(entity.getCantidad());
+        domain.setCantidadReservada(entity.getCantidadReservada() != null ? entity.getCantidadReservada() : 0);
         domain.setUbicacion(entity.getUbicacion());
         domain.setActivo(entity.getActivo());
         domain.setFechaCreacion(entity.getFechaCreacion());
         domain.setFechaActualizacion(entity.getFechaActualizacion());
+        domain.setVersion(entity.getVersion());
 
         return domain;
     }
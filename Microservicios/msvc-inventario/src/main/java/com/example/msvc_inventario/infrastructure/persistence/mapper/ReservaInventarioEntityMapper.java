@@ -0,0 +1,53 @@
+package com.example.msvc_inventario.infrastructure.persistence.mapper;
+
+import com.example.msvc_inventario.domain.model.ReservaInventario;
+import com.example.msvc_inventario.infrastructure.persistence.entity.ReservaInventarioEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservaInventarioEntityMapper {
+
+    public ReservaInventarioEntity toEntity(ReservaInventario domain) {
+        if (domain == null) {
+            return null;
+        }
+
+        ReservaInventarioEntity entity = new ReservaInventarioEntity();
+        entity.setId(domain.getId());
+        entity.setReferencia(domain.getReferencia());
+        entity.setProductoId(domain.getProductoId());
+        entity.setCantidad(domain.getCantidad());
+        entity.setEstado(convertToEntityEnum(domain.getEstado()));
+        entity.setExpiraEn(domain.getExpiraEn());
+        entity.setFechaCreacion(domain.getFechaCreacion());
+        entity.setFechaActualizacion(domain.getFechaActualizacion());
+
+        return entity;
+    }
+
+    public ReservaInventario toDomain(ReservaInventarioEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        ReservaInventario domain = new ReservaInventario();
+        domain.setId(entity.getId());
+        domain.setReferencia(entity.getReferencia());
+        domain.setProductoId(entity.getProductoId());
+        domain.setCantidad(entity.getCantidad());
+        domain.setEstado(convertToDomainEnum(entity.getEstado()));
+        domain.setExpiraEn(entity.getExpiraEn());
+        domain.setFechaCreacion(entity.getFechaCreacion());
+        domain.setFechaActualizacion(entity.getFechaActualizacion());
+
+        return domain;
+    }
+
+    public ReservaInventarioEntity.EstadoReserva convertToEntityEnum(ReservaInventario.EstadoReserva domainEnum) {
+        return ReservaInventarioEntity.EstadoReserva.valueOf(domainEnum.name());
+    }
+
+    private ReservaInventario.EstadoReserva convertToDomainEnum(ReservaInventarioEntity.EstadoReserva entityEnum) {
+        return ReservaInventario.EstadoReserva.valueOf(entityEnum.name());
+    }
+}
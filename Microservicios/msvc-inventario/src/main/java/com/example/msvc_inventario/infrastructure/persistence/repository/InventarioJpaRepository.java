@@ -1,11 +1,17 @@
 package com.example.msvc_inventario.infrastructure.persistence.repository;
 
 import com.example.msvc_inventario.infrastructure.persistence.entity.InventarioEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +22,76 @@ public interface InventarioJpaRepository extends JpaRepository<InventarioEntity,
 
     List<InventarioEntity> findByProductoIdIn(List<Long> productosIds);
 
+    // Paginación por cursor (keyset) sobre la clave primaria
+    List<InventarioEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // SELECT ... FOR UPDATE en orden ascendente de producto_id: todas las transacciones
+    // bloquean las filas en el mismo orden, lo que evita interbloqueos entre ventas concurrentes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventarioEntity i WHERE i.productoId IN :productosIds ORDER BY i.productoId ASC")
+    List<InventarioEntity> findByProductoIdInParaActualizar(@Param("productosIds") Collection<Long> productosIds);
+
     @Query("SELECT i FROM InventarioEntity i WHERE i.activo = true")
     List<InventarioEntity> findAllActive();
 
     @Query("SELECT i.cantidad FROM InventarioEntity i WHERE i.productoId = :productoId")
     Optional<Integer> findCantidadByProductoId(@Param("productoId") Long productoId);
+
+    // ==================== ACTUALIZACIONES ATÓMICAS DE STOCK ====================
+    // Devuelven el número de filas afectadas: 0 significa que no se aplicó el cambio.
+    // Todas incrementan version en la misma sentencia, ya con el bloqueo de la fila
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventarioEntity i SET i.cantidad = i.cantidad - :cantidad, i.fechaActualizacion = :fecha, " +
+            "i.version = i.version + 1 " +
+            "WHERE i.productoId = :productoId AND i.cantidad - i.cantidadReservada >= :cantidad")
+    int descontarStock(@Param("productoId") Long productoId,
+                       @Param("cantidad") Integer cantidad,
+                       @Param("fecha") LocalDateTime fecha);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventarioEntity i SET i.cantidad = i.cantidad + :cantidad, i.fechaActualizacion = :fecha, " +
+            "i.version = i.version + 1 " +
+            "WHERE i.productoId = :productoId")
+    int incrementarStock(@Param("productoId") Long productoId,
+                         @Param("cantidad") Integer cantidad,
+                         @Param("fecha") LocalDateTime fecha);
+
+    // Un ajuste no puede dejar la existencia por debajo de lo reservado por ventas pendientes
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventarioEntity i SET i.cantidad = :cantidad, i.fechaActualizacion = :fecha, " +
+            "i.version = i.version + 1 " +
+            "WHERE i.productoId = :productoId AND :cantidad >= i.cantidadReservada")
+    int establecerStock(@Param("productoId") Long productoId,
+                        @Param("cantidad") Integer cantidad,
+                        @Param("fecha") LocalDateTime fecha);
+
+    // ==================== RESERVAS DE STOCK ====================
+    // La condición sobre cantidad - cantidadReservada garantiza que nunca se reserve más de lo disponible
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventarioEntity i SET i.cantidadReservada = i.cantidadReservada + :cantidad, " +
+            "i.fechaActualizacion = :fecha, i.version = i.version + 1 " +
+            "WHERE i.productoId = :productoId AND i.cantidad - i.cantidadReservada >= :cantidad")
+    int reservarStock(@Param("productoId") Long productoId,
+                      @Param("cantidad") Integer cantidad,
+                      @Param("fecha") LocalDateTime fecha);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventarioEntity i SET i.cantidadReservada = i.cantidadReservada - :cantidad, " +
+            "i.fechaActualizacion = :fecha, i.version = i.version + 1 " +
+            "WHERE i.productoId = :productoId AND i.cantidadReservada >= :cantidad")
+    int liberarReserva(@Param("productoId") Long productoId,
+                       @Param("cantidad") Integer cantidad,
+                       @Param("fecha") LocalDateTime fecha);
+
+    // Convierte la reserva en salida: descuenta la existencia y lo reservado en la misma sentencia
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventarioEntity i SET i.cantidad = i.cantidad - :cantidad, " +
+            "i.cantidadReservada = i.cantidadReservada - :cantidad, i.fechaActualizacion = :fecha, " +
+            "i.version = i.version + 1 " +
+            "WHERE i.productoId = :productoId AND i.cantidadReservada >= :cantidad AND i.cantidad >= :cantidad")
+    int confirmarReserva(@Param("productoId") Long productoId,
+                         @Param("cantidad") Integer cantidad,
+                         @Param("fecha") LocalDateTime fecha);
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.example.msvc_inventario.infrastructure.persistence.repository;
 
 import com.example.msvc_inventario.infrastructure.persistence.entity.MovimientoInventarioEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 
 public interface MovimientoInventarioJpaRepository extends JpaRepository<MovimientoInventarioEntity, Long> {
     List<MovimientoInventarioEntity> findByInventarioId(Long inventarioId);
+
+    // Paginación por cursor (keyset) sobre la clave primaria
+    List<MovimientoInventarioEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.example.msvc_inventario.infrastructure.persistence.repository;
+
+import com.example.msvc_inventario.infrastructure.persistence.entity.ReservaInventarioEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ReservaInventarioJpaRepository extends JpaRepository<ReservaInventarioEntity, Long> {
+
+    List<ReservaInventarioEntity> findByReferencia(String referencia);
+
+    // Bloquea las reservas de una referencia para serializar confirmación, liberación y expiración
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReservaInventarioEntity r WHERE r.referencia = :referencia ORDER BY r.productoId ASC")
+    List<ReservaInventarioEntity> findByReferenciaParaActualizar(@Param("referencia") String referencia);
+
+    // Igual que la anterior para varias referencias; el orden por producto evita bloqueos cruzados
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReservaInventarioEntity r WHERE r.referencia IN :referencias ORDER BY r.productoId ASC, r.id ASC")
+    List<ReservaInventarioEntity> findByReferenciaInParaActualizar(@Param("referencias") Collection<String> referencias);
+
+    // Reservas activas vencidas, usando el índice (estado, expira_en); las ya bloqueadas por otra instancia se saltan
+    @Query(value = "SELECT * FROM reservas_inventario WHERE estado = 'ACTIVA' AND expira_en < :ahora " +
+            "ORDER BY expira_en LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ReservaInventarioEntity> findVencidasParaActualizar(@Param("ahora") LocalDateTime ahora,
+                                                             @Param("limite") int limite);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ReservaInventarioEntity r SET r.estado = :estado, r.fechaActualizacion = :fecha WHERE r.id IN :ids")
+    int actualizarEstado(@Param("ids") Collection<Long> ids,
+                         @Param("estado") ReservaInventarioEntity.EstadoReserva estado,
+                         @Param("fecha") LocalDateTime fecha);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ReservaInventarioEntity r SET r.expiraEn = :expiraEn, r.fechaActualizacion = :fecha " +
+            "WHERE r.id IN :ids AND r.expiraEn < :expiraEn")
+    int extenderVencimiento(@Param("ids") Collection<Long> ids,
+                            @Param("expiraEn") LocalDateTime expiraEn,
+                            @Param("fecha") LocalDateTime fecha);
+}
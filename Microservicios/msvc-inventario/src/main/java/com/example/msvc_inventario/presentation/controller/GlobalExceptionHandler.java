@@ -1,5 +1,6 @@
 package com.example.msvc_inventario.presentation.controller;
 
+import com.example.msvc_inventario.application.service.SolicitudEnProcesoException;
 import com.example.msvc_inventario.presentation.dto.ErrorResponse;
 import feign.FeignException;
 import org.springframework.http.HttpStatus;
@@ -23,6 +24,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(SolicitudEnProcesoException.class)
+    public ResponseEntity<ErrorResponse> handleSolicitudEnProcesoException(SolicitudEnProcesoException ex) {
+        ErrorResponse error = new ErrorResponse("CONFLICT", ex.getMessage(), LocalDateTime.now());
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<ErrorResponse> handleIllegalStateException(IllegalStateException ex) {
         ErrorResponse error = new ErrorResponse("BAD_REQUEST", ex.getMessage(), LocalDateTime.now());
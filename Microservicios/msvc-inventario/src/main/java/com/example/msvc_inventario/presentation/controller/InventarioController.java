@@ -3,9 +3,13 @@ package com.example.msvc_inventario.presentation.controller;
 import com.example.msvc_inventario.application.client.ProductoClient;
 import com.example.msvc_inventario.application.dto.*;
 import com.example.msvc_inventario.application.mapper.InventarioMapper;
+import com.example.msvc_inventario.application.service.CatalogoProductoService;
+import com.example.msvc_inventario.application.service.ConsultaInventarioService;
+import com.example.msvc_inventario.application.service.IdempotenciaService;
 import com.example.msvc_inventario.domain.model.Inventario;
 import com.example.msvc_inventario.domain.repository.InventarioRepository;
 import com.example.msvc_inventario.domain.service.InventarioService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import feign.FeignException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,15 +32,24 @@ public class InventarioController {
     private final InventarioMapper inventarioMapper;
     private final ProductoClient productoClient;
     private final InventarioRepository inventarioRepository;
+    private final CatalogoProductoService catalogoProductoService;
+    private final IdempotenciaService idempotenciaService;
+    private final ConsultaInventarioService consultaInventarioService;
 
     public InventarioController(InventarioService inventarioService,
                                 InventarioMapper inventarioMapper,
                                 @Qualifier("com.example.msvc_inventario.application.client.ProductoClient") ProductoClient productoClient,
-                                InventarioRepository inventarioRepository) {
+                                InventarioRepository inventarioRepository,
+                                CatalogoProductoService catalogoProductoService,
+                                IdempotenciaService idempotenciaService,
+                                ConsultaInventarioService consultaInventarioService) {
         this.inventarioService = inventarioService;
         this.inventarioMapper = inventarioMapper;
         this.productoClient = productoClient;
         this.inventarioRepository = inventarioRepository;
+        this.catalogoProductoService = catalogoProductoService;
+        this.idempotenciaService = idempotenciaService;
+        this.consultaInventarioService = consultaInventarioService;
     }
 
     @PostMapping
@@ -121,45 +134,30 @@ public class InventarioController {
     @GetMapping("/producto/{productoId}")
     @Operation(summary = "Obtener el inventario por ID de producto")
     public ResponseEntity<InventarioResponseDto> obtenerInventarioPorProductoId(@PathVariable Long productoId) {
-        Inventario inventario = inventarioService.obtenerPorProductoId(productoId);
-
-        // Obtener información del producto
-        ProductoDto productoDto = null;
-        try {
-            productoDto = productoClient.obtenerProducto(inventario.getProductoId());
-        } catch (FeignException e) {
-            // Si no se puede obtener el producto, continuamos con la información básica
-        }
-
-        InventarioResponseDto responseDto = (productoDto != null)
-                ? inventarioMapper.toDto(inventario, productoDto)
-                : inventarioMapper.toDto(inventario);
-
-        return ResponseEntity.ok(responseDto);
+        // Las consultas simultáneas del mismo producto comparten una sola carga
+        return ResponseEntity.ok(consultaInventarioService.obtenerPorProductoId(productoId));
     }
 
     @GetMapping
     @Operation(summary = "Listar todos los registros de inventario")
     public ResponseEntity<List<InventarioResponseDto>> listarInventarios() {
         List<Inventario> inventarios = inventarioService.listarTodos();
+        return ResponseEntity.ok(toDtosConProducto(inventarios));
+    }
 
-        List<InventarioResponseDto> responseDtos = inventarios.stream()
-                .map(inventario -> {
-                    // Intentar obtener información del producto para cada inventario
-                    ProductoDto productoDto = null;
-                    try {
-                        productoDto = productoClient.obtenerProducto(inventario.getProductoId());
-                    } catch (FeignException e) {
-                        // Si no se puede obtener el producto, continuamos con la información básica
-                    }
-
-                    return (productoDto != null)
-                            ? inventarioMapper.toDto(inventario, productoDto)
-                            : inventarioMapper.toDto(inventario);
-                })
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(responseDtos);
+    @GetMapping("/pagina")
+    @Operation(summary = "Listar registros de inventario paginados por cursor")
+    public ResponseEntity<PaginaResponseDto<InventarioResponseDto>> listarInventariosPaginados(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        int tamano = PaginaResponseDto.normalizarLimite(limite);
+        // Se pide un registro extra para saber si existe una página siguiente
+        List<Inventario> inventarios = inventarioService.listarPagina(PaginaResponseDto.decodificarCursor(cursor), tamano + 1);
+        boolean hayMas = inventarios.size() > tamano;
+        List<Inventario> pagina = hayMas ? inventarios.subList(0, tamano) : inventarios;
+
+        Long ultimoId = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId();
+        return ResponseEntity.ok(PaginaResponseDto.de(toDtosConProducto(pagina), hayMas, ultimoId));
     }
 
     @PutMapping("/producto/{productoId}/stock")
@@ -198,30 +196,37 @@ public class InventarioController {
     @PostMapping("/salida-lote")
     @Operation(summary = "Procesar una salida de inventario en lote")
     public ResponseEntity<List<InventarioResponseDto>> procesarSalidaLote(
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
             @Valid @RequestBody SalidaInventarioLoteRequestDto requestDto) {
 
-        List<Inventario> inventariosActualizados = inventarioService.procesarSalidaLote(
-                requestDto.getItems(),
-                requestDto.getMotivo()
-        );
+        // Un reintento con la misma Idempotency-Key devuelve la respuesta original sin descontar de nuevo
+        List<InventarioResponseDto> respuesta = idempotenciaService.ejecutar(
+                claveIdempotencia, "salida-lote", requestDto, new TypeReference<List<InventarioResponseDto>>() {},
+                () -> toDtosConProducto(inventarioService.procesarSalidaLote(
+                        requestDto.getItems(),
+                        requestDto.getMotivo()
+                )));
 
-        List<InventarioResponseDto> responseDtos = inventariosActualizados.stream()
-                .map(inventario -> {
-                    // Intentar obtener información del producto
-                    ProductoDto productoDto = null;
-                    try {
-                        productoDto = productoClient.obtenerProducto(inventario.getProductoId());
-                    } catch (FeignException e) {
-                        // Si no se puede obtener el producto, continuamos con la información básica
-                    }
+        return ResponseEntity.ok(respuesta);
+    }
 
+    /**
+     * Convierte los inventarios a DTO uniendo en memoria la información de producto, obtenida
+     * con unas pocas llamadas batch en lugar de una por fila.
+     */
+    private List<InventarioResponseDto> toDtosConProducto(List<Inventario> inventarios) {
+        Map<Long, ProductoDto> productos = catalogoProductoService.obtenerProductos(
+                inventarios.stream().map(Inventario::getProductoId).collect(Collectors.toList()));
+
+        return inventarios.stream()
+                .map(inventario -> {
+                    ProductoDto productoDto = productos.get(inventario.getProductoId());
+                    // Si no se pudo obtener el producto, continuamos con la información básica
                     return (productoDto != null)
                             ? inventarioMapper.toDto(inventario, productoDto)
                             : inventarioMapper.toDto(inventario);
                 })
                 .collect(Collectors.toList());
-
-        return ResponseEntity.ok(responseDtos);
     }
 
     // ==================== ENDPOINTS OPTIMIZADOS PARA STOCK ====================
@@ -280,4 +285,21 @@ public class InventarioController {
             return ResponseEntity.ok(cantidades);
         }
     }
+
+    @PostMapping("/productos/batch")
+    @Operation(summary = "Obtener el inventario de múltiples productos en una sola consulta")
+    public ResponseEntity<Map<Long, InventarioInfoDto>> obtenerInventariosPorProductos(@RequestBody List<Long> productosIds) {
+        Map<Long, InventarioInfoDto> inventarios = new HashMap<>();
+
+        if (productosIds == null || productosIds.isEmpty()) {
+            return ResponseEntity.ok(inventarios);
+        }
+
+        // Una sola consulta; los productos sin inventario no aparecen en la respuesta
+        for (Inventario inventario : inventarioRepository.findByProductoIdIn(productosIds)) {
+            inventarios.put(inventario.getProductoId(), inventarioMapper.toInfoDto(inventario));
+        }
+
+        return ResponseEntity.ok(inventarios);
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.msvc_inventario.presentation.controller;
 
 import com.example.msvc_inventario.application.dto.MovimientoInventarioRequestDto;
 import com.example.msvc_inventario.application.dto.MovimientoInventarioResponseDto;
+import com.example.msvc_inventario.application.dto.PaginaResponseDto;
 import com.example.msvc_inventario.application.mapper.MovimientoInventarioMapper;
 import com.example.msvc_inventario.domain.model.MovimientoInventario;
 import com.example.msvc_inventario.domain.service.MovimientoInventarioService;
@@ -76,4 +77,22 @@ public class MovimientoInventarioController {
 
         return ResponseEntity.ok(responseDtos);
     }
+
+    @GetMapping("/pagina")
+    @Operation(summary = "Listar movimientos de inventario paginados por cursor")
+    public ResponseEntity<PaginaResponseDto<MovimientoInventarioResponseDto>> listarMovimientosPaginados(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        int tamano = PaginaResponseDto.normalizarLimite(limite);
+        // Se pide un registro extra para saber si existe una página siguiente
+        List<MovimientoInventario> movimientos = movimientoService.listarPagina(PaginaResponseDto.decodificarCursor(cursor), tamano + 1);
+        boolean hayMas = movimientos.size() > tamano;
+        List<MovimientoInventario> pagina = hayMas ? movimientos.subList(0, tamano) : movimientos;
+
+        List<MovimientoInventarioResponseDto> responseDtos = pagina.stream()
+                .map(movimientoMapper::toDto)
+                .collect(Collectors.toList());
+        Long ultimoId = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId();
+        return ResponseEntity.ok(PaginaResponseDto.de(responseDtos, hayMas, ultimoId));
+    }
 }
\ No newline at end of file
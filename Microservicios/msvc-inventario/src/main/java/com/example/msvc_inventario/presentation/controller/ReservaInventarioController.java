@@ -0,0 +1,137 @@
+package com.example.msvc_inventario.presentation.controller;
+
+import com.example.msvc_inventario.application.dto.ConfirmacionReservaRequestDto;
+import com.example.msvc_inventario.application.dto.ReservaInventarioRequestDto;
+import com.example.msvc_inventario.application.dto.ReservaInventarioResponseDto;
+import com.example.msvc_inventario.application.dto.ResultadoConfirmacionDto;
+import com.example.msvc_inventario.application.dto.ResultadoReservaDto;
+import com.example.msvc_inventario.application.mapper.ReservaInventarioMapper;
+import com.example.msvc_inventario.domain.model.ReservaInventario;
+import com.example.msvc_inventario.domain.service.ReservaInventarioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+@RestController
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"})
+@RequestMapping("/api/inventarios/reservas")
+@Tag(name = "Reservas de Inventario", description = "API para reservar stock de ventas pendientes")
+public class ReservaInventarioController {
+
+    private final ReservaInventarioService reservaService;
+    private final ReservaInventarioMapper reservaMapper;
+
+    public ReservaInventarioController(ReservaInventarioService reservaService,
+                                       ReservaInventarioMapper reservaMapper) {
+        this.reservaService = reservaService;
+        this.reservaMapper = reservaMapper;
+    }
+
+    @PostMapping
+    @Operation(summary = "Reservar stock para una venta pendiente")
+    public ResponseEntity<List<ReservaInventarioResponseDto>> reservar(
+            @Valid @RequestBody ReservaInventarioRequestDto requestDto) {
+        List<ReservaInventario> reservas = reservaService.reservar(requestDto.getReferencia(), requestDto.getItems());
+        return new ResponseEntity<>(toDtos(reservas), HttpStatus.CREATED);
+    }
+
+    /**
+     * Reserva el stock de varias ventas (por ejemplo, una carga de ventas de un punto de venta).
+     * Cada referencia se reserva en su propia transacción: si una no tiene stock, las demás continúan.
+     */
+    @PostMapping("/lote")
+    @Operation(summary = "Reservar en lote el stock de varias ventas")
+    public ResponseEntity<List<ResultadoReservaDto>> reservarLote(
+            @Valid @RequestBody List<ReservaInventarioRequestDto> reservas) {
+        List<ResultadoReservaDto> resultados = new ArrayList<>(reservas.size());
+        for (ReservaInventarioRequestDto reserva : reservas) {
+            try {
+                reservaService.reservar(reserva.getReferencia(), reserva.getItems());
+                resultados.add(new ResultadoReservaDto(reserva.getReferencia(), true, null));
+            } catch (RuntimeException e) {
+                resultados.add(new ResultadoReservaDto(reserva.getReferencia(), false, e.getMessage()));
+            }
+        }
+        return ResponseEntity.ok(resultados);
+    }
+
+    @GetMapping("/{referencia}")
+    @Operation(summary = "Obtener las reservas de una referencia")
+    public ResponseEntity<List<ReservaInventarioResponseDto>> obtenerPorReferencia(@PathVariable String referencia) {
+        return ResponseEntity.ok(toDtos(reservaService.obtenerPorReferencia(referencia)));
+    }
+
+    @PutMapping("/{referencia}/confirmar")
+    @Operation(summary = "Confirmar las reservas como salida de inventario")
+    public ResponseEntity<List<ReservaInventarioResponseDto>> confirmar(
+            @PathVariable String referencia,
+            @RequestParam(required = false) String motivo) {
+        String motivoSalida = motivo != null ? motivo : "Reserva " + referencia;
+        return ResponseEntity.ok(toDtos(reservaService.confirmar(referencia, motivoSalida)));
+    }
+
+    /**
+     * Confirma las reservas de varias ventas. Cada referencia se confirma en su propia transacción,
+     * de modo que un error en una no impide confirmar las demás.
+     */
+    @PostMapping("/confirmar-lote")
+    @Operation(summary = "Confirmar en lote las reservas de varias ventas")
+    public ResponseEntity<List<ResultadoConfirmacionDto>> confirmarLote(
+            @Valid @RequestBody List<ConfirmacionReservaRequestDto> confirmaciones) {
+        List<ResultadoConfirmacionDto> resultados = new ArrayList<>(confirmaciones.size());
+        for (ConfirmacionReservaRequestDto confirmacion : confirmaciones) {
+            String referencia = confirmacion.getReferencia();
+            String motivo = confirmacion.getMotivo() != null ? confirmacion.getMotivo() : "Reserva " + referencia;
+            try {
+                reservaService.confirmar(referencia, motivo, confirmacion.getItems());
+                resultados.add(new ResultadoConfirmacionDto(referencia, true, false, null));
+            } catch (NoSuchElementException | IllegalArgumentException | IllegalStateException e) {
+                resultados.add(new ResultadoConfirmacionDto(referencia, false, false, e.getMessage()));
+            } catch (Exception e) {
+                resultados.add(new ResultadoConfirmacionDto(referencia, false, true, e.getMessage()));
+            }
+        }
+        return ResponseEntity.ok(resultados);
+    }
+
+    @PutMapping("/{referencia}/extender")
+    @Operation(summary = "Ampliar el vencimiento de las reservas activas mientras se confirma su salida")
+    public ResponseEntity<List<ReservaInventarioResponseDto>> extender(
+            @PathVariable String referencia,
+            @RequestParam long segundos) {
+        return ResponseEntity.ok(toDtos(reservaService.extender(referencia, Duration.ofSeconds(segundos))));
+    }
+
+    @PutMapping("/{referencia}/liberar")
+    @Operation(summary = "Liberar las reservas activas de una referencia")
+    public ResponseEntity<Void> liberar(@PathVariable String referencia) {
+        reservaService.liberar(referencia);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Libera las reservas activas de varias ventas en una sola llamada (por ejemplo, las de un lote
+     * de ventas que no se pudo guardar). Las referencias sin reservas activas se ignoran.
+     */
+    @PostMapping("/liberar-lote")
+    @Operation(summary = "Liberar en lote las reservas activas de varias referencias")
+    public ResponseEntity<Void> liberarLote(@RequestBody List<String> referencias) {
+        reservaService.liberarLote(referencias);
+        return ResponseEntity.noContent().build();
+    }
+
+    private List<ReservaInventarioResponseDto> toDtos(List<ReservaInventario> reservas) {
+        return reservas.stream()
+                .map(reservaMapper::toDto)
+                .collect(Collectors.toList());
+    }
+}
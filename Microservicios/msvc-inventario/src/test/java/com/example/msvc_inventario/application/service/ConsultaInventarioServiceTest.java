@@ -0,0 +1,132 @@
+package com.example.msvc_inventario.application.service;
+
+import com.example.msvc_inventario.application.client.ProductoClient;
+import com.example.msvc_inventario.application.dto.InventarioResponseDto;
+import com.example.msvc_inventario.application.dto.ProductoDto;
+import com.example.msvc_inventario.application.mapper.InventarioMapper;
+import com.example.msvc_inventario.domain.model.Inventario;
+import com.example.msvc_inventario.domain.service.InventarioService;
+import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConsultaInventarioServiceTest {
+
+    private InventarioService inventarioService;
+    private ProductoClient productoClient;
+    private SimpleMeterRegistry registry;
+    private ConsultaInventarioService service;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        inventarioService = mock(InventarioService.class);
+        productoClient = mock(ProductoClient.class);
+        registry = new SimpleMeterRegistry();
+        service = new ConsultaInventarioService(inventarioService, new InventarioMapper(), productoClient, registry);
+        pool = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void consultasSimultaneasDelMismoProductoLeenUnaVezYLlamanUnaVezAProducto() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(inventarioService.obtenerPorProductoId(7L)).thenAnswer(invocacion -> {
+            iniciada.countDown();
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+            return inventario(7L);
+        });
+        when(productoClient.obtenerProducto(7L)).thenReturn(producto(7L, "Teclado"));
+
+        Future<InventarioResponseDto> primera = pool.submit(() -> service.obtenerPorProductoId(7L));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+        Future<InventarioResponseDto> segunda = pool.submit(() -> service.obtenerPorProductoId(7L));
+        esperarCompartidas(1.0);
+        liberar.countDown();
+
+        InventarioResponseDto respuesta = primera.get(5, TimeUnit.SECONDS);
+        assertSame(respuesta, segunda.get(5, TimeUnit.SECONDS));
+        assertEquals("Teclado", respuesta.getProducto().getNombre());
+        verify(inventarioService, times(1)).obtenerPorProductoId(7L);
+        verify(productoClient, times(1)).obtenerProducto(7L);
+        assertEquals(1.0, contador("singleflight.cargas"));
+    }
+
+    @Test
+    void consultasSucesivasVuelvenALeerElStock() {
+        when(inventarioService.obtenerPorProductoId(7L)).thenReturn(inventario(7L));
+        when(productoClient.obtenerProducto(7L)).thenReturn(producto(7L, "Teclado"));
+
+        service.obtenerPorProductoId(7L);
+        service.obtenerPorProductoId(7L);
+
+        verify(inventarioService, times(2)).obtenerPorProductoId(7L);
+        assertEquals(2.0, contador("singleflight.cargas"));
+        assertEquals(0.0, contador("singleflight.compartidas"));
+    }
+
+    @Test
+    void sinProductoDisponibleDevuelveLaInformacionBasica() {
+        when(inventarioService.obtenerPorProductoId(7L)).thenReturn(inventario(7L));
+        when(productoClient.obtenerProducto(7L)).thenThrow(FeignException.class);
+
+        InventarioResponseDto respuesta = service.obtenerPorProductoId(7L);
+
+        assertEquals(7L, respuesta.getProducto().getId());
+        assertNull(respuesta.getProducto().getNombre());
+        assertEquals(8, respuesta.getCantidadDisponible());
+    }
+
+    private double contador(String nombre) {
+        return registry.get(nombre).tag("consulta", "inventario-producto").counter().count();
+    }
+
+    private void esperarCompartidas(double esperadas) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (contador("singleflight.compartidas") < esperadas) {
+            if (System.nanoTime() > limite) {
+                throw new AssertionError("La segunda consulta no llegó a esperar la carga en curso");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static Inventario inventario(Long productoId) {
+        Inventario inventario = new Inventario();
+        inventario.setId(1L);
+        inventario.setProductoId(productoId);
+        inventario.setCantidad(10);
+        inventario.setCantidadReservada(2);
+        inventario.setActivo(true);
+        return inventario;
+    }
+
+    private static ProductoDto producto(Long id, String nombre) {
+        ProductoDto producto = new ProductoDto();
+        producto.setId(id);
+        producto.setNombre(nombre);
+        return producto;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.msvc_inventario.presentation.controller;
+
+import com.example.msvc_inventario.application.client.ProductoClient;
+import com.example.msvc_inventario.application.dto.InventarioResponseDto;
+import com.example.msvc_inventario.application.dto.ProductoDto;
+import com.example.msvc_inventario.application.dto.SalidaInventarioItemDto;
+import com.example.msvc_inventario.application.dto.SalidaInventarioLoteRequestDto;
+import com.example.msvc_inventario.application.mapper.InventarioMapper;
+import com.example.msvc_inventario.application.service.CatalogoProductoService;
+import com.example.msvc_inventario.application.service.ConsultaInventarioService;
+import com.example.msvc_inventario.application.service.IdempotenciaService;
+import com.example.msvc_inventario.application.service.SolicitudEnProcesoException;
+import com.example.msvc_inventario.domain.model.ClaveIdempotencia;
+import com.example.msvc_inventario.domain.model.Inventario;
+import com.example.msvc_inventario.domain.repository.ClaveIdempotenciaRepository;
+import com.example.msvc_inventario.domain.repository.InventarioRepository;
+import com.example.msvc_inventario.domain.service.InventarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventarioControllerTest {
+
+    private ClaveIdempotenciaRepository claveRepository;
+    private InventarioService inventarioService;
+    private CatalogoProductoService catalogoProductoService;
+
+    @BeforeEach
+    void setUp() {
+        claveRepository = mock(ClaveIdempotenciaRepository.class);
+        inventarioService = mock(InventarioService.class);
+        catalogoProductoService = mock(CatalogoProductoService.class);
+        when(claveRepository.completar(anyString(), anyString(), anyString())).thenReturn(true);
+        when(catalogoProductoService.obtenerProductos(any())).thenReturn(Map.of(7L, producto(7L, "Teclado")));
+    }
+
+    @Test
+    void salidaLoteSinClaveNoRegistraNada() {
+        when(inventarioService.procesarSalidaLote(any(), any())).thenReturn(List.of(inventario(7L, 8)));
+
+        List<InventarioResponseDto> respuesta = nuevoController().procesarSalidaLote(null, salida(7L, 2)).getBody();
+
+        assertEquals(8, respuesta.get(0).getCantidad());
+        verify(claveRepository, never()).registrar(anyString(), anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void reintentoDeSalidaLoteDevuelveLaRespuestaOriginalSinDescontarDeNuevo() {
+        SalidaInventarioLoteRequestDto salida = salida(7L, 2);
+        when(claveRepository.registrar(eq("k1"), eq("salida-lote"), anyString(), anyString(), any())).thenReturn(true);
+        when(inventarioService.procesarSalidaLote(salida.getItems(), salida.getMotivo()))
+                .thenReturn(List.of(inventario(7L, 8)));
+        nuevoController().procesarSalidaLote("k1", salida);
+
+        // Otra instancia atiende el reintento: la clave ya está COMPLETADA en la tabla
+        when(claveRepository.registrar(eq("k1"), eq("salida-lote"), anyString(), anyString(), any())).thenReturn(false);
+        when(claveRepository.findByClave("k1")).thenReturn(Optional.of(completada("k1")));
+
+        List<InventarioResponseDto> reintento = nuevoController().procesarSalidaLote("k1", salida).getBody();
+
+        assertEquals(8, reintento.get(0).getCantidad());
+        assertEquals("Teclado", reintento.get(0).getProducto().getNombre());
+        verify(inventarioService, times(1)).procesarSalidaLote(any(), any());
+    }
+
+    @Test
+    void claveReutilizadaConOtrasCantidadesEsRechazada() {
+        InventarioController controller = nuevoController();
+        when(claveRepository.registrar(eq("k2"), anyString(), anyString(), anyString(), any())).thenReturn(true);
+        when(inventarioService.procesarSalidaLote(any(), any())).thenReturn(List.of(inventario(7L, 8)));
+        controller.procesarSalidaLote("k2", salida(7L, 2));
+
+        assertThrows(IllegalArgumentException.class, () -> controller.procesarSalidaLote("k2", salida(7L, 5)));
+        verify(inventarioService, times(1)).procesarSalidaLote(any(), any());
+    }
+
+    @Test
+    void siOtroReintentoRetomoLaClaveLaSalidaNoSeConfirma() {
+        when(claveRepository.registrar(eq("k3"), anyString(), anyString(), anyString(), any())).thenReturn(true);
+        when(claveRepository.completar(eq("k3"), anyString(), anyString())).thenReturn(false);
+        when(inventarioService.procesarSalidaLote(any(), any())).thenReturn(List.of(inventario(7L, 8)));
+
+        assertThrows(SolicitudEnProcesoException.class,
+                () -> nuevoController().procesarSalidaLote("k3", salida(7L, 2)));
+
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(claveRepository).registrar(eq("k3"), anyString(), anyString(), token.capture(), any());
+        verify(claveRepository).eliminar("k3", token.getValue());
+    }
+
+    @Test
+    void siLaSalidaFallaLaClaveSeLiberaParaReintentar() {
+        when(claveRepository.registrar(eq("k4"), anyString(), anyString(), anyString(), any())).thenReturn(true);
+        when(inventarioService.procesarSalidaLote(any(), any()))
+                .thenThrow(new IllegalStateException("Stock insuficiente para el producto 7"));
+
+        assertThrows(IllegalStateException.class, () -> nuevoController().procesarSalidaLote("k4", salida(7L, 2)));
+
+        verify(claveRepository).eliminar(eq("k4"), anyString());
+        verify(claveRepository, never()).completar(eq("k4"), anyString(), anyString());
+    }
+
+    // Cada controlador tiene su propio IdempotenciaService, como dos instancias del servicio
+    private InventarioController nuevoController() {
+        IdempotenciaService idempotenciaService = new IdempotenciaService(claveRepository,
+                new ObjectMapper().findAndRegisterModules(), mock(PlatformTransactionManager.class), 24, 100, 120);
+        return new InventarioController(inventarioService, new InventarioMapper(), mock(ProductoClient.class),
+                mock(InventarioRepository.class), catalogoProductoService, idempotenciaService,
+                mock(ConsultaInventarioService.class));
+    }
+
+    // Registro COMPLETADO con el hash y la respuesta que guardó la primera ejecución de la clave
+    private ClaveIdempotencia completada(String clave) {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> respuesta = ArgumentCaptor.forClass(String.class);
+        verify(claveRepository).registrar(eq(clave), eq("salida-lote"), hash.capture(), anyString(), any());
+        verify(claveRepository).completar(eq(clave), anyString(), respuesta.capture());
+
+        ClaveIdempotencia registro = new ClaveIdempotencia();
+        registro.setClave(clave);
+        registro.setOperacion("salida-lote");
+        registro.setHashSolicitud(hash.getValue());
+        registro.setEstado(ClaveIdempotencia.EstadoClave.COMPLETADA);
+        registro.setRespuesta(respuesta.getValue());
+        registro.setExpiraEn(LocalDateTime.now().plusHours(24));
+        return registro;
+    }
+
+    private static SalidaInventarioLoteRequestDto salida(Long productoId, int cantidad) {
+        return new SalidaInventarioLoteRequestDto(
+                List.of(new SalidaInventarioItemDto(productoId, cantidad)), "Venta F-1");
+    }
+
+    private static Inventario inventario(Long productoId, int cantidad) {
+        Inventario inventario = new Inventario();
+        inventario.setId(1L);
+        inventario.setProductoId(productoId);
+        inventario.setCantidad(cantidad);
+        inventario.setCantidadReservada(0);
+        inventario.setActivo(true);
+        return inventario;
+    }
+
+    private static ProductoDto producto(Long id, String nombre) {
+        ProductoDto producto = new ProductoDto();
+        producto.setId(id);
+        producto.setNombre(nombre);
+        return producto;
+    }
+}
@@ -10,7 +10,7 @@ import java.util.Map;
 @FeignClient(
         name = "msvc-inventario",
         url = "${app.msvc-inventario.url}",
-        fallback = InventarioClientFallback.class
+        fallbackFactory = InventarioClientFallbackFactory.class
 )
 public interface InventarioClient {
 
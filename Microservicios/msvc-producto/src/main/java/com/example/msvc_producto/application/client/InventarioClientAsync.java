@@ -0,0 +1,17 @@
+package com.example.msvc_producto.application.client;
+
+import com.example.msvc_producto.application.dto.InventarioInfoDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Variante asíncrona de {@link InventarioClient}. Cada llamada tiene su propio plazo y devuelve un
+ * CompletableFuture, de modo que varias consultas pueden componerse sin esperar una tras otra.
+ * Un plazo agotado completa el futuro con TimeoutException.
+ */
+public interface InventarioClientAsync {
+
+    CompletableFuture<Map<Long, InventarioInfoDto>> obtenerInventariosPorProductos(List<Long> productosIds);
+}
@@ -0,0 +1,50 @@
+package com.example.msvc_producto.application.client;
+
+import com.example.msvc_producto.application.dto.InventarioInfoDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementación por defecto: ejecuta el cliente Feign en el pool acotado de consultas remotas.
+ * El plazo libera al llamador, pero la llamada Feign sigue ocupando su hilo hasta su read-timeout.
+ * Si el pool rechaza la tarea se devuelve un futuro fallido.
+ */
+@Component
+@ConditionalOnProperty(name = "app.consultas-remotas.cliente", havingValue = "feign", matchIfMissing = true)
+public class InventarioClientAsyncFeign implements InventarioClientAsync {
+
+    private final InventarioClient inventarioClient;
+    private final Executor consultasRemotasExecutor;
+    private final long timeoutMs;
+
+    public InventarioClientAsyncFeign(
+            @Qualifier("com.example.msvc_producto.application.client.InventarioClient") InventarioClient inventarioClient,
+            @Qualifier("consultasRemotasExecutor") Executor consultasRemotasExecutor,
+            @Value("${app.consultas-remotas.llamada-timeout-ms:3000}") long timeoutMs) {
+        this.inventarioClient = inventarioClient;
+        this.consultasRemotasExecutor = consultasRemotasExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public CompletableFuture<Map<Long, InventarioInfoDto>> obtenerInventariosPorProductos(List<Long> productosIds) {
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> inventarioClient.obtenerInventariosPorProductos(productosIds), consultasRemotasExecutor)
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Pool saturado: la consulta falla de inmediato en lugar de bloquear al llamador
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Demasiadas consultas remotas en curso, reintente más tarde", e));
+        }
+    }
+}
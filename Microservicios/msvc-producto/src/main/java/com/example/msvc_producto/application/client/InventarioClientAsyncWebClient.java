@@ -0,0 +1,45 @@
+package com.example.msvc_producto.application.client;
+
+import com.example.msvc_producto.application.dto.InventarioInfoDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementación no bloqueante con WebClient: las respuestas se procesan en los hilos de E/S de
+ * Reactor Netty, así que una consulta pendiente no retiene ningún hilo. Se activa con
+ * app.consultas-remotas.cliente=webclient.
+ */
+@Component
+@ConditionalOnProperty(name = "app.consultas-remotas.cliente", havingValue = "webclient")
+public class InventarioClientAsyncWebClient implements InventarioClientAsync {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public InventarioClientAsyncWebClient(
+            WebClient.Builder webClientBuilder,
+            @Value("${app.msvc-inventario.url}") String url,
+            @Value("${app.consultas-remotas.llamada-timeout-ms:3000}") long timeoutMs) {
+        this.webClient = webClientBuilder.baseUrl(url).build();
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    @Override
+    public CompletableFuture<Map<Long, InventarioInfoDto>> obtenerInventariosPorProductos(List<Long> productosIds) {
+        return webClient.post()
+                .uri("/api/inventarios/productos/batch")
+                .bodyValue(productosIds)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<Long, InventarioInfoDto>>() {})
+                .timeout(timeout)
+                .toFuture();
+    }
+}
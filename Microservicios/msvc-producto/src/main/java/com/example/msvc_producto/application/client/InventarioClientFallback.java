@@ -1,13 +1,11 @@
 package com.example.msvc_producto.application.client;
 
 import com.example.msvc_producto.application.dto.InventarioInfoDto;
-import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-@Component
 public class InventarioClientFallback implements InventarioClient {
 
     @Override
@@ -0,0 +1,27 @@
+package com.example.msvc_producto.application.client;
+
+import feign.FeignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entrega el fallback de {@link InventarioClient} cuando la llamada falla, el circuito está abierto, el
+ * bulkhead está lleno o se agota el plazo. Un error 4xx es una respuesta válida de inventario
+ * (por ejemplo un 404) y se propaga tal cual para que el llamador lo trate.
+ */
+@Component
+public class InventarioClientFallbackFactory implements FallbackFactory<InventarioClient> {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioClientFallbackFactory.class);
+
+    @Override
+    public InventarioClient create(Throwable cause) {
+        if (cause instanceof FeignException.FeignClientException errorCliente) {
+            throw errorCliente;
+        }
+        logger.debug("InventarioClient no disponible, se usa el fallback: {}", cause.toString());
+        return new InventarioClientFallback();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.msvc_producto.application.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Productos modificados desde una fecha dada. El consumidor envía "hasta" como "desde" en la
+ * siguiente consulta para recibir solo los cambios nuevos.
+ */
+public class CambiosProductoDto {
+    private LocalDateTime hasta;
+    private List<Long> productoIds;
+
+    // Constructor vacío
+    public CambiosProductoDto() {
+    }
+
+    public CambiosProductoDto(LocalDateTime hasta, List<Long> productoIds) {
+        this.hasta = hasta;
+        this.productoIds = productoIds;
+    }
+
+    // Getters y setters
+    public LocalDateTime getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(LocalDateTime hasta) {
+        this.hasta = hasta;
+    }
+
+    public List<Long> getProductoIds() {
+        return productoIds;
+    }
+
+    public void setProductoIds(List<Long> productoIds) {
+        this.productoIds = productoIds;
+    }
+}
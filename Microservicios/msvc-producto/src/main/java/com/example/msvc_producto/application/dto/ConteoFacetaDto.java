@@ -0,0 +1,35 @@
+package com.example.msvc_producto.application.dto;
+
+/**
+ * Cantidad de productos que tendría el resultado al elegir este valor de la faceta.
+ */
+public class ConteoFacetaDto {
+    private String valor;
+    private long cantidad;
+
+    // Constructor vacío
+    public ConteoFacetaDto() {
+    }
+
+    public ConteoFacetaDto(String valor, long cantidad) {
+        this.valor = valor;
+        this.cantidad = cantidad;
+    }
+
+    // Getters y setters
+    public String getValor() {
+        return valor;
+    }
+
+    public void setValor(String valor) {
+        this.valor = valor;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(long cantidad) {
+        this.cantidad = cantidad;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.msvc_producto.application.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de una consulta por facetas: la página de productos que cumplen todos los filtros,
+ * el total y, por cada faceta, los conteos calculados con los filtros de las demás facetas.
+ */
+public class FacetasProductoResponseDto {
+    private long total;
+    private PaginaResponseDto<ProductoResponseDto> productos;
+    private Map<String, List<ConteoFacetaDto>> facetas;
+
+    // Constructor vacío
+    public FacetasProductoResponseDto() {
+    }
+
+    public FacetasProductoResponseDto(long total, PaginaResponseDto<ProductoResponseDto> productos,
+                                      Map<String, List<ConteoFacetaDto>> facetas) {
+        this.total = total;
+        this.productos = productos;
+        this.facetas = facetas;
+    }
+
+    // Getters y setters
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public PaginaResponseDto<ProductoResponseDto> getProductos() {
+        return productos;
+    }
+
+    public void setProductos(PaginaResponseDto<ProductoResponseDto> productos) {
+        this.productos = productos;
+    }
+
+    public Map<String, List<ConteoFacetaDto>> getFacetas() {
+        return facetas;
+    }
+
+    public void setFacetas(Map<String, List<ConteoFacetaDto>> facetas) {
+        this.facetas = facetas;
+    }
+}
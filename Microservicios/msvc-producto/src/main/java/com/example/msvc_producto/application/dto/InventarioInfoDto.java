@@ -1,9 +1,12 @@
 package com.example.msvc_producto.application.dto;
 
+import java.time.LocalDateTime;
+
 public class InventarioInfoDto {
     private Long id;
     private Integer cantidad;
     private String ubicacion;
+    private LocalDateTime actualizadoEn; // Momento en que se obtuvo el valor (antigüedad de la proyección)
 
     // Constructor vacío
     public InventarioInfoDto() {
@@ -16,6 +19,12 @@ public class InventarioInfoDto {
         this.ubicacion = ubicacion;
     }
 
+    // Constructor con la fecha de actualización (usado por la proyección de stock)
+    public InventarioInfoDto(Long id, Integer cantidad, String ubicacion, LocalDateTime actualizadoEn) {
+        this(id, cantidad, ubicacion);
+        this.actualizadoEn = actualizadoEn;
+    }
+
     // Getters y setters
     public Long getId() {
         return id;
@@ -40,4 +49,12 @@ public class InventarioInfoDto {
     public void setUbicacion(String ubicacion) {
         this.ubicacion = ubicacion;
     }
+
+    public LocalDateTime getActualizadoEn() {
+        return actualizadoEn;
+    }
+
+    public void setActualizadoEn(LocalDateTime actualizadoEn) {
+        this.actualizadoEn = actualizadoEn;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.msvc_producto.application.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Datos mínimos de un producto activo para construir los índices de facetas.
+ */
+public class ProductoFacetaDto {
+    private Long id;
+    private Long categoriaId;
+    private Long empresaId;
+    private BigDecimal precio;
+
+    // Constructor vacío
+    public ProductoFacetaDto() {
+    }
+
+    public ProductoFacetaDto(Long id, Long categoriaId, Long empresaId, BigDecimal precio) {
+        this.id = id;
+        this.categoriaId = categoriaId;
+        this.empresaId = empresaId;
+        this.precio = precio;
+    }
+
+    // Getters y setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public void setCategoriaId(Long categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+
+    public Long getEmpresaId() {
+        return empresaId;
+    }
+
+    public void setEmpresaId(Long empresaId) {
+        this.empresaId = empresaId;
+    }
+
+    public BigDecimal getPrecio() {
+        return precio;
+    }
+
+    public void setPrecio(BigDecimal precio) {
+        this.precio = precio;
+    }
+}
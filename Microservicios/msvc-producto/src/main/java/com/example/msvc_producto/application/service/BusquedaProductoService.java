@@ -0,0 +1,436 @@
+package com.example.msvc_producto.application.service;
+
+import com.example.msvc_producto.application.dto.ProductoListadoDto;
+import com.example.msvc_producto.domain.model.Producto;
+import com.example.msvc_producto.domain.repository.ProductoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Búsqueda de texto sobre los productos activos con un índice invertido en memoria
+ * (nombre, descripción, categoría y empresa). Ignora tildes y mayúsculas, admite prefijos
+ * en la última palabra y ordena por relevancia. El índice se construye al iniciar y se
+ * mantiene con los cambios confirmados, por lo que una búsqueda nunca recorre la tabla.
+ */
+@Service
+public class BusquedaProductoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaProductoService.class);
+
+    private static final float PESO_NOMBRE = 3f;
+    private static final float PESO_CATEGORIA = 2f;
+    private static final float PESO_EMPRESA = 2f;
+    private static final float PESO_DESCRIPCION = 1f;
+    private static final float FACTOR_PREFIJO = 0.7f;
+    private static final int LONGITUD_MINIMA_PREFIJO = 2;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "la", "las", "los", "o", "para", "por", "un", "una", "y");
+
+    private final ProductoRepository productoRepository;
+    private final int maxExpansionPrefijo;
+    private final Timer tiempoBusqueda;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos por lock
+    private Indice indice = new Indice();
+    private Map<Long, Optional<ProductoListadoDto>> cambiosDuranteReconstruccion;
+
+    public BusquedaProductoService(
+            ProductoRepository productoRepository,
+            @Value("${app.busqueda.max-expansion-prefijo:64}") int maxExpansionPrefijo,
+            MeterRegistry meterRegistry) {
+        this.productoRepository = productoRepository;
+        this.maxExpansionPrefijo = Math.max(maxExpansionPrefijo, 1);
+        this.tiempoBusqueda = Timer.builder("productos.busqueda")
+                .description("Duración de las búsquedas sobre el índice de productos en memoria")
+                .register(meterRegistry);
+        meterRegistry.gauge("productos.busqueda.indexados", this, BusquedaProductoService::totalIndexados);
+    }
+
+    /**
+     * Devuelve hasta {@code limite} productos que contienen todas las palabras del texto,
+     * ordenados por relevancia. La última palabra también coincide como prefijo.
+     */
+    public List<ProductoListadoDto> buscar(String texto, int limite) {
+        List<String> terminos = tokenizar(texto);
+        if (terminos.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        return tiempoBusqueda.record(() -> {
+            lock.readLock().lock();
+            try {
+                return indice.buscar(terminos, limite, maxExpansionPrefijo);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Reconstruye el índice completo a partir de los productos activos. Las búsquedas siguen
+     * usando el índice anterior hasta el reemplazo, y los cambios confirmados mientras tanto
+     * se reaplican sobre el índice nuevo.
+     */
+    public synchronized int reconstruir() {
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteReconstruccion = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Indice nuevo = new Indice();
+        try {
+            for (ProductoListadoDto producto : productoRepository.findAllOptimized()) {
+                nuevo.agregar(producto);
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteReconstruccion = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteReconstruccion.forEach((id, documento) -> aplicar(nuevo, id, documento));
+            cambiosDuranteReconstruccion = null;
+            indice = nuevo;
+            logger.info("Índice de búsqueda de productos reconstruido: {} productos", nuevo.totalDocumentos());
+            return nuevo.totalDocumentos();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirAlIniciar() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            logger.warn("No se pudo construir el índice de búsqueda de productos al iniciar: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Actualiza el índice solo cuando el cambio quedó confirmado; un producto inactivo se retira.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alModificarProducto(ProductoModificadoEvent evento) {
+        Producto producto = evento.getProducto();
+        Optional<ProductoListadoDto> documento = Boolean.TRUE.equals(producto.getActivo())
+                ? Optional.of(aDocumento(producto))
+                : Optional.empty();
+
+        lock.writeLock().lock();
+        try {
+            aplicar(indice, producto.getId(), documento);
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.put(producto.getId(), documento);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * El nombre de la categoría forma parte de cada documento: al renombrarla o desactivarla se
+     * vuelven a indexar sus productos con lo confirmado, igual que en una reconstrucción.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alModificarCategoria(CategoriaModificadaEvent evento) {
+        reindexar(productoRepository.findAllOptimizedByCategoriaId(evento.getCategoriaId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alModificarEmpresa(EmpresaModificadaEvent evento) {
+        reindexar(productoRepository.findAllOptimizedByEmpresaId(evento.getEmpresaId()));
+    }
+
+    private void reindexar(List<ProductoListadoDto> productos) {
+        lock.writeLock().lock();
+        try {
+            for (ProductoListadoDto producto : productos) {
+                Optional<ProductoListadoDto> documento = Optional.of(producto);
+                aplicar(indice, producto.getId(), documento);
+                if (cambiosDuranteReconstruccion != null) {
+                    cambiosDuranteReconstruccion.put(producto.getId(), documento);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Productos reindexados por cambio de categoría o empresa: {}", productos.size());
+    }
+
+    private double totalIndexados() {
+        lock.readLock().lock();
+        try {
+            return indice.totalDocumentos();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void aplicar(Indice indice, Long productoId, Optional<ProductoListadoDto> documento) {
+        if (documento.isPresent()) {
+            indice.agregar(documento.get());
+        } else {
+            indice.eliminar(productoId);
+        }
+    }
+
+    private static ProductoListadoDto aDocumento(Producto producto) {
+        return new ProductoListadoDto(
+                producto.getId(),
+                producto.getNombre(),
+                producto.getDescripcion(),
+                producto.getPrecio() != null ? producto.getPrecio().doubleValue() : null,
+                producto.getImagen(),
+                producto.getCategoria() != null ? producto.getCategoria().getNombre() : null,
+                producto.getEmpresa() != null ? producto.getEmpresa().getNombre() : null);
+    }
+
+    /**
+     * Separa el texto en palabras sin tildes ni mayúsculas (así "Café" y "cafe" coinciden)
+     * y descarta las palabras vacías más comunes del español.
+     */
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String normalizado = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> terminos = new ArrayList<>();
+        for (String termino : SEPARADORES.split(normalizado)) {
+            if (!termino.isEmpty() && !PALABRAS_VACIAS.contains(termino)) {
+                terminos.add(termino);
+            }
+        }
+        return terminos;
+    }
+
+    /**
+     * Estructura del índice; no es segura para hilos, el servicio la protege con el lock.
+     */
+    private static final class Indice {
+
+        // Término -> (productoId -> peso del término en el producto); ordenado para recorrer prefijos
+        private final TreeMap<String, Map<Long, Float>> publicaciones = new TreeMap<>();
+        private final Map<Long, ProductoListadoDto> documentos = new HashMap<>();
+        private final Map<Long, Set<String>> terminosPorDocumento = new HashMap<>();
+
+        void agregar(ProductoListadoDto producto) {
+            eliminar(producto.getId());
+
+            Map<String, Float> pesos = new HashMap<>();
+            sumarPesos(pesos, producto.getNombre(), PESO_NOMBRE);
+            sumarPesos(pesos, producto.getCategoriaNombre(), PESO_CATEGORIA);
+            sumarPesos(pesos, producto.getEmpresaNombre(), PESO_EMPRESA);
+            sumarPesos(pesos, producto.getDescripcion(), PESO_DESCRIPCION);
+
+            pesos.forEach((termino, peso) ->
+                    publicaciones.computeIfAbsent(termino, t -> new HashMap<>()).put(producto.getId(), peso));
+            documentos.put(producto.getId(), producto);
+            terminosPorDocumento.put(producto.getId(), pesos.keySet());
+        }
+
+        void eliminar(Long productoId) {
+            documentos.remove(productoId);
+            Set<String> terminos = terminosPorDocumento.remove(productoId);
+            if (terminos == null) {
+                return;
+            }
+            for (String termino : terminos) {
+                Map<Long, Float> productos = publicaciones.get(termino);
+                if (productos != null) {
+                    productos.remove(productoId);
+                    if (productos.isEmpty()) {
+                        publicaciones.remove(termino);
+                    }
+                }
+            }
+        }
+
+        int totalDocumentos() {
+            return documentos.size();
+        }
+
+        List<ProductoListadoDto> buscar(List<String> terminos, int limite, int maxExpansionPrefijo) {
+            String ultimo = terminos.get(terminos.size() - 1);
+            boolean prefijo = ultimo.length() >= LONGITUD_MINIMA_PREFIJO;
+
+            // Las palabras completas se resuelven de la más rara a la más común: la primera fija
+            // un conjunto pequeño de candidatos y las siguientes solo lo filtran
+            List<String> exactos = new ArrayList<>(prefijo ? terminos.subList(0, terminos.size() - 1) : terminos);
+            List<Map<Long, Float>> listas = new ArrayList<>(exactos.size());
+            for (String termino : exactos) {
+                Map<Long, Float> productos = publicaciones.get(termino);
+                if (productos == null) {
+                    return List.of();
+                }
+                listas.add(productos);
+            }
+            listas.sort(Comparator.comparingInt(Map::size));
+
+            Map<Long, Float> puntajes = null;
+            for (Map<Long, Float> productos : listas) {
+                float idf = idf(productos);
+                if (puntajes == null) {
+                    puntajes = new HashMap<>();
+                    acumular(puntajes, productos, idf);
+                } else {
+                    puntajes.entrySet().removeIf(candidato -> {
+                        Float peso = productos.get(candidato.getKey());
+                        if (peso == null) {
+                            return true;
+                        }
+                        candidato.setValue(candidato.getValue() + peso * idf);
+                        return false;
+                    });
+                }
+                if (puntajes.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            if (prefijo) {
+                puntajes = filtrarPorPrefijo(puntajes, ultimo, maxExpansionPrefijo);
+                if (puntajes.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            // Los mejores `limite` con un montículo acotado; a igual puntaje, el ID menor primero
+            Comparator<Map.Entry<Long, Float>> peorPrimero = Map.Entry.<Long, Float>comparingByValue()
+                    .thenComparing(Map.Entry.<Long, Float>comparingByKey().reversed());
+            PriorityQueue<Map.Entry<Long, Float>> mejores = new PriorityQueue<>(limite + 1, peorPrimero);
+            for (Map.Entry<Long, Float> entrada : puntajes.entrySet()) {
+                mejores.offer(entrada);
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+
+            List<ProductoListadoDto> resultado = new ArrayList<>(mejores.size());
+            while (!mejores.isEmpty()) {
+                ProductoListadoDto documento = documentos.get(mejores.poll().getKey());
+                // Copia: el llamador completa el stock sin modificar el documento indexado
+                resultado.add(new ProductoListadoDto(documento.getId(), documento.getNombre(),
+                        documento.getDescripcion(), documento.getPrecio(), documento.getImagen(),
+                        documento.getCategoriaNombre(), documento.getEmpresaNombre()));
+            }
+            Collections.reverse(resultado);
+            return resultado;
+        }
+
+        /**
+         * Aplica la última palabra como prefijo: los términos que empiezan por ella son un rango
+         * contiguo del mapa ordenado. Sin candidatos previos se unen todas sus listas. Con candidatos,
+         * si el prefijo abarca hasta {@code maxExpansionPrefijo} términos se consulta cada candidato en
+         * esas listas; si abarca más, se revisan los términos propios de cada candidato, de modo que
+         * ningún término queda fuera por su posición alfabética.
+         */
+        private Map<Long, Float> filtrarPorPrefijo(Map<Long, Float> candidatos, String prefijo, int maxExpansionPrefijo) {
+            SortedMap<String, Map<Long, Float>> expansiones =
+                    publicaciones.subMap(prefijo, true, prefijo + Character.MAX_VALUE, true);
+
+            Map<Long, Float> resultado = new HashMap<>();
+            if (candidatos == null) {
+                expansiones.forEach((termino, productos) -> {
+                    float factor = factorPrefijo(termino, prefijo, productos);
+                    productos.forEach((productoId, peso) -> resultado.merge(productoId, peso * factor, Math::max));
+                });
+                return resultado;
+            }
+
+            boolean recorrerExpansiones = !superaLimite(expansiones.keySet(), maxExpansionPrefijo);
+            Map<String, Float> factores = new HashMap<>();
+            candidatos.forEach((productoId, puntaje) -> {
+                Iterable<String> terminos = recorrerExpansiones
+                        ? expansiones.keySet()
+                        : terminosPorDocumento.getOrDefault(productoId, Set.of());
+                float mejor = 0f;
+                for (String termino : terminos) {
+                    if (!termino.startsWith(prefijo)) {
+                        continue;
+                    }
+                    Map<Long, Float> productos = publicaciones.get(termino);
+                    Float peso = productos.get(productoId);
+                    if (peso != null) {
+                        float factor = factores.computeIfAbsent(termino, t -> factorPrefijo(t, prefijo, productos));
+                        mejor = Math.max(mejor, peso * factor);
+                    }
+                }
+                if (mejor > 0f) {
+                    resultado.put(productoId, puntaje + mejor);
+                }
+            });
+            return resultado;
+        }
+
+        // Una palabra que solo coincide por prefijo puntúa menos que la palabra completa
+        private float factorPrefijo(String termino, String prefijo, Map<Long, Float> productos) {
+            return idf(productos) * (termino.length() == prefijo.length() ? 1f : FACTOR_PREFIJO);
+        }
+
+        private static boolean superaLimite(Iterable<String> terminos, int limite) {
+            int total = 0;
+            for (String ignorado : terminos) {
+                if (++total > limite) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Rareza del término (idf): las palabras que aparecen en pocos productos pesan más
+        private float idf(Map<Long, Float> productos) {
+            return (float) Math.log(1 + (double) documentos.size() / productos.size());
+        }
+
+        private static void acumular(Map<Long, Float> resultado, Map<Long, Float> productos, float idf) {
+            productos.forEach((productoId, peso) -> resultado.put(productoId, peso * idf));
+        }
+
+        private static void sumarPesos(Map<String, Float> pesos, String texto, float peso) {
+            for (String termino : new HashSet<>(tokenizar(texto))) {
+                pesos.merge(termino, peso, Float::sum);
+            }
+        }
+    }
+}
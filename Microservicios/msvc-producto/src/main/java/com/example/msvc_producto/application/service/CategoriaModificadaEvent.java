@@ -0,0 +1,18 @@
+package com.example.msvc_producto.application.service;
+
+/**
+ * Se publica al actualizar o eliminar (desactivar) una categoria. El índice de búsqueda guarda su
+ * nombre en cada producto, así que después del commit vuelve a indexar los productos de la categoria.
+ */
+public class CategoriaModificadaEvent {
+
+    private final Long categoriaId;
+
+    public CategoriaModificadaEvent(Long categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.msvc_producto.application.service;
 import com.example.msvc_producto.domain.model.Categoria;
 import com.example.msvc_producto.domain.repository.CategoriaRepository;
 import com.example.msvc_producto.domain.service.CategoriaService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,9 +15,11 @@ import java.util.NoSuchElementException;
 public class CategoriaServiceImpl implements CategoriaService {
 
     private final CategoriaRepository categoriaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CategoriaServiceImpl(CategoriaRepository categoriaRepository) {
+    public CategoriaServiceImpl(CategoriaRepository categoriaRepository, ApplicationEventPublisher eventPublisher) {
         this.categoriaRepository = categoriaRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -38,7 +41,10 @@ public class CategoriaServiceImpl implements CategoriaService {
         categoriaExistente.setActivo(categoria.getActivo());
         categoriaExistente.setFechaActualizacion(LocalDateTime.now());
 
-        return categoriaRepository.save(categoriaExistente);
+        Categoria categoriaGuardada = categoriaRepository.save(categoriaExistente);
+        // Los productos de la categoria se vuelven a indexar con el nuevo nombre después del commit
+        eventPublisher.publishEvent(new CategoriaModificadaEvent(id));
+        return categoriaGuardada;
     }
 
     @Override
@@ -61,5 +67,6 @@ public class CategoriaServiceImpl implements CategoriaService {
         categoria.setActivo(false);
         categoria.setFechaActualizacion(LocalDateTime.now());
         categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(new CategoriaModificadaEvent(id));
     }
 }
\ No newline at end of file
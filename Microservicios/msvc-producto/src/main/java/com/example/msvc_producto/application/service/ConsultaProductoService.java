@@ -0,0 +1,43 @@
+package com.example.msvc_producto.application.service;
+
+import com.example.msvc_producto.application.dto.ProductoResponseDto;
+import com.example.msvc_producto.application.mapper.ProductoMapper;
+import com.example.msvc_producto.domain.model.Producto;
+import com.example.msvc_producto.domain.service.ProductoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+/**
+ * Consulta de un producto por ID con su stock proyectado. Durante un pico sobre los mismos
+ * productos, las solicitudes simultáneas de un ID comparten una sola lectura a la base de datos.
+ */
+@Service
+public class ConsultaProductoService {
+
+    private final ProductoService productoService;
+    private final ProductoMapper productoMapper;
+    private final ProyeccionStockService proyeccionStockService;
+    private final SingleFlight<Long, ProductoResponseDto> productosEnCurso;
+
+    public ConsultaProductoService(
+            ProductoService productoService,
+            ProductoMapper productoMapper,
+            ProyeccionStockService proyeccionStockService,
+            MeterRegistry meterRegistry) {
+        this.productoService = productoService;
+        this.productoMapper = productoMapper;
+        this.proyeccionStockService = proyeccionStockService;
+        this.productosEnCurso = new SingleFlight<>("producto", meterRegistry);
+    }
+
+    public ProductoResponseDto obtenerProducto(Long id) {
+        return productosEnCurso.ejecutar(id, () -> {
+            Producto producto = productoService.obtenerProductoPorId(id);
+            ProductoResponseDto responseDto = productoMapper.toDto(producto);
+
+            // Información de inventario desde la proyección local de stock
+            responseDto.setInventario(proyeccionStockService.obtener(producto.getId()));
+            return responseDto;
+        });
+    }
+}
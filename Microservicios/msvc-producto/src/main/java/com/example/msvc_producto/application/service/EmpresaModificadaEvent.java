@@ -0,0 +1,18 @@
+package com.example.msvc_producto.application.service;
+
+/**
+ * Se publica al actualizar o eliminar (desactivar) una empresa. El índice de búsqueda guarda su
+ * nombre en cada producto, así que después del commit vuelve a indexar los productos de la empresa.
+ */
+public class EmpresaModificadaEvent {
+
+    private final Long empresaId;
+
+    public EmpresaModificadaEvent(Long empresaId) {
+        this.empresaId = empresaId;
+    }
+
+    public Long getEmpresaId() {
+        return empresaId;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.msvc_producto.application.service;
 import com.example.msvc_producto.domain.model.Empresa;
 import com.example.msvc_producto.domain.repository.EmpresaRepository;
 import com.example.msvc_producto.domain.service.EmpresaService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,9 +15,11 @@ import java.util.NoSuchElementException;
 public class EmpresaServiceImpl implements EmpresaService {
 
     private final EmpresaRepository empresaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public EmpresaServiceImpl(EmpresaRepository empresaRepository) {
+    public EmpresaServiceImpl(EmpresaRepository empresaRepository, ApplicationEventPublisher eventPublisher) {
         this.empresaRepository = empresaRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -41,7 +44,10 @@ public class EmpresaServiceImpl implements EmpresaService {
         empresaExistente.setActivo(empresa.getActivo());
         empresaExistente.setFechaActualizacion(LocalDateTime.now());
 
-        return empresaRepository.save(empresaExistente);
+        Empresa empresaGuardada = empresaRepository.save(empresaExistente);
+        // Los productos de la empresa se vuelven a indexar con el nuevo nombre después del commit
+        eventPublisher.publishEvent(new EmpresaModificadaEvent(id));
+        return empresaGuardada;
     }
 
     @Override
@@ -64,5 +70,6 @@ public class EmpresaServiceImpl implements EmpresaService {
         empresa.setActivo(false);
         empresa.setFechaActualizacion(LocalDateTime.now());
         empresaRepository.save(empresa);
+        eventPublisher.publishEvent(new EmpresaModificadaEvent(id));
     }
 }
\ No newline at end of file
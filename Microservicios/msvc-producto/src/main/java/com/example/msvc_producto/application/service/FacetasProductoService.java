@@ -0,0 +1,457 @@
+package com.example.msvc_producto.application.service;
+
+import com.example.msvc_producto.application.dto.ConteoFacetaDto;
+import com.example.msvc_producto.application.dto.ProductoFacetaDto;
+import com.example.msvc_producto.domain.model.Producto;
+import com.example.msvc_producto.domain.repository.ProductoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Filtrado por facetas (categoría, empresa, banda de precio y disponibilidad) con un bitmap
+ * comprimido por cada valor. Un filtro es la intersección de los bitmaps elegidos y cada
+ * conteo de faceta es la cardinalidad de una intersección, sin consultar la base de datos.
+ * Se construye al iniciar y se mantiene con los cambios de productos confirmados y con las
+ * actualizaciones de la proyección de stock.
+ */
+@Service
+public class FacetasProductoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetasProductoService.class);
+
+    public static final String FACETA_CATEGORIA = "categoria";
+    public static final String FACETA_EMPRESA = "empresa";
+    public static final String FACETA_PRECIO = "precio";
+    public static final String FACETA_STOCK = "enStock";
+
+    private static final int SIN_BANDA = -1;
+
+    private final ProductoRepository productoRepository;
+    private final List<BigDecimal> limitesPrecio;
+    private final List<String> bandasPrecio;
+    private final Timer tiempoConsulta;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos por lock. El stock se conserva entre reconstrucciones: lo alimenta la proyección
+    private Indice indice;
+    private final RoaringBitmap enStock = new RoaringBitmap();
+    private Map<Long, Optional<ProductoFacetaDto>> cambiosDuranteReconstruccion;
+
+    public FacetasProductoService(
+            ProductoRepository productoRepository,
+            @Value("${app.facetas.limites-precio:10,25,50,100,250}") List<BigDecimal> limitesPrecio,
+            MeterRegistry meterRegistry) {
+        this.productoRepository = productoRepository;
+        this.limitesPrecio = limitesPrecio.stream().sorted().distinct().toList();
+        this.bandasPrecio = etiquetasBandas(this.limitesPrecio);
+        this.indice = new Indice(bandasPrecio.size());
+        this.tiempoConsulta = Timer.builder("productos.facetas")
+                .description("Duración de las consultas por facetas sobre los bitmaps en memoria")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Aplica los filtros (valores de una misma faceta se combinan con OR, facetas distintas con AND)
+     * y devuelve hasta {@code limite} IDs posteriores a {@code despuesDeId}, el total y los conteos.
+     * El conteo de cada faceta ignora el filtro de esa misma faceta, para que el usuario vea cuántos
+     * productos obtendría al cambiar su selección.
+     */
+    public ResultadoFacetas consultar(Collection<Long> categoriaIds, Collection<Long> empresaIds,
+                                      Collection<String> bandas, Boolean soloEnStock,
+                                      long despuesDeId, int limite) {
+        // Los IDs se indexan como int: un cursor fuera de ese rango no puede venir de una página anterior
+        if (despuesDeId < 0 || despuesDeId >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+        List<Integer> indicesBanda = new ArrayList<>();
+        if (bandas != null) {
+            for (String banda : bandas) {
+                int indiceBanda = bandasPrecio.indexOf(banda);
+                if (indiceBanda < 0) {
+                    throw new IllegalArgumentException("Banda de precio no válida: " + banda + ". Valores posibles: " + bandasPrecio);
+                }
+                indicesBanda.add(indiceBanda);
+            }
+        }
+
+        return tiempoConsulta.record(() -> {
+            lock.readLock().lock();
+            try {
+                Filtros filtros = new Filtros(
+                        union(indice.porCategoria, categoriaIds),
+                        union(indice.porEmpresa, empresaIds),
+                        unionBandas(indicesBanda),
+                        soloEnStock);
+
+                RoaringBitmap resultado = filtros.aplicar(indice.activos, null);
+
+                List<Long> productoIds = new ArrayList<>(limite);
+                PeekableIntIterator ids = resultado.getIntIterator();
+                ids.advanceIfNeeded((int) despuesDeId + 1);
+                while (ids.hasNext() && productoIds.size() < limite) {
+                    productoIds.add((long) ids.next());
+                }
+
+                Map<String, List<ConteoFacetaDto>> facetas = new LinkedHashMap<>();
+                facetas.put(FACETA_CATEGORIA, contar(filtros.aplicar(indice.activos, FACETA_CATEGORIA), indice.porCategoria));
+                facetas.put(FACETA_EMPRESA, contar(filtros.aplicar(indice.activos, FACETA_EMPRESA), indice.porEmpresa));
+                facetas.put(FACETA_PRECIO, contarBandas(filtros.aplicar(indice.activos, FACETA_PRECIO)));
+                facetas.put(FACETA_STOCK, contarStock(filtros.aplicar(indice.activos, FACETA_STOCK)));
+
+                return new ResultadoFacetas(resultado.getLongCardinality(), productoIds, ids.hasNext(), facetas);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    public List<String> getBandasPrecio() {
+        return bandasPrecio;
+    }
+
+    /**
+     * Reconstruye los bitmaps desde los productos activos; los cambios confirmados
+     * mientras tanto se reaplican antes de reemplazar el índice.
+     */
+    public synchronized int reconstruir() {
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteReconstruccion = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Indice nuevo = new Indice(bandasPrecio.size());
+        try {
+            for (ProductoFacetaDto producto : productoRepository.findAllParaFacetas()) {
+                nuevo.agregar(producto, banda(producto.getPrecio()));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteReconstruccion = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        nuevo.optimizar();
+
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteReconstruccion.forEach((id, producto) -> aplicar(nuevo, id, producto));
+            cambiosDuranteReconstruccion = null;
+            indice = nuevo;
+            logger.info("Índices de facetas reconstruidos: {} productos", nuevo.activos.getCardinality());
+            return nuevo.activos.getCardinality();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirAlIniciar() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            logger.warn("No se pudieron construir los índices de facetas al iniciar: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alModificarProducto(ProductoModificadoEvent evento) {
+        Producto producto = evento.getProducto();
+        Optional<ProductoFacetaDto> datos = Boolean.TRUE.equals(producto.getActivo())
+                ? Optional.of(new ProductoFacetaDto(
+                        producto.getId(),
+                        producto.getCategoria() != null ? producto.getCategoria().getId() : null,
+                        producto.getEmpresa() != null ? producto.getEmpresa().getId() : null,
+                        producto.getPrecio()))
+                : Optional.empty();
+
+        lock.writeLock().lock();
+        try {
+            aplicar(indice, producto.getId(), datos);
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.put(producto.getId(), datos);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void alProyectarStock(StockProyectadoEvent evento) {
+        lock.writeLock().lock();
+        try {
+            evento.getCantidades().forEach((productoId, cantidad) -> {
+                if (cantidad != null && cantidad > 0) {
+                    enStock.add(Math.toIntExact(productoId));
+                } else {
+                    enStock.remove(Math.toIntExact(productoId));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void aplicar(Indice destino, Long productoId, Optional<ProductoFacetaDto> producto) {
+        if (producto.isPresent()) {
+            destino.agregar(producto.get(), banda(producto.get().getPrecio()));
+        } else {
+            destino.eliminar(Math.toIntExact(productoId));
+        }
+    }
+
+    // Índice de la banda: la primera cuyo límite superior supera el precio; la última no tiene tope.
+    // Un producto sin precio no pertenece a ninguna banda
+    private int banda(BigDecimal precio) {
+        if (precio == null) {
+            return SIN_BANDA;
+        }
+        for (int i = 0; i < limitesPrecio.size(); i++) {
+            if (precio.compareTo(limitesPrecio.get(i)) < 0) {
+                return i;
+            }
+        }
+        return limitesPrecio.size();
+    }
+
+    private static List<String> etiquetasBandas(List<BigDecimal> limites) {
+        List<String> etiquetas = new ArrayList<>(limites.size() + 1);
+        String desde = "0";
+        for (BigDecimal limite : limites) {
+            etiquetas.add(desde + "-" + limite.toPlainString());
+            desde = limite.toPlainString();
+        }
+        etiquetas.add(desde + "+");
+        return etiquetas;
+    }
+
+    // OR de los bitmaps de los valores elegidos; null si la faceta no se filtra
+    private static RoaringBitmap union(Map<Long, RoaringBitmap> porValor, Collection<Long> valores) {
+        if (valores == null || valores.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap resultado = new RoaringBitmap();
+        for (Long valor : valores) {
+            RoaringBitmap bitmap = porValor.get(valor);
+            if (bitmap != null) {
+                resultado.or(bitmap);
+            }
+        }
+        return resultado;
+    }
+
+    private RoaringBitmap unionBandas(List<Integer> indicesBanda) {
+        if (indicesBanda.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap resultado = new RoaringBitmap();
+        for (Integer indiceBanda : indicesBanda) {
+            resultado.or(indice.porBanda[indiceBanda]);
+        }
+        return resultado;
+    }
+
+    private static List<ConteoFacetaDto> contar(RoaringBitmap base, Map<Long, RoaringBitmap> porValor) {
+        List<ConteoFacetaDto> conteos = new ArrayList<>();
+        porValor.forEach((valor, bitmap) -> {
+            long cantidad = RoaringBitmap.andCardinality(base, bitmap);
+            if (cantidad > 0) {
+                conteos.add(new ConteoFacetaDto(String.valueOf(valor), cantidad));
+            }
+        });
+        conteos.sort(Comparator.comparingLong(ConteoFacetaDto::getCantidad).reversed());
+        return conteos;
+    }
+
+    // Las bandas se devuelven todas y en orden de precio, aunque alguna quede en cero
+    private List<ConteoFacetaDto> contarBandas(RoaringBitmap base) {
+        List<ConteoFacetaDto> conteos = new ArrayList<>(bandasPrecio.size());
+        for (int i = 0; i < bandasPrecio.size(); i++) {
+            conteos.add(new ConteoFacetaDto(bandasPrecio.get(i), RoaringBitmap.andCardinality(base, indice.porBanda[i])));
+        }
+        return conteos;
+    }
+
+    private List<ConteoFacetaDto> contarStock(RoaringBitmap base) {
+        long conStock = RoaringBitmap.andCardinality(base, enStock);
+        return List.of(
+                new ConteoFacetaDto("true", conStock),
+                new ConteoFacetaDto("false", base.getLongCardinality() - conStock));
+    }
+
+    /**
+     * Filtros ya resueltos a bitmaps. {@code aplicar} parte de los productos activos y omite,
+     * si se indica, la faceta cuyo conteo se está calculando.
+     */
+    private final class Filtros {
+
+        private final RoaringBitmap categoria;
+        private final RoaringBitmap empresa;
+        private final RoaringBitmap precio;
+        private final Boolean soloEnStock;
+
+        Filtros(RoaringBitmap categoria, RoaringBitmap empresa, RoaringBitmap precio, Boolean soloEnStock) {
+            this.categoria = categoria;
+            this.empresa = empresa;
+            this.precio = precio;
+            this.soloEnStock = soloEnStock;
+        }
+
+        RoaringBitmap aplicar(RoaringBitmap activos, String excepto) {
+            RoaringBitmap resultado = activos.clone();
+            if (categoria != null && !FACETA_CATEGORIA.equals(excepto)) {
+                resultado.and(categoria);
+            }
+            if (empresa != null && !FACETA_EMPRESA.equals(excepto)) {
+                resultado.and(empresa);
+            }
+            if (precio != null && !FACETA_PRECIO.equals(excepto)) {
+                resultado.and(precio);
+            }
+            if (soloEnStock != null && !FACETA_STOCK.equals(excepto)) {
+                if (soloEnStock) {
+                    resultado.and(enStock);
+                } else {
+                    resultado.andNot(enStock);
+                }
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Bitmaps por valor de faceta; no es seguro para hilos, el servicio lo protege con el lock.
+     */
+    private static final class Indice {
+
+        private final RoaringBitmap activos = new RoaringBitmap();
+        private final Map<Long, RoaringBitmap> porCategoria = new HashMap<>();
+        private final Map<Long, RoaringBitmap> porEmpresa = new HashMap<>();
+        private final RoaringBitmap[] porBanda;
+        // Valores indexados de cada producto, para retirarlo de sus bitmaps al cambiar
+        private final Map<Integer, ProductoFacetaDto> indexados = new HashMap<>();
+        private final Map<Integer, Integer> bandaPorProducto = new HashMap<>();
+
+        Indice(int totalBandas) {
+            porBanda = new RoaringBitmap[totalBandas];
+            for (int i = 0; i < totalBandas; i++) {
+                porBanda[i] = new RoaringBitmap();
+            }
+        }
+
+        void agregar(ProductoFacetaDto producto, int banda) {
+            int id = Math.toIntExact(producto.getId());
+            eliminar(id);
+
+            activos.add(id);
+            if (producto.getCategoriaId() != null) {
+                porCategoria.computeIfAbsent(producto.getCategoriaId(), c -> new RoaringBitmap()).add(id);
+            }
+            if (producto.getEmpresaId() != null) {
+                porEmpresa.computeIfAbsent(producto.getEmpresaId(), e -> new RoaringBitmap()).add(id);
+            }
+            if (banda != SIN_BANDA) {
+                porBanda[banda].add(id);
+                bandaPorProducto.put(id, banda);
+            }
+            indexados.put(id, producto);
+        }
+
+        void eliminar(int id) {
+            ProductoFacetaDto anterior = indexados.remove(id);
+            if (anterior == null) {
+                return;
+            }
+            activos.remove(id);
+            quitar(porCategoria, anterior.getCategoriaId(), id);
+            quitar(porEmpresa, anterior.getEmpresaId(), id);
+            Integer banda = bandaPorProducto.remove(id);
+            if (banda != null) {
+                porBanda[banda].remove(id);
+            }
+        }
+
+        // Convierte a contenedores run-length donde reduce memoria (IDs consecutivos)
+        void optimizar() {
+            activos.runOptimize();
+            porCategoria.values().forEach(RoaringBitmap::runOptimize);
+            porEmpresa.values().forEach(RoaringBitmap::runOptimize);
+            for (RoaringBitmap bitmap : porBanda) {
+                bitmap.runOptimize();
+            }
+        }
+
+        private static void quitar(Map<Long, RoaringBitmap> porValor, Long valor, int id) {
+            if (valor == null) {
+                return;
+            }
+            RoaringBitmap bitmap = porValor.get(valor);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    porValor.remove(valor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resultado de una consulta: IDs de la página en orden ascendente, total y conteos por faceta.
+     */
+    public static class ResultadoFacetas {
+
+        private final long total;
+        private final List<Long> productoIds;
+        private final boolean hayMas;
+        private final Map<String, List<ConteoFacetaDto>> facetas;
+
+        public ResultadoFacetas(long total, List<Long> productoIds, boolean hayMas,
+                                Map<String, List<ConteoFacetaDto>> facetas) {
+            this.total = total;
+            this.productoIds = productoIds;
+            this.hayMas = hayMas;
+            this.facetas = facetas;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public List<Long> getProductoIds() {
+            return productoIds;
+        }
+
+        public boolean isHayMas() {
+            return hayMas;
+        }
+
+        public Map<String, List<ConteoFacetaDto>> getFacetas() {
+            return facetas;
+        }
+    }
+}
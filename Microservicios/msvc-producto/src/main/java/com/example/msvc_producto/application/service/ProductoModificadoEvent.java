@@ -0,0 +1,20 @@
+package com.example.msvc_producto.application.service;
+
+import com.example.msvc_producto.domain.model.Producto;
+
+/**
+ * Se publica al crear, actualizar o eliminar (desactivar) un producto. Los oyentes que
+ * mantienen estructuras en memoria lo procesan después del commit de la transacción.
+ */
+public class ProductoModificadoEvent {
+
+    private final Producto producto;
+
+    public ProductoModificadoEvent(Producto producto) {
+        this.producto = producto;
+    }
+
+    public Producto getProducto() {
+        return producto;
+    }
+}
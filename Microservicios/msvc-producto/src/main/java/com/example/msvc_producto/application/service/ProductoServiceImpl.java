@@ -14,12 +14,16 @@ import feign.FeignException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductoServiceImpl implements ProductoService {
@@ -30,16 +34,22 @@ public class ProductoServiceImpl implements ProductoService {
     private final EmpresaService empresaService;
     private final CategoriaService categoriaService;
     private final InventarioClient inventarioClient;
+    private final ProyeccionStockService proyeccionStockService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProductoServiceImpl(
             ProductoRepository productoRepository,
             EmpresaService empresaService,
             CategoriaService categoriaService,
-            @Qualifier("com.example.msvc_producto.application.client.InventarioClient") InventarioClient inventarioClient) {
+            @Qualifier("com.example.msvc_producto.application.client.InventarioClient") InventarioClient inventarioClient,
+            ProyeccionStockService proyeccionStockService,
+            ApplicationEventPublisher eventPublisher) {
         this.productoRepository = productoRepository;
         this.empresaService = empresaService;
         this.categoriaService = categoriaService;
         this.inventarioClient = inventarioClient;
+        this.proyeccionStockService = proyeccionStockService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -58,6 +68,8 @@ public class ProductoServiceImpl implements ProductoService {
         producto.setActivo(true);
 
         Producto productoGuardado = productoRepository.save(producto);
+        // El índice de búsqueda se actualiza después del commit
+        eventPublisher.publishEvent(new ProductoModificadoEvent(productoGuardado));
 
         // Crear registro en inventario (si el microservicio está disponible)
         try {
@@ -91,7 +103,9 @@ public class ProductoServiceImpl implements ProductoService {
         productoExistente.setCategoria(categoria);
         productoExistente.setFechaActualizacion(LocalDateTime.now());
 
-        return productoRepository.save(productoExistente);
+        Producto productoGuardado = productoRepository.save(productoExistente);
+        eventPublisher.publishEvent(new ProductoModificadoEvent(productoGuardado));
+        return productoGuardado;
         // Ya no actualizamos el stock en el inventario desde aquí
     }
 
@@ -108,6 +122,22 @@ public class ProductoServiceImpl implements ProductoService {
         return productoRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Producto> listarProductosPagina(Long despuesDeId, int limite) {
+        return productoRepository.findPagina(despuesDeId, limite);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Producto> obtenerProductosPorIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        // Los IDs repetidos o inexistentes se ignoran; el llamador decide qué hacer con los faltantes
+        return productoRepository.findAllByIds(new LinkedHashSet<>(ids));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Producto> buscarProductosPorEmpresa(Long empresaId) {
@@ -127,46 +157,50 @@ public class ProductoServiceImpl implements ProductoService {
         producto.setActivo(false);
         producto.setFechaActualizacion(LocalDateTime.now());
         productoRepository.save(producto);
+        eventPublisher.publishEvent(new ProductoModificadoEvent(producto));
     }
 
-    // Método con el nombre correcto y lógica de inventario
-    // ✅ TEMPORAL: Sin inventario para debuggear velocidad
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> listarIdsActualizadosDesde(LocalDateTime desde) {
+        return productoRepository.findIdsActualizadosDesde(desde);
+    }
+
+    // Listado optimizado: una consulta para los productos y una llamada batch a inventario por página
     @Override
     @Transactional(readOnly = true)
     public List<ProductoListadoDto> obtenerProductosOptimizado() {
         try {
             List<ProductoListadoDto> productos = productoRepository.findAllOptimized();
-            System.out.println("Productos base obtenidos: " + productos.size());
-
-            // ✅ TEMPORAL: Comentar todo el inventario
-        /*
-        for (ProductoListadoDto producto : productos) {
-            try {
-                InventarioInfoDto inventario = inventarioClient.obtenerInventarioPorProductoId(producto.getId());
-                if (inventario != null && inventario.getCantidad() != null) {
-                    producto.setInventarioCantidad(inventario.getCantidad());
-                } else {
-                    producto.setInventarioCantidad(0);
-                }
-            } catch (Exception e) {
-                producto.setInventarioCantidad(0);
-            }
-        }
-        */
-
-            // ✅ TEMPORAL: Asignar 0 a todos sin llamadas HTTP
-            productos.forEach(p -> p.setInventarioCantidad(0));
+            logger.debug("Productos base obtenidos: {}", productos.size());
 
-            System.out.println("Productos procesados: " + productos.size());
+            asignarInventario(productos);
             return productos;
 
         } catch (Exception e) {
-            System.err.println("Error obteniendo productos optimizados: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error obteniendo productos optimizados: {}", e.getMessage(), e);
             throw new RuntimeException("Error obteniendo productos optimizados", e);
         }
     }
 
+    /**
+     * Completa el stock de cada producto desde la proyección local; solo los productos
+     * que no están proyectados se consultan a inventario (en lotes). Si inventario no
+     * responde, esos productos quedan con stock 0.
+     */
+    private void asignarInventario(List<ProductoListadoDto> productos) {
+        List<Long> ids = productos.stream()
+                .map(ProductoListadoDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, InventarioInfoDto> inventarios = proyeccionStockService.obtenerVarios(ids);
+
+        for (ProductoListadoDto producto : productos) {
+            InventarioInfoDto inventario = inventarios.get(producto.getId());
+            producto.setInventarioCantidad(
+                    (inventario != null && inventario.getCantidad() != null) ? inventario.getCantidad() : 0);
+        }
+    }
+
     // ✅ CORREGIDO: También agregar este método que falta en la interfaz
     @Override
     @Transactional(readOnly = true)
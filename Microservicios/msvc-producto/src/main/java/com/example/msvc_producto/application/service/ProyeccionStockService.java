@@ -0,0 +1,182 @@
+package com.example.msvc_producto.application.service;
+
+import com.example.msvc_producto.application.client.InventarioClientAsync;
+import com.example.msvc_producto.application.dto.InventarioInfoDto;
+import com.example.msvc_producto.domain.repository.ProductoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proyección local del stock de cada producto, alimentada por las sincronizaciones que envía
+ * msvc-inventario. Permite responder los listados sin consultar inventario producto por producto.
+ * Cada valor lleva la fecha en que se actualizó para conocer su antigüedad.
+ */
+@Service
+public class ProyeccionStockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProyeccionStockService.class);
+
+    private final InventarioClientAsync inventarioClientAsync;
+    private final ProductoRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int tamanoLote;
+    private final int consultasConcurrentes;
+    private final Map<Long, InventarioInfoDto> stockPorProducto = new ConcurrentHashMap<>();
+
+    public ProyeccionStockService(
+            InventarioClientAsync inventarioClientAsync,
+            ProductoRepository productoRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.inventario.batch-size:500}") int tamanoLote,
+            @Value("${app.inventario.consultas-concurrentes:4}") int consultasConcurrentes) {
+        this.inventarioClientAsync = inventarioClientAsync;
+        this.productoRepository = productoRepository;
+        this.eventPublisher = eventPublisher;
+        this.tamanoLote = tamanoLote;
+        this.consultasConcurrentes = Math.max(consultasConcurrentes, 1);
+    }
+
+    /**
+     * Registra la cantidad recibida desde inventario, conservando el resto de datos conocidos.
+     */
+    public void actualizar(Long productoId, Integer cantidad) {
+        registrar(productoId, cantidad, LocalDateTime.now());
+        eventPublisher.publishEvent(new StockProyectadoEvent(Collections.singletonMap(productoId, cantidad)));
+    }
+
+    public void actualizar(Map<Long, Integer> stocks) {
+        LocalDateTime ahora = LocalDateTime.now();
+        stocks.forEach((productoId, cantidad) -> registrar(productoId, cantidad, ahora));
+        eventPublisher.publishEvent(new StockProyectadoEvent(new HashMap<>(stocks)));
+    }
+
+    /**
+     * Devuelve el stock proyectado de un producto, consultando inventario solo si no se conoce.
+     * Devuelve null si inventario no tiene registro o no está disponible.
+     */
+    public InventarioInfoDto obtener(Long productoId) {
+        return obtenerVarios(List.of(productoId)).get(productoId);
+    }
+
+    /**
+     * Devuelve el stock proyectado de varios productos. Los que no están en la proyección se
+     * consultan con una llamada batch por página; si inventario falla, simplemente no aparecen.
+     */
+    public Map<Long, InventarioInfoDto> obtenerVarios(Collection<Long> productoIds) {
+        Map<Long, InventarioInfoDto> resultado = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+
+        for (Long productoId : new LinkedHashSet<>(productoIds)) {
+            InventarioInfoDto inventario = stockPorProducto.get(productoId);
+            if (inventario != null) {
+                resultado.put(productoId, inventario);
+            } else {
+                faltantes.add(productoId);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            resultado.putAll(cargarDesdeInventario(faltantes, LocalDateTime.now()));
+        }
+
+        return resultado;
+    }
+
+    /**
+     * Reconstruye la proyección completa consultando inventario por lotes.
+     * Se ejecuta al iniciar la aplicación y puede invocarse manualmente.
+     */
+    public int resincronizarTodo() {
+        List<Long> productoIds = productoRepository.findAllIds();
+        Map<Long, InventarioInfoDto> cargados = cargarDesdeInventario(productoIds, LocalDateTime.now());
+        logger.info("Proyección de stock resincronizada: {} de {} productos", cargados.size(), productoIds.size());
+        return cargados.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resincronizarAlIniciar() {
+        try {
+            resincronizarTodo();
+        } catch (Exception e) {
+            logger.warn("No se pudo resincronizar la proyección de stock al iniciar: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Consulta las páginas con el cliente asíncrono, como máximo {@code consultasConcurrentes} a la vez
+     * para no saturar inventario durante una resincronización completa.
+     */
+    private Map<Long, InventarioInfoDto> cargarDesdeInventario(List<Long> productoIds, LocalDateTime consultadoEn) {
+        Map<Long, InventarioInfoDto> cargados = new HashMap<>();
+        int tamanoTanda = tamanoLote * consultasConcurrentes;
+
+        for (int inicioTanda = 0; inicioTanda < productoIds.size(); inicioTanda += tamanoTanda) {
+            int finTanda = Math.min(inicioTanda + tamanoTanda, productoIds.size());
+            List<CompletableFuture<Map<Long, InventarioInfoDto>>> futuros = new ArrayList<>();
+            for (int desde = inicioTanda; desde < finTanda; desde += tamanoLote) {
+                List<Long> pagina = productoIds.subList(desde, Math.min(desde + tamanoLote, finTanda));
+                futuros.add(inventarioClientAsync.obtenerInventariosPorProductos(pagina)
+                        .exceptionally(e -> {
+                            logger.warn("No se pudo obtener el inventario de {} productos: {}", pagina.size(), e.getMessage());
+                            return null;
+                        }));
+            }
+
+            for (CompletableFuture<Map<Long, InventarioInfoDto>> futuro : futuros) {
+                Map<Long, InventarioInfoDto> inventarios = futuro.join();
+                if (inventarios != null) {
+                    proyectar(inventarios, consultadoEn, cargados);
+                }
+            }
+        }
+
+        if (!cargados.isEmpty()) {
+            Map<Long, Integer> cantidades = new HashMap<>();
+            cargados.forEach((productoId, inventario) -> cantidades.put(productoId, inventario.getCantidad()));
+            eventPublisher.publishEvent(new StockProyectadoEvent(cantidades));
+        }
+
+        return cargados;
+    }
+
+    private void registrar(Long productoId, Integer cantidad, LocalDateTime ahora) {
+        stockPorProducto.compute(productoId, (id, actual) -> new InventarioInfoDto(
+                actual != null ? actual.getId() : null,
+                cantidad,
+                actual != null ? actual.getUbicacion() : null,
+                ahora));
+    }
+
+    private void proyectar(Map<Long, InventarioInfoDto> inventarios, LocalDateTime consultadoEn,
+                           Map<Long, InventarioInfoDto> cargados) {
+        inventarios.forEach((productoId, inventario) -> {
+            if (inventario == null || inventario.getId() == null) {
+                // Valor de respaldo (fallback) cuando inventario no responde: no se proyecta
+                return;
+            }
+            InventarioInfoDto proyectado = new InventarioInfoDto(
+                    inventario.getId(), inventario.getCantidad(), inventario.getUbicacion(), consultadoEn);
+            // No pisar un valor sincronizado por inventario después de iniciada esta consulta
+            InventarioInfoDto vigente = stockPorProducto.merge(productoId, proyectado,
+                    (actual, nuevo) -> actual.getActualizadoEn() != null
+                            && actual.getActualizadoEn().isAfter(consultadoEn) ? actual : nuevo);
+            cargados.put(productoId, vigente);
+        });
+    }
+}
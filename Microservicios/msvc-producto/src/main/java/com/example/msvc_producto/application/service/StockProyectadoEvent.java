@@ -0,0 +1,19 @@
+package com.example.msvc_producto.application.service;
+
+import java.util.Map;
+
+/**
+ * Se publica cuando la proyección local registra nuevas cantidades de stock (productoId -> cantidad).
+ */
+public class StockProyectadoEvent {
+
+    private final Map<Long, Integer> cantidades;
+
+    public StockProyectadoEvent(Map<Long, Integer> cantidades) {
+        this.cantidades = cantidades;
+    }
+
+    public Map<Long, Integer> getCantidades() {
+        return cantidades;
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.msvc_producto.domain.repository;
 
+import com.example.msvc_producto.application.dto.ProductoFacetaDto;
 import com.example.msvc_producto.application.dto.ProductoListadoDto;
 import com.example.msvc_producto.domain.model.Producto;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,11 +14,22 @@ public interface ProductoRepository {
     Producto save(Producto producto);
     Optional<Producto> findById(Long id);
     List<Producto> findAll();
+    List<Producto> findPagina(Long despuesDeId, int limite);
     List<Producto> findByEmpresaId(Long empresaId);
     List<Producto> findByCategoriaId(Long categoriaId);
+    List<Producto> findAllByIds(Collection<Long> ids);
+    List<Long> findAllIds();
+    List<Long> findIdsActualizadosDesde(LocalDateTime desde);
     void deleteById(Long id);
 
     // Nuevo método optimizado para listados
     List<ProductoListadoDto> findAllOptimized();
 
+    // Los mismos campos, solo para los productos activos de una categoría o de una empresa
+    List<ProductoListadoDto> findAllOptimizedByCategoriaId(Long categoriaId);
+    List<ProductoListadoDto> findAllOptimizedByEmpresaId(Long empresaId);
+
+    // Categoría, empresa y precio de los productos activos para los índices de facetas
+    List<ProductoFacetaDto> findAllParaFacetas();
+
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.example.msvc_producto.application.dto.ProductoListadoDto;
 import com.example.msvc_producto.domain.model.Producto;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ProductoService {
@@ -11,9 +12,13 @@ public interface ProductoService {
     Producto actualizarProducto(Long id, Producto producto);
     Producto obtenerProductoPorId(Long id);
     List<Producto> listarProductos();
+    List<Producto> listarProductosPagina(Long despuesDeId, int limite);
+    List<Producto> obtenerProductosPorIds(List<Long> ids);
     List<Producto> buscarProductosPorEmpresa(Long empresaId);
     List<Producto> buscarProductosPorCategoria(Long categoriaId);
     void eliminarProducto(Long id);
+    // IDs de los productos creados, modificados o desactivados después de la fecha indicada
+    List<Long> listarIdsActualizadosDesde(LocalDateTime desde);
 
     @Transactional(readOnly = true)
     List<ProductoListadoDto> listarProductosOptimizado();
@@ -1,12 +1,17 @@
 package com.example.msvc_producto.infrastructure.persistence.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "categorias")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "producto-categorias")
 public class CategoriaEntity {
 
     @Id
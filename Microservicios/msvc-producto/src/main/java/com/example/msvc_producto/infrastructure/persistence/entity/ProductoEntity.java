@@ -5,7 +5,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", indexes = {
+        // Consulta de cambios por fecha para los consumidores que mantienen el catálogo en caché
+        @Index(name = "idx_productos_fecha_actualizacion", columnList = "fecha_actualizacion")
+})
 public class ProductoEntity {
 
     @Id
@@ -1,5 +1,6 @@
 package com.example.msvc_producto.infrastructure.persistence.impl;
 
+import com.example.msvc_producto.application.dto.ProductoFacetaDto;
 import com.example.msvc_producto.application.dto.ProductoListadoDto;
 import com.example.msvc_producto.domain.model.Producto;
 import com.example.msvc_producto.domain.repository.ProductoRepository;
@@ -7,9 +8,12 @@ import com.example.msvc_producto.infrastructure.persistence.entity.ProductoEntit
 import com.example.msvc_producto.infrastructure.persistence.mapper.ProductoEntityMapper;
 import com.example.msvc_producto.infrastructure.persistence.repository.ProductoJpaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -43,6 +47,13 @@ public class ProductoRepositoryImpl implements ProductoRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Producto> findPagina(Long despuesDeId, int limite) {
+        return jpaRepository.findByIdGreaterThanOrderByIdAsc(despuesDeId, PageRequest.of(0, limite)).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<Producto> findByEmpresaId(Long empresaId) {
         return jpaRepository.findByEmpresaId(empresaId).stream()
@@ -57,6 +68,26 @@ public class ProductoRepositoryImpl implements ProductoRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Producto> findAllByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findAllByIdConRelaciones(ids).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Long> findAllIds() {
+        return jpaRepository.findAllIds();
+    }
+
+    @Override
+    public List<Long> findIdsActualizadosDesde(LocalDateTime desde) {
+        return jpaRepository.findIdsActualizadosDesde(desde);
+    }
+
     @Override
     public void deleteById(Long id) {
         jpaRepository.deleteById(id);
@@ -65,8 +96,20 @@ public class ProductoRepositoryImpl implements ProductoRepository {
     // ✅ CORREGIDO: Índices correctos para los 7 campos de la query
     @Override
     public List<ProductoListadoDto> findAllOptimized() {
-        List<Object[]> results = jpaRepository.findAllProductosOptimized();
+        return aListado(jpaRepository.findAllProductosOptimized());
+    }
+
+    @Override
+    public List<ProductoListadoDto> findAllOptimizedByCategoriaId(Long categoriaId) {
+        return aListado(jpaRepository.findProductosOptimizedByCategoriaId(categoriaId));
+    }
+
+    @Override
+    public List<ProductoListadoDto> findAllOptimizedByEmpresaId(Long empresaId) {
+        return aListado(jpaRepository.findProductosOptimizedByEmpresaId(empresaId));
+    }
 
+    private List<ProductoListadoDto> aListado(List<Object[]> results) {
         return results.stream()
                 .map(row -> new ProductoListadoDto(
                         ((Number) row[0]).longValue(),  // id
@@ -79,4 +122,15 @@ public class ProductoRepositoryImpl implements ProductoRepository {
                 ))
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public List<ProductoFacetaDto> findAllParaFacetas() {
+        return jpaRepository.findAllParaFacetas().stream()
+                .map(row -> new ProductoFacetaDto(
+                        ((Number) row[0]).longValue(),  // id
+                        ((Number) row[1]).longValue(),  // categoriaId
+                        ((Number) row[2]).longValue(),  // empresaId
+                        (BigDecimal) row[3]))            // precio
+                .collect(Collectors.toList());
+    }
 }
\ No newline at end of file
@@ -1,8 +1,17 @@
 package com.example.msvc_producto.infrastructure.persistence.repository;
 
 import com.example.msvc_producto.infrastructure.persistence.entity.EmpresaEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface EmpresaJpaRepository extends JpaRepository<EmpresaEntity, Long> {
-    // Métodos específicos si se necesitan
-}
\ No newline at end of file
+
+    // El listado de empresas se cachea; cualquier escritura en la tabla invalida el resultado
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<EmpresaEntity> findAll();
+}
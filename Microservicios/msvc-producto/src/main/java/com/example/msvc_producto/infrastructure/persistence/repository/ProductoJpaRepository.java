@@ -1,14 +1,37 @@
 package com.example.msvc_producto.infrastructure.persistence.repository;
 
 import com.example.msvc_producto.infrastructure.persistence.entity.ProductoEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductoJpaRepository extends JpaRepository<ProductoEntity, Long> {
     List<ProductoEntity> findByEmpresaId(Long empresaId);
     List<ProductoEntity> findByCategoriaId(Long categoriaId);
+
+    // Paginación por cursor (keyset) sobre la clave primaria
+    @EntityGraph(attributePaths = {"empresa", "categoria"})
+    List<ProductoEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT p.id FROM ProductoEntity p ORDER BY p.id")
+    List<Long> findAllIds();
+
+    @Query("SELECT p.id FROM ProductoEntity p WHERE p.fechaActualizacion > :desde ORDER BY p.id")
+    List<Long> findIdsActualizadosDesde(@Param("desde") LocalDateTime desde);
+
+    @Query("SELECT p.id, p.categoria.id, p.empresa.id, p.precio FROM ProductoEntity p WHERE p.activo = true ORDER BY p.id")
+    List<Object[]> findAllParaFacetas();
+
+    // Carga varios productos con empresa y categoría en una sola consulta
+    @Query("SELECT p FROM ProductoEntity p JOIN FETCH p.empresa JOIN FETCH p.categoria WHERE p.id IN :ids")
+    List<ProductoEntity> findAllByIdConRelaciones(@Param("ids") Collection<Long> ids);
+
     @Query(value = """
     SELECT 
         p.id,
@@ -25,4 +48,38 @@ public interface ProductoJpaRepository extends JpaRepository<ProductoEntity, Lon
     ORDER BY p.id ASC
     """, nativeQuery = true)
     List<Object[]> findAllProductosOptimized();
+
+    @Query(value = """
+    SELECT 
+        p.id,
+        p.nombre,
+        p.descripcion,
+        p.precio,
+        p.imagen,
+        c.nombre as categoriaNombre,
+        e.nombre as empresaNombre
+    FROM productos p
+    INNER JOIN categorias c ON c.id = p.categoria_id
+    INNER JOIN empresas e ON e.id = p.empresa_id
+    WHERE p.activo = true AND p.categoria_id = :categoriaId
+    ORDER BY p.id ASC
+    """, nativeQuery = true)
+    List<Object[]> findProductosOptimizedByCategoriaId(@Param("categoriaId") Long categoriaId);
+
+    @Query(value = """
+    SELECT 
+        p.id,
+        p.nombre,
+        p.descripcion,
+        p.precio,
+        p.imagen,
+        c.nombre as categoriaNombre,
+        e.nombre as empresaNombre
+    FROM productos p
+    INNER JOIN categorias c ON c.id = p.categoria_id
+    INNER JOIN empresas e ON e.id = p.empresa_id
+    WHERE p.activo = true AND p.empresa_id = :empresaId
+    ORDER BY p.id ASC
+    """, nativeQuery = true)
+    List<Object[]> findProductosOptimizedByEmpresaId(@Param("empresaId") Long empresaId);
 }
\ No newline at end of file
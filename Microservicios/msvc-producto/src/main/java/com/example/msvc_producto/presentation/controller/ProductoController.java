@@ -1,29 +1,36 @@
 package com.example.msvc_producto.presentation.controller;
 
-import com.example.msvc_producto.application.client.InventarioClient;
+import com.example.msvc_producto.application.dto.CambiosProductoDto;
+import com.example.msvc_producto.application.dto.FacetasProductoResponseDto;
 import com.example.msvc_producto.application.dto.InventarioInfoDto;
+import com.example.msvc_producto.application.dto.PaginaResponseDto;
 import com.example.msvc_producto.application.dto.ProductoListadoDto;
 import com.example.msvc_producto.application.dto.ProductoRequestDto;
 import com.example.msvc_producto.application.dto.ProductoResponseDto;
 import com.example.msvc_producto.application.mapper.ProductoMapper;
+import com.example.msvc_producto.application.service.BusquedaProductoService;
+import com.example.msvc_producto.application.service.ConsultaProductoService;
+import com.example.msvc_producto.application.service.FacetasProductoService;
+import com.example.msvc_producto.application.service.ProyeccionStockService;
 import com.example.msvc_producto.domain.model.Categoria;
 import com.example.msvc_producto.domain.model.Empresa;
 import com.example.msvc_producto.domain.model.Producto;
 import com.example.msvc_producto.domain.service.CategoriaService;
 import com.example.msvc_producto.domain.service.EmpresaService;
 import com.example.msvc_producto.domain.service.ProductoService;
-import feign.FeignException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.apache.logging.log4j.Logger;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.slf4j.LoggerFactory;
@@ -38,19 +45,28 @@ public class ProductoController {
     private final EmpresaService empresaService;
     private final CategoriaService categoriaService;
     private final ProductoMapper productoMapper;
-    private final InventarioClient inventarioClient;
+    private final ProyeccionStockService proyeccionStockService;
+    private final ConsultaProductoService consultaProductoService;
+    private final BusquedaProductoService busquedaProductoService;
+    private final FacetasProductoService facetasProductoService;
 
     public ProductoController(
             ProductoService productoService,
             EmpresaService empresaService,
             CategoriaService categoriaService,
             ProductoMapper productoMapper,
-            @Qualifier("com.example.msvc_producto.application.client.InventarioClient") InventarioClient inventarioClient) {
+            ProyeccionStockService proyeccionStockService,
+            ConsultaProductoService consultaProductoService,
+            BusquedaProductoService busquedaProductoService,
+            FacetasProductoService facetasProductoService) {
         this.productoService = productoService;
         this.empresaService = empresaService;
         this.categoriaService = categoriaService;
         this.productoMapper = productoMapper;
-        this.inventarioClient = inventarioClient;
+        this.proyeccionStockService = proyeccionStockService;
+        this.consultaProductoService = consultaProductoService;
+        this.busquedaProductoService = busquedaProductoService;
+        this.facetasProductoService = facetasProductoService;
     }
 
     @PostMapping
@@ -67,13 +83,8 @@ public class ProductoController {
         // Obtener DTO de respuesta
         ProductoResponseDto responseDto = productoMapper.toDto(productoCreado);
 
-        // Intentar obtener información de inventario
-        try {
-            InventarioInfoDto inventarioInfo = inventarioClient.obtenerInventarioPorProductoId(productoCreado.getId());
-            responseDto.setInventario(inventarioInfo);
-        } catch (FeignException e) {
-            // Si no se puede obtener información de inventario, no hacer nada
-        }
+        // Información de inventario desde la proyección local de stock
+        responseDto.setInventario(proyeccionStockService.obtener(productoCreado.getId()));
 
         return new ResponseEntity<>(responseDto, HttpStatus.CREATED);
     }
@@ -94,13 +105,8 @@ public class ProductoController {
         // Obtener DTO de respuesta
         ProductoResponseDto responseDto = productoMapper.toDto(productoActualizado);
 
-        // Intentar obtener información de inventario
-        try {
-            InventarioInfoDto inventarioInfo = inventarioClient.obtenerInventarioPorProductoId(productoActualizado.getId());
-            responseDto.setInventario(inventarioInfo);
-        } catch (FeignException e) {
-            // Si no se puede obtener información de inventario, no hacer nada
-        }
+        // Información de inventario desde la proyección local de stock
+        responseDto.setInventario(proyeccionStockService.obtener(productoActualizado.getId()));
 
         return ResponseEntity.ok(responseDto);
     }
@@ -108,44 +114,76 @@ public class ProductoController {
     @GetMapping("/{id}")
     @Operation(summary = "Obtener un producto por su ID")
     public ResponseEntity<ProductoResponseDto> obtenerProductoPorId(@PathVariable Long id) {
-        Producto producto = productoService.obtenerProductoPorId(id);
-        ProductoResponseDto responseDto = productoMapper.toDto(producto);
-
-        // Intentar obtener información de inventario
-        try {
-            InventarioInfoDto inventarioInfo = inventarioClient.obtenerInventarioPorProductoId(producto.getId());
-            responseDto.setInventario(inventarioInfo);
-        } catch (FeignException e) {
-            // Si no se puede obtener información de inventario, no hacer nada
-        }
-
-        return ResponseEntity.ok(responseDto);
+        // Las consultas simultáneas del mismo producto comparten una sola carga
+        return ResponseEntity.ok(consultaProductoService.obtenerProducto(id));
     }
 
     @GetMapping
     @Operation(summary = "Listar todos los productos")
     public ResponseEntity<List<ProductoResponseDto>> listarProductos() {
         List<Producto> productos = productoService.listarProductos();
+
+        // Inventario de todos los productos desde la proyección local (una sola llamada batch para los faltantes)
+        Map<Long, InventarioInfoDto> inventarios = proyeccionStockService.obtenerVarios(
+                productos.stream().map(Producto::getId).collect(Collectors.toList()));
+
         List<ProductoResponseDto> responseDtos = productos.stream()
                 .map(producto -> {
                     ProductoResponseDto dto = productoMapper.toDto(producto);
+                    dto.setInventario(inventarios.get(producto.getId()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(responseDtos);
+    }
 
-                    // Intentar obtener información de inventario para cada producto
-                    try {
-                        InventarioInfoDto inventarioInfo = inventarioClient.obtenerInventarioPorProductoId(producto.getId());
-                        dto.setInventario(inventarioInfo);
-                    } catch (FeignException e) {
-                        // Si no se puede obtener información de inventario, dejamos el inventario como null
-                    }
 
+    @GetMapping("/cambios")
+    @Operation(summary = "Listar los IDs de productos modificados desde una fecha (para invalidar cachés)")
+    public ResponseEntity<CambiosProductoDto> listarCambios(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde) {
+        // La marca se toma antes de consultar; el consumidor pide la siguiente con un pequeño solapamiento
+        // para no perder cambios de transacciones que confirmaron después de esta consulta
+        LocalDateTime hasta = LocalDateTime.now();
+        List<Long> productoIds = (desde != null) ? productoService.listarIdsActualizadosDesde(desde) : List.of();
+        return ResponseEntity.ok(new CambiosProductoDto(hasta, productoIds));
+    }
+
+    @GetMapping("/pagina")
+    @Operation(summary = "Listar productos paginados por cursor")
+    public ResponseEntity<PaginaResponseDto<ProductoResponseDto>> listarProductosPaginados(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        int tamano = PaginaResponseDto.normalizarLimite(limite);
+        // Se pide un registro extra para saber si existe una página siguiente
+        List<Producto> productos = productoService.listarProductosPagina(PaginaResponseDto.decodificarCursor(cursor), tamano + 1);
+        boolean hayMas = productos.size() > tamano;
+        List<Producto> pagina = hayMas ? productos.subList(0, tamano) : productos;
+
+        Map<Long, InventarioInfoDto> inventarios = proyeccionStockService.obtenerVarios(
+                pagina.stream().map(Producto::getId).collect(Collectors.toList()));
+
+        List<ProductoResponseDto> responseDtos = pagina.stream()
+                .map(producto -> {
+                    ProductoResponseDto dto = productoMapper.toDto(producto);
+                    dto.setInventario(inventarios.get(producto.getId()));
                     return dto;
                 })
                 .collect(Collectors.toList());
+        Long ultimoId = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId();
+        return ResponseEntity.ok(PaginaResponseDto.de(responseDtos, hayMas, ultimoId));
+    }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Obtener varios productos por sus IDs en una sola consulta")
+    public ResponseEntity<List<ProductoResponseDto>> obtenerProductosPorIds(@RequestBody List<Long> ids) {
+        List<ProductoResponseDto> responseDtos = productoService.obtenerProductosPorIds(ids).stream()
+                .map(productoMapper::toDto)
+                .collect(Collectors.toList());
         return ResponseEntity.ok(responseDtos);
     }
 
-
     @GetMapping("/listado")
     @Operation(summary = "Listar productos optimizado (solo datos esenciales)")
     public ResponseEntity<List<ProductoListadoDto>> listarProductosOptimizado() {
@@ -165,6 +203,74 @@ public class ProductoController {
         }
     }
 
+    @GetMapping("/buscar")
+    @Operation(summary = "Buscar productos por texto en nombre, descripción, categoría y empresa")
+    public ResponseEntity<List<ProductoListadoDto>> buscarProductos(
+            @RequestParam("q") String texto,
+            @RequestParam(required = false) Integer limite) {
+        // Se resuelve sobre el índice en memoria; el stock sale de la proyección local
+        List<ProductoListadoDto> productos = busquedaProductoService.buscar(texto, PaginaResponseDto.normalizarLimite(limite));
+
+        Map<Long, InventarioInfoDto> inventarios = proyeccionStockService.obtenerVarios(
+                productos.stream().map(ProductoListadoDto::getId).collect(Collectors.toList()));
+        for (ProductoListadoDto producto : productos) {
+            InventarioInfoDto inventario = inventarios.get(producto.getId());
+            producto.setInventarioCantidad(
+                    (inventario != null && inventario.getCantidad() != null) ? inventario.getCantidad() : 0);
+        }
+        return ResponseEntity.ok(productos);
+    }
+
+    @PostMapping("/buscar/reindexar")
+    @Operation(summary = "Reconstruir el índice de búsqueda de productos")
+    public ResponseEntity<Map<String, Integer>> reindexarBusqueda() {
+        int productos = busquedaProductoService.reconstruir();
+        return ResponseEntity.ok(Map.of("productosIndexados", productos));
+    }
+
+    @GetMapping("/facetas")
+    @Operation(summary = "Filtrar productos por categoría, empresa, banda de precio y stock, con conteos por faceta")
+    public ResponseEntity<FacetasProductoResponseDto> filtrarPorFacetas(
+            @RequestParam(name = "categoriaId", required = false) List<Long> categoriaIds,
+            @RequestParam(name = "empresaId", required = false) List<Long> empresaIds,
+            @RequestParam(name = "precio", required = false) List<String> bandasPrecio,
+            @RequestParam(required = false) Boolean enStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        // Filtros y conteos se resuelven con los bitmaps en memoria; solo la página se lee de la base
+        FacetasProductoService.ResultadoFacetas resultado = facetasProductoService.consultar(
+                categoriaIds, empresaIds, bandasPrecio, enStock,
+                PaginaResponseDto.decodificarCursor(cursor), PaginaResponseDto.normalizarLimite(limite));
+
+        List<Long> ids = resultado.getProductoIds();
+        Map<Long, Producto> productosPorId = productoService.obtenerProductosPorIds(ids).stream()
+                .collect(Collectors.toMap(Producto::getId, producto -> producto));
+        Map<Long, InventarioInfoDto> inventarios = proyeccionStockService.obtenerVarios(ids);
+
+        List<ProductoResponseDto> responseDtos = ids.stream()
+                .map(productosPorId::get)
+                .filter(producto -> producto != null)
+                .map(producto -> {
+                    ProductoResponseDto dto = productoMapper.toDto(producto);
+                    dto.setInventario(inventarios.get(producto.getId()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+        Long ultimoId = ids.isEmpty() ? null : ids.get(ids.size() - 1);
+
+        return ResponseEntity.ok(new FacetasProductoResponseDto(
+                resultado.getTotal(),
+                PaginaResponseDto.de(responseDtos, resultado.isHayMas(), ultimoId),
+                resultado.getFacetas()));
+    }
+
+    @PostMapping("/facetas/reindexar")
+    @Operation(summary = "Reconstruir los índices de facetas de productos")
+    public ResponseEntity<Map<String, Integer>> reindexarFacetas() {
+        int productos = facetasProductoService.reconstruir();
+        return ResponseEntity.ok(Map.of("productosIndexados", productos));
+    }
+
     @GetMapping("/empresa/{empresaId}")
     @Operation(summary = "Buscar productos por empresa")
     public ResponseEntity<List<ProductoResponseDto>> buscarProductosPorEmpresa(@PathVariable Long empresaId) {
@@ -192,19 +298,32 @@ public class ProductoController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/sincronizar-stock")
+    @Operation(summary = "Sincronizar stock de varios productos desde inventario")
+    public ResponseEntity<Void> sincronizarStockLote(@RequestBody Map<Long, Integer> stocks) {
+        // Recibe por lotes la última cantidad conocida de cada producto (productoId -> cantidad)
+        proyeccionStockService.actualizar(stocks);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/stock/resincronizar")
+    @Operation(summary = "Reconstruir la proyección de stock consultando inventario")
+    public ResponseEntity<Map<String, Integer>> resincronizarStock() {
+        int productos = proyeccionStockService.resincronizarTodo();
+        return ResponseEntity.ok(Map.of("productosSincronizados", productos));
+    }
+
     @PutMapping("/{id}/sincronizar-stock")
     @Operation(summary = "Sincronizar stock desde inventario")
     public ResponseEntity<Void> sincronizarStock(
             @PathVariable Long id,
             @RequestParam Integer stock) {
-        // Este endpoint es solo para recibir notificaciones del inventario
-        // Podrías guardar el stock en caché, logs, o simplemente confirmarlo
+        // Este endpoint recibe notificaciones del inventario y actualiza la proyección local
 
         // Verificar que el producto existe
         productoService.obtenerProductoPorId(id);
 
-        // Log para auditoría
-        System.out.println("Stock sincronizado para producto " + id + ": " + stock);
+        proyeccionStockService.actualizar(id, stock);
 
         return ResponseEntity.ok().build();
     }
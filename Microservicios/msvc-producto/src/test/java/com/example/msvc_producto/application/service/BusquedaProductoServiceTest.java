@@ -0,0 +1,109 @@
+package com.example.msvc_producto.application.service;
+
+import com.example.msvc_producto.application.dto.ProductoListadoDto;
+import com.example.msvc_producto.domain.repository.ProductoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BusquedaProductoServiceTest {
+
+    @Test
+    void tokenizarIgnoraTildesMayusculasYPalabrasVacias() {
+        assertEquals(List.of("cafe", "colombia", "500g"), BusquedaProductoService.tokenizar("Café de COLOMBIA, 500g"));
+        assertEquals(List.of("nino", "pequeno"), BusquedaProductoService.tokenizar("  Niño   PEQUEÑO!! "));
+        assertTrue(BusquedaProductoService.tokenizar(null).isEmpty());
+        assertTrue(BusquedaProductoService.tokenizar("   ").isEmpty());
+        assertTrue(BusquedaProductoService.tokenizar("de la y").isEmpty());
+    }
+
+    @Test
+    void coincidenciaEnElNombrePuntuaMasQueEnLaDescripcion() {
+        BusquedaProductoService service = servicio(64,
+                producto(1L, "Lámpara de mesa", "Luz cálida para escritorio", "Hogar"),
+                producto(2L, "Escritorio de roble", "Madera maciza", "Muebles"),
+                producto(3L, "Silla", "Ideal para oficina", "Muebles"));
+
+        List<Long> ids = ids(service.buscar("escritorio", 10));
+
+        assertEquals(List.of(2L, 1L), ids);
+    }
+
+    @Test
+    void exigeTodasLasPalabrasYRespetaElLimite() {
+        BusquedaProductoService service = servicio(64,
+                producto(1L, "Camisa azul", null, "Ropa"),
+                producto(2L, "Camisa roja", null, "Ropa"),
+                producto(3L, "Pantalón azul", null, "Ropa"));
+
+        assertEquals(List.of(1L), ids(service.buscar("azul camisa", 10)));
+        assertTrue(service.buscar("camisa verde", 10).isEmpty());
+        assertEquals(1, service.buscar("ropa", 1).size());
+    }
+
+    @Test
+    void laPalabraCompletaPuntuaMasQueElPrefijo() {
+        BusquedaProductoService service = servicio(64,
+                producto(1L, "Sol", null, "Jardín"),
+                producto(2L, "Soldador", null, "Herramientas"));
+
+        assertEquals(List.of(1L, 2L), ids(service.buscar("sol", 10)));
+    }
+
+    @Test
+    void elPrefijoNoDescartaTerminosPorOrdenAlfabetico() {
+        // Con un límite de expansión de 1, "cam" abarca camara, camisa y campera
+        BusquedaProductoService service = servicio(1,
+                producto(1L, "Cámara roja", null, null),
+                producto(2L, "Camisa roja", null, null),
+                producto(3L, "Campera roja", null, null),
+                producto(4L, "Campera verde", null, null));
+
+        assertEquals(List.of(1L, 2L, 3L), ids(service.buscar("roja cam", 10)).stream().sorted().toList());
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(service.buscar("cam", 10)).stream().sorted().toList());
+        assertEquals(List.of(3L), ids(service.buscar("roja campe", 10)));
+    }
+
+    @Test
+    void alRenombrarUnaCategoriaSusProductosSeBuscanPorElNombreNuevo() {
+        ProductoRepository repository = mock(ProductoRepository.class);
+        when(repository.findAllOptimized()).thenReturn(List.of(
+                producto(1L, "Taladro", null, "Herramientas"),
+                producto(2L, "Martillo", null, "Herramientas"),
+                producto(3L, "Maceta", null, "Jardín")));
+        BusquedaProductoService service = new BusquedaProductoService(repository, 64, new SimpleMeterRegistry());
+        service.reconstruir();
+
+        when(repository.findAllOptimizedByCategoriaId(7L)).thenReturn(List.of(
+                producto(1L, "Taladro", null, "Ferretería"),
+                producto(2L, "Martillo", null, "Ferretería")));
+        service.alModificarCategoria(new CategoriaModificadaEvent(7L));
+
+        assertEquals(List.of(1L, 2L), ids(service.buscar("ferreteria", 10)).stream().sorted().toList());
+        assertTrue(service.buscar("herramientas", 10).isEmpty());
+        assertEquals(List.of(3L), ids(service.buscar("jardin", 10)));
+    }
+
+    private static BusquedaProductoService servicio(int maxExpansionPrefijo, ProductoListadoDto... productos) {
+        ProductoRepository repository = mock(ProductoRepository.class);
+        when(repository.findAllOptimized()).thenReturn(List.of(productos));
+        BusquedaProductoService service =
+                new BusquedaProductoService(repository, maxExpansionPrefijo, new SimpleMeterRegistry());
+        service.reconstruir();
+        return service;
+    }
+
+    private static ProductoListadoDto producto(Long id, String nombre, String descripcion, String categoria) {
+        return new ProductoListadoDto(id, nombre, descripcion, 10.0, null, categoria, null);
+    }
+
+    private static List<Long> ids(List<ProductoListadoDto> productos) {
+        return productos.stream().map(ProductoListadoDto::getId).toList();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.msvc_producto.application.service;
+
+import com.example.msvc_producto.application.dto.InventarioInfoDto;
+import com.example.msvc_producto.application.dto.ProductoResponseDto;
+import com.example.msvc_producto.application.mapper.ProductoMapper;
+import com.example.msvc_producto.domain.model.Producto;
+import com.example.msvc_producto.domain.service.ProductoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConsultaProductoServiceTest {
+
+    private ProductoService productoService;
+    private ProyeccionStockService proyeccionStockService;
+    private SimpleMeterRegistry registry;
+    private ConsultaProductoService service;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        productoService = mock(ProductoService.class);
+        proyeccionStockService = mock(ProyeccionStockService.class);
+        ProductoMapper productoMapper = mock(ProductoMapper.class);
+        when(productoMapper.toDto(any())).thenAnswer(invocacion -> new ProductoResponseDto());
+        registry = new SimpleMeterRegistry();
+        service = new ConsultaProductoService(productoService, productoMapper, proyeccionStockService, registry);
+        pool = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void consultasSimultaneasDelMismoProductoCompartenUnaLectura() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(productoService.obtenerProductoPorId(3L)).thenAnswer(invocacion -> {
+            iniciada.countDown();
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+            return producto(3L);
+        });
+        when(proyeccionStockService.obtener(3L)).thenReturn(new InventarioInfoDto(3L, 12, null));
+
+        Future<ProductoResponseDto> primera = pool.submit(() -> service.obtenerProducto(3L));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+        Future<ProductoResponseDto> segunda = pool.submit(() -> service.obtenerProducto(3L));
+        esperarCompartidas(1.0);
+        liberar.countDown();
+
+        ProductoResponseDto respuesta = primera.get(5, TimeUnit.SECONDS);
+        assertSame(respuesta, segunda.get(5, TimeUnit.SECONDS));
+        assertEquals(12, respuesta.getInventario().getCantidad());
+        verify(productoService, times(1)).obtenerProductoPorId(3L);
+        verify(proyeccionStockService, times(1)).obtener(3L);
+        assertEquals(1.0, contador("singleflight.cargas"));
+    }
+
+    @Test
+    void consultasSucesivasLeenElStockProyectadoActual() {
+        when(productoService.obtenerProductoPorId(3L)).thenReturn(producto(3L));
+        when(proyeccionStockService.obtener(3L))
+                .thenReturn(new InventarioInfoDto(3L, 12, null))
+                .thenReturn(new InventarioInfoDto(3L, 11, null));
+
+        assertEquals(12, service.obtenerProducto(3L).getInventario().getCantidad());
+        assertEquals(11, service.obtenerProducto(3L).getInventario().getCantidad());
+
+        assertEquals(2.0, contador("singleflight.cargas"));
+        assertEquals(0.0, contador("singleflight.compartidas"));
+    }
+
+    private double contador(String nombre) {
+        return registry.get(nombre).tag("consulta", "producto").counter().count();
+    }
+
+    private void esperarCompartidas(double esperadas) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (contador("singleflight.compartidas") < esperadas) {
+            if (System.nanoTime() > limite) {
+                throw new AssertionError("La segunda consulta no llegó a esperar la carga en curso");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static Producto producto(Long id) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        return producto;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.msvc_producto.application.service;
+
+import com.example.msvc_producto.application.dto.ConteoFacetaDto;
+import com.example.msvc_producto.application.dto.ProductoFacetaDto;
+import com.example.msvc_producto.domain.model.Producto;
+import com.example.msvc_producto.domain.repository.ProductoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FacetasProductoServiceTest {
+
+    private FacetasProductoService service;
+
+    @BeforeEach
+    void setUp() {
+        ProductoRepository repository = mock(ProductoRepository.class);
+        when(repository.findAllParaFacetas()).thenReturn(List.of(
+                new ProductoFacetaDto(1L, 1L, 10L, new BigDecimal("5")),
+                new ProductoFacetaDto(2L, 1L, 20L, new BigDecimal("20")),
+                new ProductoFacetaDto(3L, 2L, 10L, new BigDecimal("60")),
+                new ProductoFacetaDto(4L, 2L, 20L, null)));
+        service = new FacetasProductoService(repository,
+                List.of(new BigDecimal("10"), new BigDecimal("50")), new SimpleMeterRegistry());
+        service.reconstruir();
+        service.alProyectarStock(new StockProyectadoEvent(Map.of(1L, 5, 2L, 0, 3L, 3, 4L, 1)));
+    }
+
+    @Test
+    void sinFiltrosCuentaTodosLosProductosActivos() {
+        FacetasProductoService.ResultadoFacetas resultado = service.consultar(null, null, null, null, 0L, 10);
+
+        assertEquals(4, resultado.getTotal());
+        assertEquals(List.of(1L, 2L, 3L, 4L), resultado.getProductoIds());
+        assertEquals(Map.of("1", 2L, "2", 2L), conteos(resultado, FacetasProductoService.FACETA_CATEGORIA));
+        assertEquals(Map.of("10", 2L, "20", 2L), conteos(resultado, FacetasProductoService.FACETA_EMPRESA));
+        assertEquals(Map.of("true", 3L, "false", 1L), conteos(resultado, FacetasProductoService.FACETA_STOCK));
+    }
+
+    @Test
+    void losProductosSinPrecioNoCuentanEnNingunaBanda() {
+        FacetasProductoService.ResultadoFacetas resultado = service.consultar(null, null, null, null, 0L, 10);
+
+        assertEquals(List.of("0-10", "10-50", "50+"), service.getBandasPrecio());
+        assertEquals(Map.of("0-10", 1L, "10-50", 1L, "50+", 1L), conteos(resultado, FacetasProductoService.FACETA_PRECIO));
+        assertEquals(3, service.consultar(null, null, service.getBandasPrecio(), null, 0L, 10).getTotal());
+    }
+
+    @Test
+    void elConteoDeUnaFacetaIgnoraSuPropioFiltro() {
+        FacetasProductoService.ResultadoFacetas resultado = service.consultar(List.of(1L), null, null, null, 0L, 10);
+
+        assertEquals(2, resultado.getTotal());
+        assertEquals(List.of(1L, 2L), resultado.getProductoIds());
+        assertEquals(Map.of("1", 2L, "2", 2L), conteos(resultado, FacetasProductoService.FACETA_CATEGORIA));
+        assertEquals(Map.of("10", 1L, "20", 1L), conteos(resultado, FacetasProductoService.FACETA_EMPRESA));
+        assertEquals(Map.of("0-10", 1L, "10-50", 1L, "50+", 0L), conteos(resultado, FacetasProductoService.FACETA_PRECIO));
+        assertEquals(Map.of("true", 1L, "false", 1L), conteos(resultado, FacetasProductoService.FACETA_STOCK));
+    }
+
+    @Test
+    void combinaFacetasConAndYValoresConOr() {
+        FacetasProductoService.ResultadoFacetas resultado =
+                service.consultar(List.of(1L, 2L), List.of(10L), null, true, 0L, 10);
+
+        assertEquals(List.of(1L, 3L), resultado.getProductoIds());
+    }
+
+    @Test
+    void paginaConCursorPorId() {
+        FacetasProductoService.ResultadoFacetas primera = service.consultar(null, null, null, null, 0L, 2);
+        assertEquals(List.of(1L, 2L), primera.getProductoIds());
+        assertTrue(primera.isHayMas());
+
+        FacetasProductoService.ResultadoFacetas segunda = service.consultar(null, null, null, null, 2L, 2);
+        assertEquals(List.of(3L, 4L), segunda.getProductoIds());
+        assertFalse(segunda.isHayMas());
+        assertEquals(4, segunda.getTotal());
+    }
+
+    @Test
+    void rechazaCursoresFueraDeRangoYBandasDesconocidas() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.consultar(null, null, null, null, Integer.MAX_VALUE, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.consultar(null, null, null, null, Long.MAX_VALUE, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.consultar(null, null, null, null, -1L, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.consultar(null, null, List.of("1-2"), null, 0L, 10));
+    }
+
+    @Test
+    void alAsignarPrecioElProductoEntraEnSuBandaYAlDesactivarseSale() {
+        Producto producto = new Producto();
+        producto.setId(4L);
+        producto.setPrecio(new BigDecimal("30"));
+        producto.setActivo(true);
+        service.alModificarProducto(new ProductoModificadoEvent(producto));
+
+        assertEquals(Map.of("0-10", 1L, "10-50", 2L, "50+", 1L),
+                conteos(service.consultar(null, null, null, null, 0L, 10), FacetasProductoService.FACETA_PRECIO));
+
+        producto.setActivo(false);
+        service.alModificarProducto(new ProductoModificadoEvent(producto));
+
+        FacetasProductoService.ResultadoFacetas resultado = service.consultar(null, null, null, null, 0L, 10);
+        assertEquals(3, resultado.getTotal());
+        assertEquals(Map.of("0-10", 1L, "10-50", 1L, "50+", 1L), conteos(resultado, FacetasProductoService.FACETA_PRECIO));
+    }
+
+    private static Map<String, Long> conteos(FacetasProductoService.ResultadoFacetas resultado, String faceta) {
+        return resultado.getFacetas().get(faceta).stream()
+                .collect(Collectors.toMap(ConteoFacetaDto::getValor, ConteoFacetaDto::getCantidad));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.msvc_producto.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry registry;
+    private SingleFlight<String, String> singleFlight;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("prueba", registry);
+        pool = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void llamadasSecuencialesEjecutanCadaCarga() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        assertEquals("v1", singleFlight.ejecutar("k", () -> "v" + ejecuciones.incrementAndGet()));
+        assertEquals("v2", singleFlight.ejecutar("k", () -> "v" + ejecuciones.incrementAndGet()));
+
+        assertEquals(2.0, contador("singleflight.cargas"));
+        assertEquals(0.0, contador("singleflight.compartidas"));
+    }
+
+    @Test
+    void llamadasSimultaneasCompartenUnaSolaCarga() throws Exception {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        Future<String> primera = pool.submit(() -> singleFlight.ejecutar("k", () -> {
+            ejecuciones.incrementAndGet();
+            iniciada.countDown();
+            esperar(liberar);
+            return "valor";
+        }));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+        Future<String> segunda = pool.submit(() -> singleFlight.ejecutar("k", () -> {
+            ejecuciones.incrementAndGet();
+            return "otro";
+        }));
+        esperarCompartidas(1.0);
+        liberar.countDown();
+
+        assertEquals("valor", primera.get(5, TimeUnit.SECONDS));
+        assertEquals("valor", segunda.get(5, TimeUnit.SECONDS));
+        assertEquals(1, ejecuciones.get());
+        assertEquals(1.0, contador("singleflight.cargas"));
+    }
+
+    @Test
+    void laExcepcionDeLaCargaLlegaATodasLasEsperasYLaClaveSeLibera() throws Exception {
+        IllegalStateException error = new IllegalStateException("sin conexión");
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        Future<String> primera = pool.submit(() -> singleFlight.ejecutar("k", () -> {
+            iniciada.countDown();
+            esperar(liberar);
+            throw error;
+        }));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+        Future<String> segunda = pool.submit(() -> singleFlight.ejecutar("k", () -> "otro"));
+        esperarCompartidas(1.0);
+        liberar.countDown();
+
+        ExecutionException enPrimera = assertThrows(ExecutionException.class, () -> primera.get(5, TimeUnit.SECONDS));
+        ExecutionException enSegunda = assertThrows(ExecutionException.class, () -> segunda.get(5, TimeUnit.SECONDS));
+        assertSame(error, enPrimera.getCause());
+        assertSame(error, enSegunda.getCause());
+
+        // El fallo no queda guardado: la siguiente solicitud vuelve a cargar
+        assertEquals("nuevo", singleFlight.ejecutar("k", () -> "nuevo"));
+    }
+
+    @Test
+    void clavesDistintasNoSeComparten() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        Future<String> primera = pool.submit(() -> singleFlight.ejecutar("a", () -> {
+            iniciada.countDown();
+            esperar(liberar);
+            return "a";
+        }));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+
+        assertEquals("b", singleFlight.ejecutar("b", () -> "b"));
+        liberar.countDown();
+        assertEquals("a", primera.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, contador("singleflight.compartidas"));
+    }
+
+    private double contador(String nombre) {
+        return registry.get(nombre).tag("consulta", "prueba").counter().count();
+    }
+
+    private void esperarCompartidas(double esperadas) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (contador("singleflight.compartidas") < esperadas) {
+            if (System.nanoTime() > limite) {
+                throw new AssertionError("La segunda solicitud no llegó a esperar la carga en curso");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("La prueba no liberó la carga");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
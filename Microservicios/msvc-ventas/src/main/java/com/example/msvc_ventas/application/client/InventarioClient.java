@@ -1,13 +1,17 @@
 package com.example.msvc_ventas.application.client;
 
+import com.example.msvc_ventas.application.dto.ConfirmacionReservaRequestDto;
 import com.example.msvc_ventas.application.dto.InventarioInfoDto;
+import com.example.msvc_ventas.application.dto.ReservaInventarioRequestDto;
+import com.example.msvc_ventas.application.dto.ResultadoConfirmacionDto;
+import com.example.msvc_ventas.application.dto.ResultadoReservaDto;
 import com.example.msvc_ventas.application.dto.SalidaInventarioLoteRequestDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
-@FeignClient(name = "msvc-inventario", url = "${app.msvc-inventario.url}")
+@FeignClient(name = "msvc-inventario", url = "${app.msvc-inventario.url}", fallbackFactory = InventarioClientFallbackFactory.class)
 public interface InventarioClient {
 
     @GetMapping("/api/inventarios/producto/{productoId}")
@@ -15,4 +19,25 @@ public interface InventarioClient {
 
     @PostMapping("/api/inventarios/salida-lote")
     List<InventarioInfoDto> procesarSalidaLote(@RequestBody SalidaInventarioLoteRequestDto requestDto);
+
+    @PostMapping("/api/inventarios/reservas")
+    void reservarStock(@RequestBody ReservaInventarioRequestDto requestDto);
+
+    @PostMapping("/api/inventarios/reservas/lote")
+    List<ResultadoReservaDto> reservarStockLote(@RequestBody List<ReservaInventarioRequestDto> reservas);
+
+    @PutMapping("/api/inventarios/reservas/{referencia}/confirmar")
+    void confirmarReserva(@PathVariable("referencia") String referencia, @RequestParam("motivo") String motivo);
+
+    @PostMapping("/api/inventarios/reservas/confirmar-lote")
+    List<ResultadoConfirmacionDto> confirmarReservasLote(@RequestBody List<ConfirmacionReservaRequestDto> confirmaciones);
+
+    @PutMapping("/api/inventarios/reservas/{referencia}/extender")
+    void extenderReserva(@PathVariable("referencia") String referencia, @RequestParam("segundos") long segundos);
+
+    @PutMapping("/api/inventarios/reservas/{referencia}/liberar")
+    void liberarReserva(@PathVariable("referencia") String referencia);
+
+    @PostMapping("/api/inventarios/reservas/liberar-lote")
+    void liberarReservasLote(@RequestBody List<String> referencias);
 }
\ No newline at end of file
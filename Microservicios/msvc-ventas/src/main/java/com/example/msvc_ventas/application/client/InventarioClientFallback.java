@@ -1,28 +1,101 @@
 package com.example.msvc_ventas.application.client;
 
+import com.example.msvc_ventas.application.dto.ConfirmacionReservaRequestDto;
 import com.example.msvc_ventas.application.dto.InventarioInfoDto;
+import com.example.msvc_ventas.application.dto.ReservaInventarioRequestDto;
+import com.example.msvc_ventas.application.dto.ResultadoConfirmacionDto;
+import com.example.msvc_ventas.application.dto.ResultadoReservaDto;
 import com.example.msvc_ventas.application.dto.SalidaInventarioLoteRequestDto;
-import org.springframework.stereotype.Component;
+import com.example.msvc_ventas.application.service.OutboxService;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
-@Component
+/**
+ * Con inventario no disponible la consulta de stock devuelve un valor de respaldo sin cantidades y
+ * la venta queda a cargo de la reserva. Reservar, descontar o extender fallan de inmediato: suponer
+ * que se aplicaron llevaría a vender sin stock. Las confirmaciones vuelven como reintentables y las
+ * liberaciones se guardan en el outbox para enviarlas cuando inventario responda.
+ */
 public class InventarioClientFallback implements InventarioClient {
 
+    static final String UBICACION_NO_DISPONIBLE = "No disponible";
+
+    private final OutboxService outboxService;
+
+    public InventarioClientFallback(OutboxService outboxService) {
+        this.outboxService = outboxService;
+    }
+
+    /**
+     * Indica si el inventario es el valor de respaldo y no información real de msvc-inventario.
+     */
+    public static boolean esRespaldo(InventarioInfoDto inventario) {
+        return inventario != null && inventario.getCantidad() == null
+                && UBICACION_NO_DISPONIBLE.equals(inventario.getUbicacion());
+    }
+
     @Override
     public InventarioInfoDto obtenerInventarioPorProductoId(Long productoId) {
-        // Usamos el patrón builder para crear el DTO
         return InventarioInfoDto.builder()
-                .id(null)
-                .cantidad(0)
-                .ubicacion("No disponible")
+                .ubicacion(UBICACION_NO_DISPONIBLE)
                 .build();
     }
 
     @Override
     public List<InventarioInfoDto> procesarSalidaLote(SalidaInventarioLoteRequestDto requestDto) {
-        // No podemos procesar la salida, retornamos una lista vacía
-        return new ArrayList<>();
+        throw new IllegalStateException("Servicio de inventario no disponible, no se pudo procesar la salida");
+    }
+
+    @Override
+    public void reservarStock(ReservaInventarioRequestDto requestDto) {
+        // Sin reserva no se puede garantizar el stock de la venta
+        throw new IllegalStateException("Servicio de inventario no disponible, no se pudo reservar el stock");
+    }
+
+    @Override
+    public List<ResultadoReservaDto> reservarStockLote(List<ReservaInventarioRequestDto> reservas) {
+        throw new IllegalStateException("Servicio de inventario no disponible, no se pudo reservar el stock");
+    }
+
+    @Override
+    public void confirmarReserva(String referencia, String motivo) {
+        throw new IllegalStateException("Servicio de inventario no disponible, no se pudo confirmar la reserva");
+    }
+
+    @Override
+    public List<ResultadoConfirmacionDto> confirmarReservasLote(List<ConfirmacionReservaRequestDto> confirmaciones) {
+        // El outbox reintenta cada evento con su espera exponencial
+        return confirmaciones.stream()
+                .map(confirmacion -> ResultadoConfirmacionDto.builder()
+                        .referencia(confirmacion.getReferencia())
+                        .confirmada(false)
+                        .reintentable(true)
+                        .mensaje("Servicio de inventario no disponible")
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void extenderReserva(String referencia, long segundos) {
+        // Sin extensión la reserva podría vencer antes de que el outbox confirme la salida
+        throw new IllegalStateException("Servicio de inventario no disponible, no se pudo asegurar la reserva");
+    }
+
+    @Override
+    public void liberarReserva(String referencia) {
+        liberarReservasLote(List.of(referencia));
+    }
+
+    /**
+     * Guarda la liberación en el outbox y lanza la excepción igualmente: el llamador no debe dar la
+     * reserva por liberada, y el despachador del outbox, que llega aquí si inventario sigue caído,
+     * debe reprogramar el evento en lugar de marcarlo como enviado.
+     */
+    @Override
+    public void liberarReservasLote(List<String> referencias) {
+        outboxService.registrarLiberacionReservas(referencias);
+        throw new IllegalStateException("Servicio de inventario no disponible, la liberación de "
+                + referencias.size() + " reservas queda pendiente en el outbox");
     }
-}
\ No newline at end of file
+}
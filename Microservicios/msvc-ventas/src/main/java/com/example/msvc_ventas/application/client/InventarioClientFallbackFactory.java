@@ -0,0 +1,30 @@
+package com.example.msvc_ventas.application.client;
+
+import com.example.msvc_ventas.application.service.OutboxService;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entrega el fallback de {@link InventarioClient} cuando la llamada falla, el circuito está abierto, el
+ * bulkhead está lleno o se agota el plazo. Un error 4xx es una respuesta válida de inventario
+ * (por ejemplo un 404) y se propaga tal cual para que el llamador lo trate.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class InventarioClientFallbackFactory implements FallbackFactory<InventarioClient> {
+
+    private final OutboxService outboxService;
+
+    @Override
+    public InventarioClient create(Throwable cause) {
+        if (cause instanceof FeignException.FeignClientException errorCliente) {
+            throw errorCliente;
+        }
+        log.debug("InventarioClient no disponible, se usa el fallback: {}", cause.toString());
+        return new InventarioClientFallback(outboxService);
+    }
+}
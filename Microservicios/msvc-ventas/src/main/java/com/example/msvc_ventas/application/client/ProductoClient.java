@@ -1,13 +1,26 @@
 package com.example.msvc_ventas.application.client;
 
+import com.example.msvc_ventas.application.dto.CambiosProductoDto;
 import com.example.msvc_ventas.application.dto.ProductoDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "msvc-producto", url = "${app.msvc-producto.url}")
+import java.util.List;
+
+@FeignClient(name = "msvc-producto", url = "${app.msvc-producto.url}", fallbackFactory = ProductoClientFallbackFactory.class)
 public interface ProductoClient {
 
     @GetMapping("/api/productos/{id}")
     ProductoDto obtenerProducto(@PathVariable("id") Long id);
+
+    @PostMapping("/api/productos/batch")
+    List<ProductoDto> obtenerProductosPorIds(@RequestBody List<Long> ids);
+
+    // desde: fecha ISO devuelta como "hasta" en la consulta anterior (null en la primera)
+    @GetMapping("/api/productos/cambios")
+    CambiosProductoDto obtenerCambios(@RequestParam(value = "desde", required = false) String desde);
 }
\ No newline at end of file
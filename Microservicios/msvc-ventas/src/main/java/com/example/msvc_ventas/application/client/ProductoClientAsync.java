@@ -0,0 +1,16 @@
+package com.example.msvc_ventas.application.client;
+
+import com.example.msvc_ventas.application.dto.ProductoDto;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Variante asíncrona de {@link ProductoClient}. Cada llamada tiene su propio plazo y devuelve un
+ * CompletableFuture, de modo que varias consultas pueden componerse sin esperar una tras otra.
+ * Un 404 completa el futuro con NoSuchElementException y un plazo agotado con TimeoutException.
+ */
+public interface ProductoClientAsync {
+
+    CompletableFuture<List<ProductoDto>> obtenerProductosPorIds(List<Long> ids);
+}
@@ -0,0 +1,48 @@
+package com.example.msvc_ventas.application.client;
+
+import com.example.msvc_ventas.application.dto.ProductoDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementación no bloqueante con WebClient: las respuestas se procesan en los hilos de E/S de
+ * Reactor Netty, así que una consulta pendiente no retiene ningún hilo. Se activa con
+ * app.consultas-remotas.cliente=webclient.
+ */
+@Component
+@ConditionalOnProperty(name = "app.consultas-remotas.cliente", havingValue = "webclient")
+public class ProductoClientAsyncWebClient implements ProductoClientAsync {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public ProductoClientAsyncWebClient(
+            WebClient.Builder webClientBuilder,
+            @Value("${app.msvc-producto.url}") String url,
+            @Value("${app.consultas-remotas.llamada-timeout-ms:3000}") long timeoutMs) {
+        this.webClient = webClientBuilder.baseUrl(url).build();
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    @Override
+    public CompletableFuture<List<ProductoDto>> obtenerProductosPorIds(List<Long> ids) {
+        return webClient.post()
+                .uri("/api/productos/batch")
+                .bodyValue(ids)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<ProductoDto>>() {})
+                .timeout(timeout)
+                .onErrorMap(WebClientResponseException.NotFound.class,
+                        e -> new NoSuchElementException("Productos no encontrados: " + ids))
+                .toFuture();
+    }
+}
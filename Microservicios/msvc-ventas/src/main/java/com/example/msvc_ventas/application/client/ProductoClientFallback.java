@@ -1,19 +1,53 @@
 package com.example.msvc_ventas.application.client;
 
+import com.example.msvc_ventas.application.dto.CambiosProductoDto;
 import com.example.msvc_ventas.application.dto.ProductoDto;
-import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
 
-@Component
+/**
+ * Con productos no disponible se devuelven valores de respaldo sin precio: la caché no los guarda
+ * y cada venta que los necesita falla por sí sola, mientras las que usan productos en caché siguen
+ * adelante. La consulta de cambios vuelve sin marca y el siguiente sondeo repite la misma.
+ */
 public class ProductoClientFallback implements ProductoClient {
 
+    static final String NOMBRE_NO_DISPONIBLE = "Producto no disponible";
+
+    /**
+     * Indica si el producto es el valor de respaldo y no información real de msvc-producto.
+     */
+    public static boolean esRespaldo(ProductoDto producto) {
+        return producto != null && producto.getPrecio() == null && NOMBRE_NO_DISPONIBLE.equals(producto.getNombre());
+    }
+
+    /**
+     * Indica si los cambios son el valor de respaldo: una respuesta real siempre trae su marca.
+     */
+    public static boolean esRespaldo(CambiosProductoDto cambios) {
+        return cambios != null && cambios.getHasta() == null;
+    }
+
     @Override
     public ProductoDto obtenerProducto(Long id) {
         return ProductoDto.builder()
                 .id(id)
-                .nombre("Producto no disponible")
-                .precio(BigDecimal.ZERO)
+                .nombre(NOMBRE_NO_DISPONIBLE)
+                .build();
+    }
+
+    @Override
+    public List<ProductoDto> obtenerProductosPorIds(List<Long> ids) {
+        return ids.stream()
+                .map(this::obtenerProducto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CambiosProductoDto obtenerCambios(String desde) {
+        return CambiosProductoDto.builder()
+                .productoIds(List.of())
                 .build();
     }
-}
\ No newline at end of file
+}
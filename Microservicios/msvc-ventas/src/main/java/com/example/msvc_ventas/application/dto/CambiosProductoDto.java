@@ -0,0 +1,18 @@
+package com.example.msvc_ventas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CambiosProductoDto {
+    private LocalDateTime hasta;
+    private List<Long> productoIds;
+}
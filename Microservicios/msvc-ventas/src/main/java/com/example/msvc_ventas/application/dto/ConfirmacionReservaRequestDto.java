@@ -0,0 +1,21 @@
+package com.example.msvc_ventas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConfirmacionReservaRequestDto {
+
+    // Número de factura: inventario no descuenta dos veces la misma referencia
+    private String referencia;
+    private String motivo;
+    // Solo se usan si la venta no tiene reserva (ventas creadas antes de las reservas)
+    private List<SalidaInventarioLoteRequestDto.SalidaInventarioItemDto> items;
+}
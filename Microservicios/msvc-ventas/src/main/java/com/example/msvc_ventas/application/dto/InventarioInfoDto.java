@@ -12,5 +12,7 @@ import lombok.NoArgsConstructor;
 public class InventarioInfoDto {
     private Long id;
     private Integer cantidad;
+    // Existencias menos lo reservado por ventas pendientes
+    private Integer cantidadDisponible;
     private String ubicacion;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.msvc_ventas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservaInventarioRequestDto {
+
+    // Número de factura de la venta; identifica la reserva en inventario
+    private String referencia;
+    private List<SalidaInventarioLoteRequestDto.SalidaInventarioItemDto> items;
+}
@@ -0,0 +1,17 @@
+package com.example.msvc_ventas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoConfirmacionDto {
+    private String referencia;
+    private boolean confirmada;
+    private boolean reintentable;
+    private String mensaje;
+}
@@ -0,0 +1,16 @@
+package com.example.msvc_ventas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoReservaDto {
+    private String referencia;
+    private boolean reservada;
+    private String mensaje;
+}
@@ -0,0 +1,20 @@
+package com.example.msvc_ventas.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una venta dentro de una carga por lote; indice es su posición en la solicitud.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoVentaLoteDto {
+    private int indice;
+    private boolean creada;
+    private VentaResponseDto venta;
+    private String error;
+}
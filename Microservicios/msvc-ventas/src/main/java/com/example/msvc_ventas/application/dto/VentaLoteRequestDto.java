@@ -0,0 +1,26 @@
+package com.example.msvc_ventas.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Carga de ventas registradas sin conexión en un punto de venta.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VentaLoteRequestDto {
+
+    @NotEmpty(message = "El lote debe incluir al menos una venta")
+    @Size(max = 1000, message = "El lote no puede superar las 1000 ventas")
+    @Valid
+    private List<VentaRequestDto> ventas;
+}
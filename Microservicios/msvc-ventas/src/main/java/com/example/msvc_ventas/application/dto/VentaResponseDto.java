@@ -24,5 +24,6 @@ public class VentaResponseDto {
     private LocalDateTime fechaVenta;
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaActualizacion;
+    private Boolean salidaInventarioFallida;
     private List<DetalleVentaResponseDto> detalles;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.msvc_ventas.application.mapper;
 
 import com.example.msvc_ventas.application.dto.*;
+import com.example.msvc_ventas.application.service.GeneradorNumeroFacturaService;
 import com.example.msvc_ventas.domain.model.Cliente;
 import com.example.msvc_ventas.domain.model.DetalleVenta;
 import com.example.msvc_ventas.domain.model.Venta;
@@ -15,9 +16,11 @@ import java.util.stream.Collectors;
 public class VentaMapper {
 
     private final ClienteMapper clienteMapper;
+    private final GeneradorNumeroFacturaService generadorNumeroFactura;
 
-    public VentaMapper(ClienteMapper clienteMapper) {
+    public VentaMapper(ClienteMapper clienteMapper, GeneradorNumeroFacturaService generadorNumeroFactura) {
         this.clienteMapper = clienteMapper;
+        this.generadorNumeroFactura = generadorNumeroFactura;
     }
 
     public Venta toEntity(VentaRequestDto dto, Cliente cliente, List<ProductoDto> productos) {
@@ -53,8 +56,8 @@ public class VentaMapper {
         BigDecimal impuesto = subtotal.multiply(new BigDecimal("0.15"));
         BigDecimal total = subtotal.add(impuesto);
 
-        // Generar número de factura único (formato simple para ejemplo)
-        String numeroFactura = "FACT-" + System.currentTimeMillis();
+        // Generar número de factura único (reservado por bloques desde la secuencia factura_seq)
+        String numeroFactura = generadorNumeroFactura.siguienteNumeroFactura();
 
         // Crear la venta
         return Venta.builder()
@@ -94,6 +97,7 @@ public class VentaMapper {
                 .fechaVenta(venta.getFechaVenta())
                 .fechaCreacion(venta.getFechaCreacion())
                 .fechaActualizacion(venta.getFechaActualizacion())
+                .salidaInventarioFallida(venta.getSalidaInventarioFallida())
                 .detalles(detallesDtos)
                 .build();
     }
@@ -0,0 +1,150 @@
+package com.example.msvc_ventas.application.service;
+
+import com.example.msvc_ventas.application.client.ProductoClient;
+import com.example.msvc_ventas.application.client.ProductoClientAsync;
+import com.example.msvc_ventas.application.client.ProductoClientFallback;
+import com.example.msvc_ventas.application.dto.CambiosProductoDto;
+import com.example.msvc_ventas.application.dto.ProductoDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Caché local de nombre y precio de los productos, acotada por tamaño y con vencimiento.
+ * Las ventas solo consultan a msvc-producto por los productos que no están en caché. Los cambios
+ * del catálogo se detectan sondeando GET /api/productos/cambios y los productos modificados se
+ * invalidan; el vencimiento limita la antigüedad si el sondeo deja de responder.
+ * <p>
+ * Métricas: cache.gets (hit / miss), cache.evictions, cache.size con cache=ventas.productos y
+ * ventas.productos.invalidaciones.
+ */
+@Slf4j
+@Service
+public class CatalogoProductoCache {
+
+    private final ProductoClient productoClient;
+    private final ProductoClientAsync productoClientAsync;
+    private final Cache<Long, ProductoDto> productos;
+    private final Duration solapamiento;
+    private final Counter invalidaciones;
+    // Aumenta con cada invalidación: una carga iniciada antes no debe guardar su resultado
+    private final AtomicLong generacion = new AtomicLong();
+    private volatile LocalDateTime ultimaMarca;
+
+    public CatalogoProductoCache(
+            @Qualifier("com.example.msvc_ventas.application.client.ProductoClient") ProductoClient productoClient,
+            ProductoClientAsync productoClientAsync,
+            MeterRegistry meterRegistry,
+            @Value("${app.catalogo-productos.cache-max:10000}") long cacheMax,
+            @Value("${app.catalogo-productos.ttl-minutos:10}") long ttlMinutos,
+            @Value("${app.catalogo-productos.solapamiento-ms:5000}") long solapamientoMs) {
+        this.productoClient = productoClient;
+        this.productoClientAsync = productoClientAsync;
+        this.solapamiento = Duration.ofMillis(solapamientoMs);
+        this.productos = Caffeine.newBuilder()
+                .maximumSize(cacheMax)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, productos, "ventas.productos");
+        this.invalidaciones = Counter.builder("ventas.productos.invalidaciones")
+                .description("Productos invalidados por cambios en el catálogo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve los productos pedidos, en el orden de los IDs y sin repetir. Los que no están en
+     * caché se obtienen con una sola llamada batch; los IDs inexistentes no aparecen en el resultado.
+     */
+    public CompletableFuture<List<ProductoDto>> obtenerProductos(Collection<Long> productoIds) {
+        List<Long> ids = productoIds.stream().distinct().collect(Collectors.toList());
+        Map<Long, ProductoDto> encontrados = new HashMap<>(productos.getAllPresent(ids));
+        List<Long> faltantes = ids.stream()
+                .filter(id -> !encontrados.containsKey(id))
+                .collect(Collectors.toList());
+        if (faltantes.isEmpty()) {
+            return CompletableFuture.completedFuture(ordenar(ids, encontrados));
+        }
+
+        long generacionInicial = generacion.get();
+        return productoClientAsync.obtenerProductosPorIds(faltantes)
+                .thenApply(cargados -> {
+                    for (ProductoDto producto : cargados) {
+                        encontrados.put(producto.getId(), producto);
+                    }
+                    // Si hubo una invalidación mientras tanto, lo cargado puede ser anterior al cambio.
+                    // Los valores de respaldo del fallback no se guardan
+                    if (generacion.get() == generacionInicial) {
+                        cargados.stream()
+                                .filter(producto -> !ProductoClientFallback.esRespaldo(producto))
+                                .forEach(producto -> productos.put(producto.getId(), producto));
+                    }
+                    return ordenar(ids, encontrados);
+                });
+    }
+
+    public void invalidar(Collection<Long> productoIds) {
+        generacion.incrementAndGet();
+        productos.invalidateAll(productoIds);
+        invalidaciones.increment(productoIds.size());
+    }
+
+    public void invalidarTodo() {
+        generacion.incrementAndGet();
+        productos.invalidateAll();
+    }
+
+    /**
+     * Consulta los productos modificados desde el último sondeo. Se pide con un pequeño solapamiento
+     * para cubrir transacciones que confirmaron después de la consulta anterior. Si falla, el
+     * siguiente sondeo vuelve a pedir desde la misma marca.
+     */
+    @Scheduled(fixedDelayString = "${app.catalogo-productos.sondeo-ms:5000}")
+    public void sondearCambios() {
+        LocalDateTime marca = ultimaMarca;
+        try {
+            String desde = (marca != null) ? marca.minus(solapamiento).toString() : null;
+            CambiosProductoDto cambios = productoClient.obtenerCambios(desde);
+            if (ProductoClientFallback.esRespaldo(cambios)) {
+                log.debug("Productos no disponible, los cambios se consultarán en el siguiente sondeo");
+                return;
+            }
+
+            if (marca == null) {
+                // Primer sondeo: no se sabe qué cambió antes, se descarta lo cargado hasta ahora
+                invalidarTodo();
+            } else if (cambios.getProductoIds() != null && !cambios.getProductoIds().isEmpty()) {
+                invalidar(cambios.getProductoIds());
+                log.debug("Productos invalidados en caché: {}", cambios.getProductoIds().size());
+            }
+            ultimaMarca = cambios.getHasta();
+        } catch (Exception e) {
+            log.warn("No se pudieron consultar los cambios del catálogo de productos: {}", e.getMessage());
+        }
+    }
+
+    private List<ProductoDto> ordenar(List<Long> ids, Map<Long, ProductoDto> productosPorId) {
+        return ids.stream()
+                .map(productosPorId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -61,6 +62,12 @@ public class ClienteServiceImpl implements ClienteService {
         return clienteRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Cliente> obtenerClientesPorIds(Collection<Long> ids) {
+        return clienteRepository.findAllByIds(ids);
+    }
+
     @Override
     @Transactional
     public void eliminarCliente(Long id) {
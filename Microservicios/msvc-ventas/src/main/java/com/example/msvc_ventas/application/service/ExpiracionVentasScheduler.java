@@ -0,0 +1,31 @@
+package com.example.msvc_ventas.application.service;
+
+import com.example.msvc_ventas.domain.service.VentaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Barrido periódico de ventas pendientes abandonadas: las cancela cuando su reserva de inventario
+ * ya venció, para que no queden pendientes de forma indefinida ni se completen sin stock reservado.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExpiracionVentasScheduler {
+
+    private final VentaService ventaService;
+
+    @Scheduled(fixedDelayString = "${app.reservas.barrido-ms:60000}")
+    public void cancelarVencidas() {
+        try {
+            int canceladas = ventaService.cancelarPendientesVencidas();
+            if (canceladas > 0) {
+                log.info("Ventas pendientes canceladas por reserva vencida: {}", canceladas);
+            }
+        } catch (Exception e) {
+            log.warn("Error al cancelar ventas pendientes vencidas, se reintentará en el siguiente barrido: {}", e.getMessage());
+        }
+    }
+}
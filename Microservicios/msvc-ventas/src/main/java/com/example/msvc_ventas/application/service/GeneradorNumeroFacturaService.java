@@ -0,0 +1,64 @@
+package com.example.msvc_ventas.application.service;
+
+import com.example.msvc_ventas.domain.repository.NumeroFacturaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Asigna números de factura únicos a partir de bloques reservados en la base de datos.
+ * Dentro de un bloque la asignación es un simple incremento atómico; solo la reserva
+ * de un bloque nuevo se sincroniza. Los números que queden sin usar al reiniciar se pierden.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GeneradorNumeroFacturaService {
+
+    private static final String PREFIJO = "FACT-";
+    private static final int DIGITOS = 12;
+
+    private final NumeroFacturaRepository numeroFacturaRepository;
+    private final AtomicReference<Bloque> bloqueActual = new AtomicReference<>();
+
+    public String siguienteNumeroFactura() {
+        return PREFIJO + String.format("%0" + DIGITOS + "d", siguienteNumero());
+    }
+
+    private long siguienteNumero() {
+        while (true) {
+            Bloque bloque = bloqueActual.get();
+            if (bloque != null) {
+                long numero = bloque.siguiente.getAndIncrement();
+                if (numero <= bloque.ultimo) {
+                    return numero;
+                }
+            }
+            renovarBloque(bloque);
+        }
+    }
+
+    private synchronized void renovarBloque(Bloque agotado) {
+        // Otro hilo pudo haber renovado el bloque mientras se esperaba el monitor
+        if (bloqueActual.get() != agotado) {
+            return;
+        }
+        long inicio = numeroFacturaRepository.reservarBloque();
+        long ultimo = inicio + numeroFacturaRepository.tamanoBloque() - 1;
+        bloqueActual.set(new Bloque(inicio, ultimo));
+        log.debug("Reservado bloque de números de factura {} - {}", inicio, ultimo);
+    }
+
+    private static final class Bloque {
+        private final AtomicLong siguiente;
+        private final long ultimo;
+
+        private Bloque(long inicio, long ultimo) {
+            this.siguiente = new AtomicLong(inicio);
+            this.ultimo = ultimo;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.msvc_ventas.application.service;
+
+import com.example.msvc_ventas.domain.model.ClaveIdempotencia;
+import com.example.msvc_ventas.domain.repository.ClaveIdempotenciaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una operación una sola vez por cabecera Idempotency-Key. La primera solicitud registra
+ * la clave en claves_idempotencia, ejecuta el flujo y guarda la respuesta; los reintentos con la
+ * misma clave reciben esa respuesta sin volver a ejecutarlo. Una caché acotada en memoria evita
+ * consultar la tabla en los reintentos más frecuentes.
+ *
+ * El flujo y el paso de la clave a COMPLETADA comparten una transacción: si el proceso muere a
+ * mitad, se revierten juntos y la clave queda EN_PROCESO sin efectos confirmados.
+ */
+@Slf4j
+@Service
+public class IdempotenciaService {
+
+    private final ClaveIdempotenciaRepository claveIdempotenciaRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration vigencia;
+    private final Duration plazoProceso;
+    private final Cache<String, ClaveIdempotencia> completadas;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdempotenciaService(ClaveIdempotenciaRepository claveIdempotenciaRepository,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.idempotencia.vigencia-horas:24}") long vigenciaHoras,
+                               @Value("${app.idempotencia.cache-max:10000}") long cacheMax,
+                               @Value("${app.idempotencia.plazo-proceso-segundos:120}") long plazoProcesoSegundos) {
+        this.claveIdempotenciaRepository = claveIdempotenciaRepository;
+        this.objectMapper = objectMapper;
+        this.vigencia = Duration.ofHours(vigenciaHoras);
+        this.plazoProceso = Duration.ofSeconds(plazoProcesoSegundos);
+        this.completadas = Caffeine.newBuilder()
+                .maximumSize(cacheMax)
+                .expireAfterWrite(vigencia)
+                .build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Ejecuta la acción protegida por la clave. Sin clave se ejecuta directamente.
+     * Si la acción falla, la clave se elimina para que el cliente pueda reintentar. Una clave que
+     * sigue EN_PROCESO después del plazo de proceso la retoma el siguiente reintento con un token
+     * nuevo: como los efectos solo se confirman junto con la clave, ejecutar de nuevo la acción no
+     * los duplica. Si la ejecución anterior seguía viva, su completar ya no encuentra su token y
+     * revierte su transacción.
+     */
+    public <T> T ejecutar(String clave, String operacion, Object solicitud,
+                          TypeReference<T> tipoRespuesta, Supplier<T> accion) {
+        if (clave == null || clave.isBlank()) {
+            return accion.get();
+        }
+        if (clave.length() > 100) {
+            throw new IllegalArgumentException("La clave de idempotencia no puede superar 100 caracteres");
+        }
+
+        String hashSolicitud = calcularHash(operacion, solicitud);
+
+        ClaveIdempotencia enCache = completadas.getIfPresent(clave);
+        if (enCache != null) {
+            return respuestaGuardada(enCache, hashSolicitud, tipoRespuesta);
+        }
+
+        String token = UUID.randomUUID().toString();
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime expiraEn = ahora.plus(vigencia);
+        if (!claveIdempotenciaRepository.registrar(clave, operacion, hashSolicitud, token, expiraEn)) {
+            ClaveIdempotencia existente = claveIdempotenciaRepository.findByClave(clave)
+                    .orElseThrow(() -> new SolicitudEnProcesoException(
+                            "La solicitud con esta clave de idempotencia se está procesando, reintente más tarde"));
+            if (existente.getEstado() == ClaveIdempotencia.EstadoClave.EN_PROCESO) {
+                verificarMismaSolicitud(existente, hashSolicitud);
+                if (!claveIdempotenciaRepository.retomarVencida(clave, token, ahora.minus(plazoProceso), ahora, expiraEn)) {
+                    throw new SolicitudEnProcesoException(
+                            "La solicitud con esta clave de idempotencia se está procesando, reintente más tarde");
+                }
+                log.warn("Clave de idempotencia {} retomada tras superar el plazo de proceso", clave);
+            } else {
+                completadas.put(clave, existente);
+                return respuestaGuardada(existente, hashSolicitud, tipoRespuesta);
+            }
+        }
+
+        String[] respuestaJson = new String[1];
+        T respuesta;
+        try {
+            respuesta = transactionTemplate.execute(status -> {
+                T resultado = accion.get();
+                respuestaJson[0] = serializar(resultado);
+                if (!claveIdempotenciaRepository.completar(clave, token, respuestaJson[0])) {
+                    // Otro reintento retomó la clave mientras esta ejecución seguía en curso
+                    throw new SolicitudEnProcesoException(
+                            "La solicitud con esta clave de idempotencia se está procesando, reintente más tarde");
+                }
+                return resultado;
+            });
+        } catch (RuntimeException e) {
+            claveIdempotenciaRepository.eliminar(clave, token);
+            throw e;
+        }
+
+        completadas.put(clave, ClaveIdempotencia.builder()
+                .clave(clave)
+                .operacion(operacion)
+                .hashSolicitud(hashSolicitud)
+                .estado(ClaveIdempotencia.EstadoClave.COMPLETADA)
+                .respuesta(respuestaJson[0])
+                .expiraEn(expiraEn)
+                .build());
+        return respuesta;
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotencia.limpieza-ms:3600000}")
+    public void eliminarVencidas() {
+        try {
+            int eliminadas = claveIdempotenciaRepository.eliminarVencidas(LocalDateTime.now());
+            if (eliminadas > 0) {
+                log.info("Claves de idempotencia vencidas eliminadas: {}", eliminadas);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudieron eliminar las claves de idempotencia vencidas: {}", e.getMessage());
+        }
+    }
+
+    private <T> T respuestaGuardada(ClaveIdempotencia registro, String hashSolicitud, TypeReference<T> tipoRespuesta) {
+        verificarMismaSolicitud(registro, hashSolicitud);
+        try {
+            return objectMapper.readValue(registro.getRespuesta(), tipoRespuesta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta guardada para la clave de idempotencia", e);
+        }
+    }
+
+    // Reutilizar una clave con otro contenido es un error del cliente, no un reintento
+    private void verificarMismaSolicitud(ClaveIdempotencia registro, String hashSolicitud) {
+        if (!registro.getHashSolicitud().equals(hashSolicitud)) {
+            throw new IllegalArgumentException("La clave de idempotencia ya se usó con una solicitud distinta");
+        }
+    }
+
+    private String calcularHash(String operacion, Object solicitud) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operacion.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(solicitud));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo calcular el hash de la solicitud", e);
+        }
+    }
+
+    private String serializar(Object respuesta) {
+        try {
+            return objectMapper.writeValueAsString(respuesta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta de la solicitud", e);
+        }
+    }
+}
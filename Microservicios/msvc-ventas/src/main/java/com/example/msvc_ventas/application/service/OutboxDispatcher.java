@@ -0,0 +1,115 @@
+package com.example.msvc_ventas.application.service;
+
+import com.example.msvc_ventas.application.client.InventarioClient;
+import com.example.msvc_ventas.application.dto.ConfirmacionReservaRequestDto;
+import com.example.msvc_ventas.application.dto.ResultadoConfirmacionDto;
+import com.example.msvc_ventas.domain.model.OutboxEvento;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envía a inventario, por lotes, las confirmaciones de salida y las liberaciones de reservas
+ * registradas en el outbox. Inventario aplica ambas de forma idempotente por referencia, por lo que
+ * reenviar un evento ya aplicado (por ejemplo, tras una caída antes de marcarlo como enviado)
+ * no descuenta ni libera dos veces.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxService outboxService;
+    private final InventarioClient inventarioClient;
+    private final int tamanoLote;
+
+    public OutboxDispatcher(OutboxService outboxService,
+                            @Qualifier("com.example.msvc_ventas.application.client.InventarioClient") InventarioClient inventarioClient,
+                            @Value("${app.outbox.tamano-lote:100}") int tamanoLote) {
+        this.outboxService = outboxService;
+        this.inventarioClient = inventarioClient;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.intervalo-ms:1000}")
+    public void despachar() {
+        List<OutboxEvento> lote;
+        do {
+            lote = outboxService.reclamarLote(tamanoLote);
+            if (lote.isEmpty()) {
+                return;
+            }
+            enviar(lote);
+        } while (lote.size() == tamanoLote);
+    }
+
+    private void enviar(List<OutboxEvento> lote) {
+        Map<String, OutboxEvento> eventosPorReferencia = new HashMap<>();
+        List<ConfirmacionReservaRequestDto> confirmaciones = new ArrayList<>(lote.size());
+        List<OutboxEvento> liberaciones = new ArrayList<>();
+        Map<Long, String> errores = new HashMap<>();
+        Map<Long, String> fallidos = new HashMap<>();
+
+        for (OutboxEvento evento : lote) {
+            switch (evento.getTipo()) {
+                case CONFIRMAR_SALIDA_INVENTARIO:
+                    try {
+                        ConfirmacionReservaRequestDto confirmacion = outboxService.leerConfirmacion(evento);
+                        eventosPorReferencia.put(confirmacion.getReferencia(), evento);
+                        confirmaciones.add(confirmacion);
+                    } catch (IllegalStateException e) {
+                        fallidos.put(evento.getId(), e.getMessage());
+                    }
+                    break;
+                case LIBERAR_RESERVA:
+                    liberaciones.add(evento);
+                    break;
+                default:
+                    fallidos.put(evento.getId(), "Tipo de evento no soportado: " + evento.getTipo());
+            }
+        }
+
+        if (!confirmaciones.isEmpty()) {
+            try {
+                List<ResultadoConfirmacionDto> resultados = inventarioClient.confirmarReservasLote(confirmaciones);
+                Map<String, ResultadoConfirmacionDto> resultadosPorReferencia = new HashMap<>();
+                for (ResultadoConfirmacionDto resultado : resultados) {
+                    resultadosPorReferencia.put(resultado.getReferencia(), resultado);
+                }
+
+                eventosPorReferencia.forEach((referencia, evento) -> {
+                    ResultadoConfirmacionDto resultado = resultadosPorReferencia.get(referencia);
+                    if (resultado == null) {
+                        errores.put(evento.getId(), "Inventario no devolvió resultado para " + referencia);
+                    } else if (!resultado.isConfirmada()) {
+                        (resultado.isReintentable() ? errores : fallidos).put(evento.getId(), resultado.getMensaje());
+                    }
+                });
+            } catch (Exception e) {
+                log.warn("No se pudo enviar un lote de {} eventos a inventario, se reintentará: {}",
+                        confirmaciones.size(), e.getMessage());
+                eventosPorReferencia.values().forEach(evento -> errores.put(evento.getId(), e.getMessage()));
+            }
+        }
+
+        if (!liberaciones.isEmpty()) {
+            try {
+                inventarioClient.liberarReservasLote(liberaciones.stream()
+                        .map(OutboxEvento::getClaveIdempotencia)
+                        .toList());
+            } catch (Exception e) {
+                log.warn("No se pudieron liberar {} reservas en inventario, se reintentará: {}",
+                        liberaciones.size(), e.getMessage());
+                liberaciones.forEach(evento -> errores.put(evento.getId(), e.getMessage()));
+            }
+        }
+
+        outboxService.registrarResultados(lote, errores, fallidos);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.msvc_ventas.application.service;
+
+import com.example.msvc_ventas.application.dto.ConfirmacionReservaRequestDto;
+import com.example.msvc_ventas.application.dto.SalidaInventarioLoteRequestDto;
+import com.example.msvc_ventas.domain.model.OutboxEvento;
+import com.example.msvc_ventas.domain.repository.OutboxEventoRepository;
+import com.example.msvc_ventas.domain.repository.VentaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outbox transaccional de ventas: los efectos sobre inventario se guardan en outbox_eventos en la
+ * misma transacción que la venta y los envía OutboxDispatcher en segundo plano, con reintentos.
+ * Las liberaciones de reservas que inventario no pudo recibir también se reintentan desde aquí.
+ */
+@Slf4j
+@Service
+public class OutboxService {
+
+    // Tope de espera entre reintentos
+    private static final long ESPERA_MAXIMA_MS = 5 * 60 * 1000L;
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final VentaRepository ventaRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long reintentoBaseMs;
+    private final int maxIntentos;
+    private final long leaseMs;
+
+    public OutboxService(OutboxEventoRepository outboxEventoRepository,
+                         VentaRepository ventaRepository,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.outbox.reintento-base-ms:2000}") long reintentoBaseMs,
+                         @Value("${app.outbox.max-intentos:10}") int maxIntentos,
+                         @Value("${app.outbox.lease-ms:60000}") long leaseMs) {
+        this.outboxEventoRepository = outboxEventoRepository;
+        this.ventaRepository = ventaRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.reintentoBaseMs = reintentoBaseMs;
+        this.maxIntentos = maxIntentos;
+        this.leaseMs = leaseMs;
+    }
+
+    /**
+     * Registra la confirmación de salida de inventario de una venta. Debe ejecutarse dentro de la
+     * transacción que completa la venta: si esta se revierte, el evento tampoco existe.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarConfirmacionSalida(String numeroFactura, String motivo,
+                                            List<SalidaInventarioLoteRequestDto.SalidaInventarioItemDto> items) {
+        ConfirmacionReservaRequestDto confirmacion = ConfirmacionReservaRequestDto.builder()
+                .referencia(numeroFactura)
+                .motivo(motivo)
+                .items(items)
+                .build();
+
+        LocalDateTime ahora = LocalDateTime.now();
+        outboxEventoRepository.save(OutboxEvento.builder()
+                .tipo(OutboxEvento.TipoEvento.CONFIRMAR_SALIDA_INVENTARIO)
+                .claveIdempotencia(numeroFactura)
+                .payload(serializar(confirmacion))
+                .estado(OutboxEvento.EstadoEvento.PENDIENTE)
+                .intentos(0)
+                .proximoIntento(ahora)
+                .fechaCreacion(ahora)
+                .build());
+    }
+
+    /**
+     * Registra la liberación de reservas que inventario no recibió. Usa su propia transacción porque
+     * se llama desde el fallback del cliente, a menudo mientras la transacción de la venta se revierte
+     * o ya terminó. Una referencia con una liberación ya registrada no se repite.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void registrarLiberacionReservas(List<String> referencias) {
+        Set<String> pendientes = new LinkedHashSet<>(referencias);
+        pendientes.removeAll(outboxEventoRepository.findClavesRegistradas(
+                OutboxEvento.TipoEvento.LIBERAR_RESERVA, pendientes));
+        if (pendientes.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        outboxEventoRepository.saveAll(pendientes.stream()
+                .map(referencia -> OutboxEvento.builder()
+                        .tipo(OutboxEvento.TipoEvento.LIBERAR_RESERVA)
+                        .claveIdempotencia(referencia)
+                        .payload(serializar(referencia))
+                        .estado(OutboxEvento.EstadoEvento.PENDIENTE)
+                        .intentos(0)
+                        .proximoIntento(ahora)
+                        .fechaCreacion(ahora)
+                        .build())
+                .toList());
+        log.info("Liberación de {} reservas registrada en el outbox", pendientes.size());
+    }
+
+    /**
+     * Toma un lote de eventos vencidos y los aparta durante el lease: si la instancia cae mientras
+     * los envía, vuelven a quedar disponibles al expirar el lease.
+     */
+    @Transactional
+    public List<OutboxEvento> reclamarLote(int limite) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<OutboxEvento> eventos = outboxEventoRepository.findPendientesParaActualizar(ahora, limite);
+        for (OutboxEvento evento : eventos) {
+            evento.setIntentos(evento.getIntentos() + 1);
+            evento.setProximoIntento(ahora.plusNanos(leaseMs * 1_000_000L));
+        }
+        return eventos.isEmpty() ? eventos : outboxEventoRepository.saveAll(eventos);
+    }
+
+    /**
+     * Aplica el resultado del envío de un lote: enviados, a reintentar con espera exponencial
+     * o fallidos definitivamente. Un fallido marca su venta para revisión en esta misma transacción.
+     */
+    @Transactional
+    public void registrarResultados(List<OutboxEvento> lote, Map<Long, String> errores, Map<Long, String> fallidos) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (OutboxEvento evento : lote) {
+            if (fallidos.containsKey(evento.getId())) {
+                marcarFallido(evento, fallidos.get(evento.getId()));
+            } else if (errores.containsKey(evento.getId())) {
+                evento.setUltimoError(recortar(errores.get(evento.getId())));
+                if (evento.getIntentos() >= maxIntentos) {
+                    marcarFallido(evento, errores.get(evento.getId()));
+                } else {
+                    evento.setProximoIntento(ahora.plusNanos(calcularEspera(evento.getIntentos()) * 1_000_000L));
+                }
+            } else {
+                evento.setEstado(OutboxEvento.EstadoEvento.ENVIADO);
+                evento.setUltimoError(null);
+                evento.setFechaEnvio(ahora);
+            }
+        }
+        outboxEventoRepository.saveAll(lote);
+    }
+
+    public ConfirmacionReservaRequestDto leerConfirmacion(OutboxEvento evento) {
+        try {
+            return objectMapper.readValue(evento.getPayload(), ConfirmacionReservaRequestDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload inválido en el evento " + evento.getId(), e);
+        }
+    }
+
+    /**
+     * Una confirmación fallida deja una venta COMPLETADA sin salida de inventario: la reserva volverá
+     * al disponible al vencer. Se marca la venta para revisión y se cuenta en ventas.outbox.fallidos
+     * para que una alerta sobre esa métrica avise del problema. Una liberación fallida solo deja
+     * la reserva retenida hasta su vencimiento.
+     */
+    private void marcarFallido(OutboxEvento evento, String error) {
+        evento.setEstado(OutboxEvento.EstadoEvento.FALLIDO);
+        evento.setUltimoError(recortar(error));
+        if (evento.getTipo() == OutboxEvento.TipoEvento.CONFIRMAR_SALIDA_INVENTARIO) {
+            ventaRepository.marcarSalidaInventarioFallida(evento.getClaveIdempotencia(), LocalDateTime.now());
+        }
+        Counter.builder("ventas.outbox.fallidos")
+                .description("Eventos de outbox descartados definitivamente; cada uno requiere revisión manual")
+                .tag("tipo", evento.getTipo().name())
+                .register(meterRegistry)
+                .increment();
+        log.error("Evento de outbox {} ({}) descartado tras {} intentos: {}",
+                evento.getId(), evento.getClaveIdempotencia(), evento.getIntentos(), error);
+    }
+
+    /**
+     * Tiempo máximo que puede tardar un evento en entregarse o descartarse: cada intento puede
+     * quedar tomado durante todo el lease y luego espera su backoff antes del siguiente.
+     */
+    public Duration plazoMaximoEntrega() {
+        long totalMs = 0;
+        for (int intento = 1; intento <= maxIntentos; intento++) {
+            totalMs += leaseMs + calcularEspera(intento);
+        }
+        return Duration.ofMillis(totalMs);
+    }
+
+    // 2s, 4s, 8s, ... hasta ESPERA_MAXIMA_MS
+    private long calcularEspera(int intentos) {
+        int exponente = Math.min(Math.max(intentos - 1, 0), 20);
+        return Math.min(reintentoBaseMs << exponente, ESPERA_MAXIMA_MS);
+    }
+
+    private String serializar(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento de outbox", e);
+        }
+    }
+
+    private String recortar(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
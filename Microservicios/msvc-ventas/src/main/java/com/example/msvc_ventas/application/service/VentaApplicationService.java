@@ -1,13 +1,20 @@
 package com.example.msvc_ventas.application.service;
 
 import com.example.msvc_ventas.application.client.InventarioClient;
-import com.example.msvc_ventas.application.client.ProductoClient;
+import com.example.msvc_ventas.application.client.InventarioClientAsync;
+import com.example.msvc_ventas.application.client.InventarioClientFallback;
+import com.example.msvc_ventas.application.client.ProductoClientFallback;
 import com.example.msvc_ventas.application.dto.InventarioInfoDto;
 import com.example.msvc_ventas.application.dto.ProductoDto;
+import com.example.msvc_ventas.application.dto.ReservaInventarioRequestDto;
+import com.example.msvc_ventas.application.dto.ResultadoReservaDto;
+import com.example.msvc_ventas.application.dto.ResultadoVentaLoteDto;
+import com.example.msvc_ventas.application.dto.SalidaInventarioLoteRequestDto;
 import com.example.msvc_ventas.application.dto.VentaItemRequestDto;
 import com.example.msvc_ventas.application.dto.VentaRequestDto;
 import com.example.msvc_ventas.application.dto.VentaResponseDto;
 import com.example.msvc_ventas.application.mapper.VentaMapper;
+import com.example.msvc_ventas.domain.model.CarritoValidado;
 import com.example.msvc_ventas.domain.model.Cliente;
 import com.example.msvc_ventas.domain.model.Venta;
 import com.example.msvc_ventas.domain.service.ClienteService;
@@ -16,10 +23,28 @@ import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.reactive.function.client.WebClientException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,22 +53,28 @@ public class VentaApplicationService {
 
     private final VentaService ventaService;
     private final ClienteService clienteService;
-    private final ProductoClient productoClient;
     private final InventarioClient inventarioClient;
+    private final CatalogoProductoCache catalogoProductoCache;
+    private final InventarioClientAsync inventarioClientAsync;
     private final VentaMapper ventaMapper;
+    private final long timeoutConsultasMs;
 
     @Autowired
     public VentaApplicationService(
             VentaService ventaService,
             ClienteService clienteService,
-            @Qualifier("com.example.msvc_ventas.application.client.ProductoClient") ProductoClient productoClient,
             @Qualifier("com.example.msvc_ventas.application.client.InventarioClient") InventarioClient inventarioClient,
-            VentaMapper ventaMapper) {
+            CatalogoProductoCache catalogoProductoCache,
+            InventarioClientAsync inventarioClientAsync,
+            VentaMapper ventaMapper,
+            @Value("${app.consultas-remotas.timeout-ms:5000}") long timeoutConsultasMs) {
         this.ventaService = ventaService;
         this.clienteService = clienteService;
-        this.productoClient = productoClient;
         this.inventarioClient = inventarioClient;
+        this.catalogoProductoCache = catalogoProductoCache;
+        this.inventarioClientAsync = inventarioClientAsync;
         this.ventaMapper = ventaMapper;
+        this.timeoutConsultasMs = timeoutConsultasMs;
     }
 
     @Transactional
@@ -54,31 +85,57 @@ public class VentaApplicationService {
         Cliente cliente = clienteService.obtenerClientePorId(requestDto.getClienteId());
         log.info("Cliente encontrado: {}", cliente.getNombre());
 
-        // 2. Obtener los productos
-        List<ProductoDto> productos = requestDto.getItems().stream()
+        // 2. Consultar productos (una sola llamada batch) e inventario en paralelo, con clientes asíncronos
+        List<Long> productoIds = requestDto.getItems().stream()
                 .map(VentaItemRequestDto::getProductoId)
                 .distinct()
-                .map(id -> {
-                    log.info("Consultando producto ID: {}", id);
-                    return productoClient.obtenerProducto(id);
-                })
                 .collect(Collectors.toList());
 
+        log.info("Consultando productos: {}", productoIds);
+        // Los productos en la caché local no requieren llamada a msvc-producto
+        CompletableFuture<List<ProductoDto>> productosFuturo = catalogoProductoCache.obtenerProductos(productoIds);
+
+        Map<Long, CompletableFuture<InventarioInfoDto>> inventariosFuturos = new LinkedHashMap<>();
+        productoIds.forEach(id -> inventariosFuturos.put(id, inventarioClientAsync.obtenerInventarioPorProductoId(id)));
+
+        esperarConsultas(productosFuturo, inventariosFuturos);
+
+        List<ProductoDto> productos = obtenerResultado(productosFuturo);
+
         log.info("Productos obtenidos: {}", productos.size());
 
-        // 3. Verificar disponibilidad de inventario para cada producto
+        // 3. Verificar disponibilidad de inventario para cada producto; lo consultado queda en el carrito
+        CarritoValidado.CarritoValidadoBuilder carrito = CarritoValidado.builder()
+                .cliente(cliente)
+                .validadoEn(LocalDateTime.now());
         for (VentaItemRequestDto item : requestDto.getItems()) {
             ProductoDto producto = productos.stream()
                     .filter(p -> p.getId().equals(item.getProductoId()))
                     .findFirst()
                     .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado: " + item.getProductoId()));
+            if (ProductoClientFallback.esRespaldo(producto)) {
+                throw new IllegalStateException("Servicio de productos no disponible, no se pudo obtener "
+                        + "el precio del producto: " + item.getProductoId());
+            }
 
             try {
                 // Obtener inventario directamente del microservicio de inventario
-                InventarioInfoDto inventario = inventarioClient.obtenerInventarioPorProductoId(item.getProductoId());
+                InventarioInfoDto inventario = obtenerResultado(inventariosFuturos.get(item.getProductoId()));
+
+                if (InventarioClientFallback.esRespaldo(inventario)) {
+                    // Inventario no respondió: sin stock observado, la reserva decide si alcanza
+                    log.warn("Stock del producto {} no verificado, inventario no disponible", producto.getNombre());
+                    carrito.precio(producto.getId(), producto.getPrecio());
+                    continue;
+                }
 
                 // Verificar si hay suficiente stock
-                int cantidadDisponible = (inventario != null) ? inventario.getCantidad() : 0;
+                // Lo reservado por otras ventas pendientes no cuenta como disponible
+                int cantidadDisponible = 0;
+                if (inventario != null) {
+                    cantidadDisponible = inventario.getCantidadDisponible() != null
+                            ? inventario.getCantidadDisponible() : inventario.getCantidad();
+                }
 
                 log.info("Verificando inventario para producto: {} (disponible: {}, solicitado: {})",
                         producto.getNombre(), cantidadDisponible, item.getCantidad());
@@ -89,12 +146,14 @@ public class VentaApplicationService {
                             producto.getNombre() + ". Disponible: " + cantidadDisponible +
                             ", Solicitado: " + item.getCantidad());
                 }
-            } catch (FeignException e) {
-                // Si es 404, significa que no existe inventario para este producto
-                if (e.status() == 404) {
-                    log.error("No existe inventario para el producto ID: {}", item.getProductoId());
-                    throw new IllegalStateException("No existe inventario para el producto: " + producto.getNombre());
-                }
+
+                carrito.precio(producto.getId(), producto.getPrecio())
+                        .stockDisponible(producto.getId(), cantidadDisponible);
+            } catch (NoSuchElementException e) {
+                // El cliente asíncrono traduce el 404 de inventario a NoSuchElementException
+                log.error("No existe inventario para el producto ID: {}", item.getProductoId());
+                throw new IllegalStateException("No existe inventario para el producto: " + producto.getNombre());
+            } catch (FeignException | WebClientException e) {
                 log.error("Error al verificar el inventario del producto ID: {}", item.getProductoId(), e);
                 throw new RuntimeException("Error al verificar el inventario del producto: " +
                         producto.getNombre(), e);
@@ -105,10 +164,262 @@ public class VentaApplicationService {
         Venta venta = ventaMapper.toEntity(requestDto, cliente, productos);
         log.info("Venta mapeada, procediendo a guardar");
 
-        Venta ventaCreada = ventaService.crearVenta(venta);
+        // El servicio de dominio usa el carrito validado y no repite las consultas remotas
+        Venta ventaCreada = ventaService.crearVenta(venta, carrito.build());
         log.info("Venta creada con ID: {}", ventaCreada.getId());
 
         // 5. Mapear de vuelta a DTO para la respuesta
         return ventaMapper.toDto(ventaCreada);
     }
+
+    /**
+     * Crea un lote de ventas (carga de un punto de venta). Clientes y productos se consultan una sola
+     * vez para todo el lote, el stock se reserva con una única llamada batch y las ventas válidas se
+     * insertan con JDBC batch. Una venta inválida solo marca su propio resultado como fallido.
+     * Las ventas creadas se confirman juntas; si la transacción se revierte, se libera su stock.
+     */
+    @Transactional
+    public List<ResultadoVentaLoteDto> crearVentasLote(List<VentaRequestDto> solicitudes) {
+        log.info("Procesando lote de {} ventas", solicitudes.size());
+        ResultadoVentaLoteDto[] resultados = new ResultadoVentaLoteDto[solicitudes.size()];
+
+        // 1. Clientes y productos de todo el lote, sin repetir
+        Set<Long> clienteIds = new LinkedHashSet<>();
+        Set<Long> productoIds = new LinkedHashSet<>();
+        for (VentaRequestDto solicitud : solicitudes) {
+            clienteIds.add(solicitud.getClienteId());
+            solicitud.getItems().forEach(item -> productoIds.add(item.getProductoId()));
+        }
+
+        Map<Long, Cliente> clientes = clienteService.obtenerClientesPorIds(clienteIds).stream()
+                .collect(Collectors.toMap(Cliente::getId, c -> c));
+        Map<Long, ProductoDto> productos;
+        try {
+            productos = obtenerResultado(catalogoProductoCache.obtenerProductos(productoIds)).stream()
+                    .collect(Collectors.toMap(ProductoDto::getId, p -> p, (a, b) -> a));
+        } catch (FeignException | WebClientException e) {
+            throw new RuntimeException("Error al obtener los productos del lote de ventas", e);
+        }
+        log.info("Lote: {} clientes y {} productos distintos", clientes.size(), productos.size());
+
+        // 2. Validar cada venta y calcular sus totales
+        Map<Integer, Venta> ventasPorIndice = new LinkedHashMap<>();
+        for (int i = 0; i < solicitudes.size(); i++) {
+            VentaRequestDto solicitud = solicitudes.get(i);
+            Cliente cliente = clientes.get(solicitud.getClienteId());
+            if (cliente == null) {
+                resultados[i] = fallida(i, "Cliente no encontrado con ID: " + solicitud.getClienteId());
+                continue;
+            }
+
+            List<ProductoDto> productosVenta = new ArrayList<>();
+            String productoInvalido = null;
+            for (VentaItemRequestDto item : solicitud.getItems()) {
+                ProductoDto producto = productos.get(item.getProductoId());
+                if (producto == null) {
+                    productoInvalido = "Producto no encontrado: " + item.getProductoId();
+                    break;
+                }
+                if (ProductoClientFallback.esRespaldo(producto)) {
+                    // Solo fallan las ventas con productos fuera de la caché mientras productos no responde
+                    productoInvalido = "Precio no disponible para el producto: " + item.getProductoId();
+                    break;
+                }
+                productosVenta.add(producto);
+            }
+            if (productoInvalido != null) {
+                resultados[i] = fallida(i, productoInvalido);
+                continue;
+            }
+
+            ventasPorIndice.put(i, ventaMapper.toEntity(solicitud, cliente, productosVenta));
+        }
+
+        // 3. Reservar el stock de todas las ventas válidas con una sola llamada
+        Map<String, ResultadoReservaDto> reservas = reservarLote(ventasPorIndice.values());
+        List<Venta> ventasReservadas = new ArrayList<>();
+        List<Integer> indicesReservados = new ArrayList<>();
+        ventasPorIndice.forEach((indice, venta) -> {
+            ResultadoReservaDto reserva = reservas.get(venta.getNumeroFactura());
+            if (reserva == null || !reserva.isReservada()) {
+                String motivo = reserva != null ? reserva.getMensaje() : "sin respuesta de inventario";
+                resultados[indice] = fallida(indice, "No se pudo reservar el inventario: " + motivo);
+            } else {
+                ventasReservadas.add(venta);
+                indicesReservados.add(indice);
+            }
+        });
+
+        // 4. Insertar las ventas reservadas por lotes. Si el lote falla (por ejemplo, una factura
+        // duplicada), se revierte al savepoint y se reintenta venta por venta para que solo falle
+        // la que tiene el problema
+        if (!ventasReservadas.isEmpty()) {
+            liberarSiSeRevierte(ventasReservadas);
+            List<Venta> insertadas = new ArrayList<>();
+            List<Integer> indicesInsertados = new ArrayList<>();
+            List<String> sinGuardar = new ArrayList<>();
+            try {
+                ventaService.insertarVentasLote(ventasReservadas);
+                insertadas.addAll(ventasReservadas);
+                indicesInsertados.addAll(indicesReservados);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo guardar el lote de {} ventas, se guardarán una por una: {}",
+                        ventasReservadas.size(), e.getMessage());
+                for (int j = 0; j < ventasReservadas.size(); j++) {
+                    int indice = indicesReservados.get(j);
+                    Venta venta = ventasReservadas.get(j);
+                    descartarIds(venta);
+                    try {
+                        ventaService.insertarVentasLote(List.of(venta));
+                        insertadas.add(venta);
+                        indicesInsertados.add(indice);
+                    } catch (RuntimeException ex) {
+                        log.error("No se pudo guardar la venta {} del lote", venta.getNumeroFactura(), ex);
+                        resultados[indice] = fallida(indice, "Error al guardar la venta: " + ex.getMessage());
+                        sinGuardar.add(venta.getNumeroFactura());
+                    }
+                }
+            }
+            // Devolver en una sola llamada el stock de las ventas que no se guardaron
+            liberarReservas(sinGuardar);
+
+            // Los detalles van en un único batch: un fallo aquí revierte todo el lote
+            if (!insertadas.isEmpty()) {
+                ventaService.guardarDetallesLote(insertadas);
+                for (int j = 0; j < insertadas.size(); j++) {
+                    resultados[indicesInsertados.get(j)] = creada(indicesInsertados.get(j), insertadas.get(j));
+                }
+            }
+        }
+
+        log.info("Lote procesado: {} de {} ventas creadas",
+                Arrays.stream(resultados).filter(ResultadoVentaLoteDto::isCreada).count(), solicitudes.size());
+        return Arrays.asList(resultados);
+    }
+
+    private Map<String, ResultadoReservaDto> reservarLote(Collection<Venta> ventas) {
+        if (ventas.isEmpty()) {
+            return Map.of();
+        }
+
+        List<ReservaInventarioRequestDto> solicitudes = ventas.stream()
+                .map(venta -> ReservaInventarioRequestDto.builder()
+                        .referencia(venta.getNumeroFactura())
+                        .items(venta.getDetalles().stream()
+                                .map(detalle -> SalidaInventarioLoteRequestDto.SalidaInventarioItemDto.builder()
+                                        .productoId(detalle.getProductoId())
+                                        .cantidad(detalle.getCantidad())
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .build())
+                .collect(Collectors.toList());
+
+        try {
+            return inventarioClient.reservarStockLote(solicitudes).stream()
+                    .collect(Collectors.toMap(ResultadoReservaDto::getReferencia, r -> r, (a, b) -> a));
+        } catch (RuntimeException e) {
+            log.error("No se pudo reservar el stock del lote de ventas: {}", e.getMessage());
+            // Tras un timeout de lectura inventario pudo haber reservado parte del lote: todas las
+            // ventas se marcan como fallidas, así que se liberan sus referencias sin esperar al vencimiento
+            liberarReservas(solicitudes.stream().map(ReservaInventarioRequestDto::getReferencia).toList());
+            return Map.of();
+        }
+    }
+
+    private void liberarReservas(List<String> numerosFactura) {
+        if (numerosFactura.isEmpty()) {
+            return;
+        }
+        try {
+            inventarioClient.liberarReservasLote(numerosFactura);
+        } catch (Exception e) {
+            // Con inventario caído el fallback las deja en el outbox; si ni eso se pudo, vencerán solas
+            log.warn("No se pudieron liberar las reservas de {} ventas: {}", numerosFactura.size(), e.getMessage());
+        }
+    }
+
+    // Si la transacción del lote se revierte, ninguna de sus ventas queda guardada
+    private void liberarSiSeRevierte(List<Venta> ventasReservadas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<String> numerosFactura = ventasReservadas.stream().map(Venta::getNumeroFactura).toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    liberarReservas(numerosFactura);
+                }
+            }
+        });
+    }
+
+    // Un intento de guardado revertido pudo dejar asignados los IDs generados en la venta y sus detalles
+    private void descartarIds(Venta venta) {
+        venta.setId(null);
+        venta.getDetalles().forEach(detalle -> {
+            detalle.setId(null);
+            detalle.setVentaId(null);
+        });
+    }
+
+    private ResultadoVentaLoteDto creada(int indice, Venta venta) {
+        return ResultadoVentaLoteDto.builder()
+                .indice(indice)
+                .creada(true)
+                .venta(ventaMapper.toDto(venta))
+                .build();
+    }
+
+    private ResultadoVentaLoteDto fallida(int indice, String error) {
+        return ResultadoVentaLoteDto.builder()
+                .indice(indice)
+                .creada(false)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Espera a que terminen todas las consultas remotas con un único plazo global.
+     * Si el plazo se agota se cancelan las consultas pendientes.
+     */
+    private void esperarConsultas(CompletableFuture<List<ProductoDto>> productosFuturo,
+                                  Map<Long, CompletableFuture<InventarioInfoDto>> inventariosFuturos) {
+        List<CompletableFuture<?>> futuros = new ArrayList<>(inventariosFuturos.values());
+        futuros.add(productosFuturo);
+
+        try {
+            CompletableFuture.allOf(futuros.toArray(new CompletableFuture[0]))
+                    .get(timeoutConsultasMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuros.forEach(f -> f.cancel(true));
+            log.error("Tiempo de espera agotado ({} ms) al consultar productos e inventario", timeoutConsultasMs);
+            throw new IllegalStateException("Tiempo de espera agotado al consultar productos e inventario");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futuros.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Consulta de productos e inventario interrumpida");
+        } catch (ExecutionException e) {
+            // Los errores individuales se revisan al obtener cada resultado
+        }
+    }
+
+    /**
+     * Obtiene el resultado de una consulta ya terminada, relanzando la excepción original
+     * para conservar el mismo tratamiento de errores que las llamadas secuenciales.
+     */
+    private <T> T obtenerResultado(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                // Plazo propio de la llamada, más corto que el plazo global
+                throw new IllegalStateException("Tiempo de espera agotado al consultar productos e inventario");
+            }
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
 }
\ No newline at end of file
@@ -1,11 +1,9 @@
 package com.example.msvc_ventas.application.service;
 
 import com.example.msvc_ventas.application.client.InventarioClient;
-import com.example.msvc_ventas.application.client.ProductoClient;
-import com.example.msvc_ventas.application.dto.InventarioInfoDto;
-import com.example.msvc_ventas.application.dto.ProductoDto;
+import com.example.msvc_ventas.application.dto.ReservaInventarioRequestDto;
 import com.example.msvc_ventas.application.dto.SalidaInventarioLoteRequestDto;
-import com.example.msvc_ventas.domain.model.Cliente;
+import com.example.msvc_ventas.domain.model.CarritoValidado;
 import com.example.msvc_ventas.domain.model.DetalleVenta;
 import com.example.msvc_ventas.domain.model.Venta;
 import com.example.msvc_ventas.domain.repository.DetalleVentaRepository;
@@ -14,16 +12,25 @@ import com.example.msvc_ventas.domain.service.ClienteService;
 import com.example.msvc_ventas.domain.service.VentaService;
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class VentaServiceImpl implements VentaService {
@@ -31,45 +38,17 @@ public class VentaServiceImpl implements VentaService {
     private final VentaRepository ventaRepository;
     private final DetalleVentaRepository detalleVentaRepository;
     private final ClienteService clienteService;
-    @Qualifier("com.example.msvc_ventas.application.client.ProductoClient")
-    private final ProductoClient productoClient;
     @Qualifier("com.example.msvc_ventas.application.client.InventarioClient")
     private final InventarioClient inventarioClient;
+    private final OutboxService outboxService;
+    private final VigenciaReservas vigenciaReservas;
 
     @Override
     @Transactional
-    public Venta crearVenta(Venta venta) {
-        // Verificar que el cliente existe
-        Cliente cliente = clienteService.obtenerClientePorId(venta.getCliente().getId());
-        venta.setCliente(cliente);
-
-        //  Validar que hay suficiente inventario para cada producto
-        for (DetalleVenta detalle : venta.getDetalles()) {
-            try {
-                // Obtener información del producto (para tener nombre, precio, etc.)
-                ProductoDto producto = productoClient.obtenerProducto(detalle.getProductoId());
-
-                // Obtener inventario directamente del microservicio de inventario
-                InventarioInfoDto inventario = inventarioClient.obtenerInventarioPorProductoId(detalle.getProductoId());
-
-                // Verificar si hay suficiente inventario
-                if (inventario == null || inventario.getCantidad() < detalle.getCantidad()) {
-                    int cantidadDisponible = (inventario != null) ? inventario.getCantidad() : 0;
-                    throw new IllegalStateException(
-                            "No hay suficiente inventario para el producto " + producto.getNombre() +
-                                    ". Disponible: " + cantidadDisponible + ", Solicitado: " + detalle.getCantidad()
-                    );
-                }
-            } catch (FeignException e) {
-                // Si es 404, significa que no existe inventario para este producto
-                if (e.status() == 404) {
-                    throw new IllegalStateException("No existe inventario para el producto con ID: " +
-                            detalle.getProductoId());
-                }
-                throw new RuntimeException("Error al verificar el inventario del producto con ID: " +
-                        detalle.getProductoId(), e);
-            }
-        }
+    public Venta crearVenta(Venta venta, CarritoValidado carrito) {
+        // Cliente, productos y stock ya se consultaron al armar el carrito: aquí no se repiten
+        verificarCarrito(venta, carrito);
+        venta.setCliente(carrito.getCliente());
 
         // Establecer fechas y estado inicial
         LocalDateTime ahora = LocalDateTime.now();
@@ -78,21 +57,63 @@ public class VentaServiceImpl implements VentaService {
         venta.setFechaActualizacion(ahora);
         venta.setEstado(Venta.EstadoVenta.PENDIENTE);
 
+        // Reservar el stock mientras la venta está pendiente
+        reservarInventario(venta);
+
         // Guardar la venta para obtener el ID
         Venta ventaGuardada = ventaRepository.save(venta);
 
-        // Procesar cada detalle de la venta
-        List<DetalleVenta> detallesActualizados = new ArrayList<>();
+        // Guardar todos los detalles de la venta en un único batch
         for (DetalleVenta detalle : venta.getDetalles()) {
             detalle.setVentaId(ventaGuardada.getId());
-            DetalleVenta detalleGuardado = detalleVentaRepository.save(detalle);
-            detallesActualizados.add(detalleGuardado);
         }
+        List<DetalleVenta> detallesActualizados = detalleVentaRepository.saveAll(venta.getDetalles());
 
         ventaGuardada.setDetalles(detallesActualizados);
         return ventaGuardada;
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NESTED)
+    public List<Venta> insertarVentasLote(List<Venta> ventas) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (Venta venta : ventas) {
+            venta.setFechaVenta(ahora);
+            venta.setFechaCreacion(ahora);
+            venta.setFechaActualizacion(ahora);
+            venta.setEstado(Venta.EstadoVenta.PENDIENTE);
+        }
+
+        // Un batch JDBC: un fallo aquí no pasa por Hibernate, así que revertir al savepoint basta
+        return ventaRepository.insertarLote(ventas);
+    }
+
+    @Override
+    @Transactional
+    public List<Venta> guardarDetallesLote(List<Venta> ventas) {
+        // Un único batch de Hibernate para los detalles de todas las ventas
+        List<DetalleVenta> detalles = new ArrayList<>();
+        for (Venta venta : ventas) {
+            for (DetalleVenta detalle : venta.getDetalles()) {
+                detalle.setVentaId(venta.getId());
+                detalles.add(detalle);
+            }
+        }
+        List<DetalleVenta> detallesGuardados = detalleVentaRepository.saveAll(detalles);
+
+        // saveAll devuelve copias con el ID asignado, en el mismo orden
+        int posicion = 0;
+        for (Venta venta : ventas) {
+            List<DetalleVenta> detallesVenta = new ArrayList<>(venta.getDetalles().size());
+            for (int i = 0; i < venta.getDetalles().size(); i++) {
+                detallesVenta.add(detallesGuardados.get(posicion++));
+            }
+            venta.setDetalles(detallesVenta);
+        }
+
+        return ventas;
+    }
+
     @Override
     @Transactional
     public Venta actualizarVenta(Long id, Venta venta) {
@@ -143,11 +164,8 @@ public class VentaServiceImpl implements VentaService {
 
         List<Venta> ventas = ventaRepository.findByClienteId(clienteId);
 
-        // Cargar los detalles de cada venta
-        for (Venta venta : ventas) {
-            List<DetalleVenta> detalles = detalleVentaRepository.findByVentaId(venta.getId());
-            venta.setDetalles(detalles);
-        }
+        // Cargar los detalles de todas las ventas en una sola consulta
+        cargarDetalles(ventas);
 
         return ventas;
     }
@@ -157,11 +175,19 @@ public class VentaServiceImpl implements VentaService {
     public List<Venta> listarVentas() {
         List<Venta> ventas = ventaRepository.findAll();
 
-        // Cargar los detalles de cada venta
-        for (Venta venta : ventas) {
-            List<DetalleVenta> detalles = detalleVentaRepository.findByVentaId(venta.getId());
-            venta.setDetalles(detalles);
-        }
+        // Cargar los detalles de todas las ventas en una sola consulta
+        cargarDetalles(ventas);
+
+        return ventas;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Venta> listarVentasPagina(Long despuesDeId, int limite) {
+        List<Venta> ventas = ventaRepository.findPagina(despuesDeId, limite);
+
+        // Cargar los detalles de todas las ventas de la página en una sola consulta
+        cargarDetalles(ventas);
 
         return ventas;
     }
@@ -176,38 +202,30 @@ public class VentaServiceImpl implements VentaService {
             throw new IllegalStateException("Solo se pueden completar ventas en estado PENDIENTE");
         }
 
+        // Con la reserva vencida en inventario, la salida ya no tiene stock apartado: se rechaza
+        LocalDateTime ahora = LocalDateTime.now();
+        if (venta.getFechaCreacion().isBefore(vigenciaReservas.limiteParaCompletar(ahora))) {
+            throw new IllegalStateException("La reserva de inventario de la venta venció; " +
+                    "la venta debe cancelarse y registrarse de nuevo");
+        }
+
         // Obtener los detalles directamente del repositorio para evitar el error
         List<DetalleVenta> detalles = detalleVentaRepository.findByVentaId(id);
         if (detalles == null || detalles.isEmpty()) {
             throw new IllegalStateException("La venta no tiene detalles asociados, no se puede completar");
         }
 
-        // Actualizar el inventario (restar stock)
-        try {
-            // Preparar los items para la salida de inventario usando los detalles obtenidos directamente
-            List<SalidaInventarioLoteRequestDto.SalidaInventarioItemDto> items = detalles.stream()
-                    .map(detalle -> {
-                        SalidaInventarioLoteRequestDto.SalidaInventarioItemDto item = new SalidaInventarioLoteRequestDto.SalidaInventarioItemDto();
-                        item.setProductoId(detalle.getProductoId());
-                        item.setCantidad(detalle.getCantidad());
-                        return item;
-                    })
-                    .collect(Collectors.toList());
-
-            // Crear el DTO para la salida de inventario
-            SalidaInventarioLoteRequestDto salidaDto = new SalidaInventarioLoteRequestDto();
-            salidaDto.setItems(items);
-            salidaDto.setMotivo("Venta #" + venta.getNumeroFactura());
-
-            // Llamar al microservicio de inventario
-            inventarioClient.procesarSalidaLote(salidaDto);
-        } catch (FeignException e) {
-            throw new RuntimeException("Error al actualizar el inventario: " + e.getMessage(), e);
-        }
+        // La reserva debe seguir apartada mientras el outbox reintenta la confirmación
+        extenderReserva(venta.getNumeroFactura());
+
+        // Registrar la salida de inventario en el outbox, en esta misma transacción. OutboxDispatcher
+        // la confirma en inventario en segundo plano; el número de factura evita descontar dos veces
+        outboxService.registrarConfirmacionSalida(
+                venta.getNumeroFactura(), "Venta #" + venta.getNumeroFactura(), toItemsInventario(detalles));
 
         // Actualizar el estado de la venta
         venta.setEstado(Venta.EstadoVenta.COMPLETADA);
-        venta.setFechaActualizacion(LocalDateTime.now());
+        venta.setFechaActualizacion(ahora);
 
         return ventaRepository.save(venta);
     }
@@ -226,6 +244,178 @@ public class VentaServiceImpl implements VentaService {
         venta.setEstado(Venta.EstadoVenta.CANCELADA);
         venta.setFechaActualizacion(LocalDateTime.now());
 
-        return ventaRepository.save(venta);
+        Venta ventaCancelada = ventaRepository.save(venta);
+
+        // Devolver el stock reservado una vez confirmada la cancelación
+        String numeroFactura = venta.getNumeroFactura();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    liberarReserva(numeroFactura);
+                }
+            });
+        } else {
+            liberarReserva(numeroFactura);
+        }
+
+        return ventaCancelada;
+    }
+
+    /**
+     * Las reservas de estas ventas ya vencieron en inventario (su barrido las devolvió al disponible),
+     * por lo que basta con cambiar el estado, sin llamar a inventario.
+     */
+    @Override
+    @Transactional
+    public int cancelarPendientesVencidas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        return ventaRepository.cancelarPendientesCreadasAntesDe(vigenciaReservas.limiteParaCancelar(ahora), ahora);
+    }
+
+    /**
+     * Comprueba que el carrito corresponde a la venta: mismo cliente, precios validados para cada
+     * producto y stock observado suficiente para la cantidad total pedida de cada uno. Un producto
+     * sin stock observado (inventario no respondió) queda a cargo de la reserva.
+     */
+    private void verificarCarrito(Venta venta, CarritoValidado carrito) {
+        if (carrito == null || carrito.getCliente() == null) {
+            throw new IllegalArgumentException("La venta no tiene un carrito validado");
+        }
+        if (venta.getCliente() != null && venta.getCliente().getId() != null
+                && !venta.getCliente().getId().equals(carrito.getCliente().getId())) {
+            throw new IllegalArgumentException("El carrito validado corresponde a otro cliente");
+        }
+
+        Map<Long, Integer> cantidadesPorProducto = new HashMap<>();
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            if (!carrito.getPrecios().containsKey(detalle.getProductoId())) {
+                throw new IllegalArgumentException("Producto no encontrado: " + detalle.getProductoId());
+            }
+            BigDecimal precio = carrito.getPrecios().get(detalle.getProductoId());
+            boolean mismoPrecio = (precio == null || detalle.getPrecioUnitario() == null)
+                    ? precio == detalle.getPrecioUnitario()
+                    : precio.compareTo(detalle.getPrecioUnitario()) == 0;
+            if (!mismoPrecio) {
+                throw new IllegalArgumentException("El precio del producto " + detalle.getProductoId() +
+                        " no coincide con el validado");
+            }
+            cantidadesPorProducto.merge(detalle.getProductoId(), detalle.getCantidad(), Integer::sum);
+        }
+
+        cantidadesPorProducto.forEach((productoId, cantidad) -> {
+            Integer disponible = carrito.getStockDisponible().get(productoId);
+            if (disponible != null && disponible < cantidad) {
+                throw new IllegalStateException("No hay suficiente inventario para el producto con ID " +
+                        productoId + ". Disponible: " + disponible + ", Solicitado: " + cantidad);
+            }
+        });
+    }
+
+    /**
+     * Reserva en inventario el stock de todos los detalles, usando el número de factura como referencia.
+     * Si la transacción de la venta se revierte, la reserva se libera sin esperar a su vencimiento.
+     */
+    private void reservarInventario(Venta venta) {
+        String numeroFactura = venta.getNumeroFactura();
+        ReservaInventarioRequestDto reservaDto = ReservaInventarioRequestDto.builder()
+                .referencia(numeroFactura)
+                .items(toItemsInventario(venta.getDetalles()))
+                .build();
+
+        try {
+            inventarioClient.reservarStock(reservaDto);
+        } catch (FeignException e) {
+            // 400: stock insuficiente (otra venta reservó antes), 404: producto sin inventario
+            if (e.status() == 400 || e.status() == 404) {
+                throw new IllegalStateException("No se pudo reservar el inventario de la venta: " +
+                        "stock insuficiente o inexistente para alguno de los productos");
+            }
+            throw new RuntimeException("Error al reservar el inventario de la venta", e);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        liberarReserva(numeroFactura);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Amplía la reserva en inventario por todo el plazo de reintentos del outbox. Si la venta no
+     * llega a confirmarse, la reserva ampliada solo vence más tarde; si inventario ya la expiró o
+     * liberó, responde 400 y la venta no se completa.
+     */
+    private void extenderReserva(String numeroFactura) {
+        long segundos = outboxService.plazoMaximoEntrega().plus(vigenciaReservas.margenConfirmacion()).toSeconds();
+        try {
+            inventarioClient.extenderReserva(numeroFactura, segundos);
+        } catch (FeignException e) {
+            if (e.status() == 400 || e.status() == 404) {
+                throw new IllegalStateException("La reserva de inventario de la venta venció; " +
+                        "la venta debe cancelarse y registrarse de nuevo");
+            }
+            throw new RuntimeException("Error al asegurar la reserva de inventario de la venta", e);
+        }
+    }
+
+    // La liberación no debe hacer fallar la operación: si inventario no responde, el fallback la deja en el outbox
+    private void liberarReserva(String numeroFactura) {
+        try {
+            inventarioClient.liberarReserva(numeroFactura);
+        } catch (Exception e) {
+            log.warn("No se pudo liberar la reserva de la venta {}: {}", numeroFactura, e.getMessage());
+        }
+    }
+
+    private List<SalidaInventarioLoteRequestDto.SalidaInventarioItemDto> toItemsInventario(List<DetalleVenta> detalles) {
+        return detalles.stream()
+                .map(detalle -> {
+                    SalidaInventarioLoteRequestDto.SalidaInventarioItemDto item = new SalidaInventarioLoteRequestDto.SalidaInventarioItemDto();
+                    item.setProductoId(detalle.getProductoId());
+                    item.setCantidad(detalle.getCantidad());
+                    return item;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Asigna los detalles a cada venta con una única consulta venta_id IN (...)
+     * y los agrupa en memoria por ID de venta. Los IDs se ordenan en un long[] y cada detalle
+     * busca su venta con búsqueda binaria, sin un Long por entrada como en un HashMap.
+     */
+    private void cargarDetalles(List<Venta> ventas) {
+        if (ventas.isEmpty()) {
+            return;
+        }
+
+        long[] ventaIds = new long[ventas.size()];
+        for (int i = 0; i < ventaIds.length; i++) {
+            ventaIds[i] = ventas.get(i).getId();
+        }
+        Arrays.sort(ventaIds);
+
+        List<List<DetalleVenta>> detallesPorVenta = new ArrayList<>(ventaIds.length);
+        List<Long> idsConsulta = new ArrayList<>(ventaIds.length);
+        for (long ventaId : ventaIds) {
+            detallesPorVenta.add(new ArrayList<>());
+            idsConsulta.add(ventaId);
+        }
+
+        for (DetalleVenta detalle : detalleVentaRepository.findByVentaIdIn(idsConsulta)) {
+            int posicion = Arrays.binarySearch(ventaIds, detalle.getVentaId());
+            if (posicion >= 0) {
+                detallesPorVenta.get(posicion).add(detalle);
+            }
+        }
+
+        for (Venta venta : ventas) {
+            venta.setDetalles(detallesPorVenta.get(Arrays.binarySearch(ventaIds, venta.getId())));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.msvc_ventas.application.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Vigencia de la reserva de inventario de una venta pendiente, vista desde ventas.
+ * Debe coincidir con app.reservas.ttl-minutos de msvc-inventario: pasado ese plazo la reserva
+ * ya volvió al stock disponible y la venta no puede completarse sobre ella.
+ */
+@Component
+public class VigenciaReservas {
+
+    private final Duration duracionReserva;
+    private final Duration margenConfirmacion;
+
+    public VigenciaReservas(@Value("${app.reservas.ttl-minutos:30}") long ttlMinutos,
+                            @Value("${app.reservas.margen-confirmacion-segundos:60}") long margenSegundos) {
+        this.duracionReserva = Duration.ofMinutes(ttlMinutos);
+        this.margenConfirmacion = Duration.ofSeconds(margenSegundos);
+    }
+
+    /**
+     * Una venta creada antes de este instante ya no puede completarse. El margen la separa del
+     * barrido que cancela las pendientes vencidas y cubre la diferencia de reloj con inventario;
+     * los reintentos del outbox no dependen de él porque completarVenta amplía la reserva.
+     */
+    public LocalDateTime limiteParaCompletar(LocalDateTime ahora) {
+        return ahora.minus(duracionReserva).plus(margenConfirmacion);
+    }
+
+    public Duration margenConfirmacion() {
+        return margenConfirmacion;
+    }
+
+    // Una venta pendiente creada antes de este instante tiene su reserva vencida y se cancela
+    public LocalDateTime limiteParaCancelar(LocalDateTime ahora) {
+        return ahora.minus(duracionReserva);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.msvc_ventas.domain.model;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Resultado de validar una venta antes de guardarla: el cliente, el precio de cada producto y el
+ * stock disponible observado. Lo arma la capa de aplicación tras sus consultas remotas y el
+ * servicio de dominio lo usa en lugar de repetirlas. La reserva de stock sigue siendo la
+ * verificación definitiva y la única para los productos sin stock observado.
+ */
+@Value
+@Builder
+public class CarritoValidado {
+    Cliente cliente;
+    @Singular("precio")
+    Map<Long, BigDecimal> precios;
+    @Singular("stockDisponible")
+    Map<Long, Integer> stockDisponible;
+    LocalDateTime validadoEn;
+}
@@ -0,0 +1,29 @@
+package com.example.msvc_ventas.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de una solicitud recibida con cabecera Idempotency-Key y de la respuesta que produjo.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClaveIdempotencia {
+    private String clave;
+    private String operacion;
+    private String hashSolicitud;
+    private EstadoClave estado;
+    private String respuesta;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime expiraEn;
+
+    public enum EstadoClave {
+        EN_PROCESO, COMPLETADA
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.msvc_ventas.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Efecto pendiente sobre otro microservicio, registrado en la misma transacción que lo origina.
+ * La clave de idempotencia identifica la operación en el destino (por ejemplo, el número de factura).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvento {
+    private Long id;
+    private TipoEvento tipo;
+    private String claveIdempotencia;
+    private String payload;
+    private EstadoEvento estado;
+    private Integer intentos;
+    private LocalDateTime proximoIntento;
+    private String ultimoError;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaEnvio;
+
+    public enum TipoEvento {
+        CONFIRMAR_SALIDA_INVENTARIO, LIBERAR_RESERVA
+    }
+
+    public enum EstadoEvento {
+        PENDIENTE, ENVIADO, FALLIDO
+    }
+}
@@ -25,6 +25,8 @@ public class Venta {
     private LocalDateTime fechaVenta;
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaActualizacion;
+    // La salida de inventario de una venta completada falló de forma definitiva: requiere revisión
+    private Boolean salidaInventarioFallida;
     private List<DetalleVenta> detalles = new ArrayList<>();
 
     public enum EstadoVenta {
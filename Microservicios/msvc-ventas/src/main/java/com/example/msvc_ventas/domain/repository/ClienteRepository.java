@@ -2,6 +2,7 @@ package com.example.msvc_ventas.domain.repository;
 
 import com.example.msvc_ventas.domain.model.Cliente;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,5 +11,6 @@ public interface ClienteRepository {
     Optional<Cliente> findById(Long id);
     Optional<Cliente> findByEmail(String email);
     List<Cliente> findAll();
+    List<Cliente> findAllByIds(Collection<Long> ids);
     void deleteById(Long id);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.msvc_ventas.domain.repository;
 
 import com.example.msvc_ventas.domain.model.DetalleVenta;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +11,5 @@ public interface DetalleVentaRepository {
     List<DetalleVenta> saveAll(List<DetalleVenta> detalles);
     Optional<DetalleVenta> findById(Long id);
     List<DetalleVenta> findByVentaId(Long ventaId);
+    List<DetalleVenta> findByVentaIdIn(Collection<Long> ventaIds);
 }
\ No newline at end of file
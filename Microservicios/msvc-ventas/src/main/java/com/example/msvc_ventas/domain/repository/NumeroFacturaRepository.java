@@ -0,0 +1,12 @@
+package com.example.msvc_ventas.domain.repository;
+
+public interface NumeroFacturaRepository {
+
+    /**
+     * Reserva en la base de datos un bloque de números de factura consecutivos
+     * y devuelve el primero; el bloque abarca {@link #tamanoBloque()} números.
+     */
+    long reservarBloque();
+
+    int tamanoBloque();
+}
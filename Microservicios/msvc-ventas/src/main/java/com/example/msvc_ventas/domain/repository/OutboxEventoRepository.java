@@ -0,0 +1,14 @@
+package com.example.msvc_ventas.domain.repository;
+
+import com.example.msvc_ventas.domain.model.OutboxEvento;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventoRepository {
+    OutboxEvento save(OutboxEvento evento);
+    List<OutboxEvento> saveAll(List<OutboxEvento> eventos);
+    List<OutboxEvento> findPendientesParaActualizar(LocalDateTime ahora, int limite);
+    List<String> findClavesRegistradas(OutboxEvento.TipoEvento tipo, Collection<String> claves);
+}
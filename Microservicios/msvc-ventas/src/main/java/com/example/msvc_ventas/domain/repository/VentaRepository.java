@@ -2,13 +2,20 @@ package com.example.msvc_ventas.domain.repository;
 
 import com.example.msvc_ventas.domain.model.Venta;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface VentaRepository {
     Venta save(Venta venta);
+    // Inserción por lotes (JDBC batch); asigna el ID generado a cada venta
+    List<Venta> insertarLote(List<Venta> ventas);
     Optional<Venta> findById(Long id);
     Optional<Venta> findByNumeroFactura(String numeroFactura);
     List<Venta> findByClienteId(Long clienteId);
     List<Venta> findAll();
+    List<Venta> findPagina(Long despuesDeId, int limite);
+    // Pasa a CANCELADA, con un único UPDATE condicional, las ventas PENDIENTE creadas antes del límite
+    int cancelarPendientesCreadasAntesDe(LocalDateTime limite, LocalDateTime ahora);
+    int marcarSalidaInventarioFallida(String numeroFactura, LocalDateTime ahora);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.msvc_ventas.domain.service;
 
 import com.example.msvc_ventas.domain.model.Cliente;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ClienteService {
@@ -10,5 +11,6 @@ public interface ClienteService {
     Cliente obtenerClientePorId(Long id);
     Cliente obtenerClientePorEmail(String email);
     List<Cliente> listarClientes();
+    List<Cliente> obtenerClientesPorIds(Collection<Long> ids);
     void eliminarCliente(Long id);
 }
\ No newline at end of file
@@ -1,16 +1,26 @@
 package com.example.msvc_ventas.domain.service;
 
+import com.example.msvc_ventas.domain.model.CarritoValidado;
 import com.example.msvc_ventas.domain.model.Venta;
 
 import java.util.List;
 
 public interface VentaService {
-    Venta crearVenta(Venta venta);
+    // Crea la venta a partir de un carrito ya validado, sin volver a consultar productos ni inventario
+    Venta crearVenta(Venta venta, CarritoValidado carrito);
+    // Inserta ventas ya validadas y con stock reservado, sin sus detalles. Dentro de una transacción
+    // usa un savepoint: si falla, solo se revierte este intento
+    List<Venta> insertarVentasLote(List<Venta> ventas);
+    // Guarda los detalles de ventas ya insertadas
+    List<Venta> guardarDetallesLote(List<Venta> ventas);
     Venta actualizarVenta(Long id, Venta venta);
     Venta obtenerVentaPorId(Long id);
     Venta obtenerVentaPorNumeroFactura(String numeroFactura);
     List<Venta> listarVentasPorCliente(Long clienteId);
     List<Venta> listarVentas();
+    List<Venta> listarVentasPagina(Long despuesDeId, int limite);
     Venta completarVenta(Long id);
     Venta cancelarVenta(Long id);
+    // Cancela las ventas pendientes cuya reserva de inventario ya venció; devuelve cuántas canceló
+    int cancelarPendientesVencidas();
 }
\ No newline at end of file
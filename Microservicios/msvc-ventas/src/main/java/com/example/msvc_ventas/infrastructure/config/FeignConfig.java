@@ -1,6 +1,11 @@
 package com.example.msvc_ventas.infrastructure.config;
 
 import feign.codec.ErrorDecoder;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,4 +19,18 @@ public class FeignConfig {
             return feign.FeignException.errorStatus(methodKey, response);
         };
     }
+
+    /**
+     * Publica el estado del pool de conexiones de Feign (Apache HttpClient 5) como métricas
+     * httpcomponents.httpclient.pool.*: conexiones ocupadas y libres, máximo configurado y
+     * solicitudes esperando una conexión. Con el cliente HTTP/2 no hay pool y no se registra nada.
+     */
+    @Bean
+    public MeterBinder feignPoolConexionesMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> {
+            if (connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        };
+    }
 }
\ No newline at end of file
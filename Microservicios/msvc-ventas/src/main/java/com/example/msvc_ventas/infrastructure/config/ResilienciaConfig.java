@@ -0,0 +1,42 @@
+package com.example.msvc_ventas.infrastructure.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cloud.openfeign.CircuitBreakerNameResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResilienciaConfig {
+
+    /**
+     * Un circuit breaker, bulkhead y time limiter por cliente Feign (por servicio remoto) en lugar
+     * de uno por método, de modo que una caída del servicio abre el circuito para todas sus llamadas.
+     */
+    @Bean
+    public CircuitBreakerNameResolver circuitBreakerNameResolver() {
+        return (feignClientName, target, method) -> feignClientName;
+    }
+
+    // La autoconfiguración de resilience4j ya publica las métricas de circuit breaker, bulkhead y
+    // time limiter; aquí solo se cuentan las llamadas rechazadas por bulkhead lleno
+    @Bean
+    public MeterBinder rechazosBulkheadMetrics(BulkheadRegistry bulkheadRegistry) {
+        return registry -> {
+            // Los bulkheads se crean en la primera llamada de cada cliente
+            bulkheadRegistry.getAllBulkheads().forEach(bulkhead -> contarRechazos(bulkhead, registry));
+            bulkheadRegistry.getEventPublisher().onEntryAdded(evento -> contarRechazos(evento.getAddedEntry(), registry));
+        };
+    }
+
+    private void contarRechazos(Bulkhead bulkhead, MeterRegistry registry) {
+        Counter rechazos = Counter.builder("resilience4j.bulkhead.rechazadas")
+                .description("Llamadas rechazadas por bulkhead lleno")
+                .tag("name", bulkhead.getName())
+                .register(registry);
+        bulkhead.getEventPublisher().onCallRejected(evento -> rechazos.increment());
+    }
+}
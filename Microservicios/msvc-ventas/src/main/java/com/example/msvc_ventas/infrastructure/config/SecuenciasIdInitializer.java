@@ -0,0 +1,48 @@
+package com.example.msvc_ventas.infrastructure.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alinea las secuencias de IDs con los datos existentes. Las tablas que antes usaban IDENTITY
+ * ya tienen filas, y la secuencia nueva empezaría en 1: se adelanta por encima del máximo actual
+ * para que los bloques asignados por Hibernate (pooled) no choquen con IDs ya usados.
+ */
+@Slf4j
+@Component
+public class SecuenciasIdInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory se inyecta para que el esquema (y las secuencias) ya exista al ejecutarse
+    public SecuenciasIdInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void ajustarSecuencias() {
+        ajustar("detalles_venta", "detalles_venta_seq");
+    }
+
+    private void ajustar(String tabla, String secuencia) {
+        try {
+            // El tamaño de bloque es el increment_by que Hibernate creó a partir del allocationSize
+            Long incremento = jdbcTemplate.queryForObject(
+                    "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                    Long.class, secuencia);
+            Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabla, Long.class);
+            Long ultimo = jdbcTemplate.queryForObject("SELECT last_value FROM " + secuencia, Long.class);
+            if (incremento != null && maximo != null && ultimo != null && ultimo < maximo + incremento) {
+                // GREATEST sobre el valor actual: otra instancia que arranque a la vez no la hace retroceder
+                jdbcTemplate.queryForObject("SELECT setval(?::regclass, GREATEST(last_value, ?)) FROM " + secuencia,
+                        Long.class, secuencia, maximo + incremento);
+                log.info("Secuencia {} ajustada por encima del ID máximo de {} ({})", secuencia, tabla, maximo);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo ajustar la secuencia {}: {}", secuencia, e.getMessage());
+        }
+    }
+}
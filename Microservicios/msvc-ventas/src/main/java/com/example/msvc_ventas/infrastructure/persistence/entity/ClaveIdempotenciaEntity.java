@@ -0,0 +1,50 @@
+package com.example.msvc_ventas.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "claves_idempotencia",
+        indexes = @Index(name = "idx_claves_idempotencia_expira", columnList = "expira_en"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClaveIdempotenciaEntity {
+
+    @Id
+    @Column(length = 100)
+    private String clave;
+
+    @Column(nullable = false, length = 50)
+    private String operacion;
+
+    @Column(name = "hash_solicitud", nullable = false, length = 64)
+    private String hashSolicitud;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private EstadoClave estado;
+
+    @Column(columnDefinition = "TEXT")
+    private String respuesta;
+
+    // Identifica la ejecución dueña de la clave: solo ella puede completarla o eliminarla
+    @Column(name = "token_proceso", length = 36)
+    private String tokenProceso;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    public enum EstadoClave {
+        EN_PROCESO, COMPLETADA
+    }
+}
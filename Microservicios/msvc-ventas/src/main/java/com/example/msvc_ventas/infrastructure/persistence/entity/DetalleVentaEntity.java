@@ -16,8 +16,10 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 public class DetalleVentaEntity {
 
+    // Secuencia con asignación por bloques (pooled): permite a Hibernate agrupar los INSERT en batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalles_venta_seq")
+    @SequenceGenerator(name = "detalles_venta_seq", sequenceName = "detalles_venta_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "venta_id", nullable = false)
@@ -0,0 +1,61 @@
+package com.example.msvc_ventas.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_eventos",
+        uniqueConstraints = @UniqueConstraint(name = "uk_outbox_tipo_clave", columnNames = {"tipo", "clave_idempotencia"}),
+        indexes = @Index(name = "idx_outbox_estado_proximo", columnList = "estado, proximo_intento"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEventoEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    @Enumerated(EnumType.STRING)
+    private TipoEvento tipo;
+
+    @Column(name = "clave_idempotencia", nullable = false, length = 100)
+    private String claveIdempotencia;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private EstadoEvento estado;
+
+    @Column(nullable = false)
+    private Integer intentos;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_envio")
+    private LocalDateTime fechaEnvio;
+
+    public enum TipoEvento {
+        CONFIRMAR_SALIDA_INVENTARIO, LIBERAR_RESERVA
+    }
+
+    public enum EstadoEvento {
+        PENDIENTE, ENVIADO, FALLIDO
+    }
+}
@@ -10,7 +10,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ventas")
+@Table(name = "ventas", indexes = {
+        // Barrido de ventas pendientes con la reserva vencida
+        @Index(name = "idx_ventas_estado_fecha_creacion", columnList = "estado, fecha_creacion")
+})
 @Data
 @Builder
 @AllArgsConstructor
@@ -50,6 +53,9 @@ public class VentaEntity {
     @Column(name = "fecha_actualizacion", nullable = false)
     private LocalDateTime fechaActualizacion;
 
+    @Column(name = "salida_inventario_fallida")
+    private Boolean salidaInventarioFallida;
+
     public enum EstadoVenta {
         PENDIENTE,
         COMPLETADA,
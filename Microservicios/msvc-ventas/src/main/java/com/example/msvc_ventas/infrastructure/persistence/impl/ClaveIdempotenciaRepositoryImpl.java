@@ -0,0 +1,66 @@
+package com.example.msvc_ventas.infrastructure.persistence.impl;
+
+import com.example.msvc_ventas.domain.model.ClaveIdempotencia;
+import com.example.msvc_ventas.domain.repository.ClaveIdempotenciaRepository;
+import com.example.msvc_ventas.infrastructure.persistence.entity.ClaveIdempotenciaEntity;
+import com.example.msvc_ventas.infrastructure.persistence.mapper.ClaveIdempotenciaEntityMapper;
+import com.example.msvc_ventas.infrastructure.persistence.repository.ClaveIdempotenciaJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * El registro, la retoma y la eliminación confirman en su propia transacción: la clave debe ser
+ * visible para otras solicitudes antes de ejecutar el flujo que protege. completar, en cambio, se
+ * une a la transacción del flujo para que la clave y sus efectos se confirmen o reviertan juntos.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClaveIdempotenciaRepositoryImpl implements ClaveIdempotenciaRepository {
+
+    private final ClaveIdempotenciaJpaRepository jpaRepository;
+    private final ClaveIdempotenciaEntityMapper mapper;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean registrar(String clave, String operacion, String hashSolicitud, String token, LocalDateTime expiraEn) {
+        return jpaRepository.insertarSiNoExiste(clave, operacion, hashSolicitud, token, LocalDateTime.now(), expiraEn) == 1;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ClaveIdempotencia> findByClave(String clave) {
+        return jpaRepository.findById(clave).map(mapper::toDomain);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean retomarVencida(String clave, String token, LocalDateTime limite, LocalDateTime ahora,
+                                  LocalDateTime expiraEn) {
+        return jpaRepository.retomarVencida(clave, token, ClaveIdempotenciaEntity.EstadoClave.EN_PROCESO,
+                limite, ahora, expiraEn) == 1;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean completar(String clave, String token, String respuesta) {
+        return jpaRepository.completar(clave, token, respuesta, ClaveIdempotenciaEntity.EstadoClave.EN_PROCESO,
+                ClaveIdempotenciaEntity.EstadoClave.COMPLETADA) == 1;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void eliminar(String clave, String token) {
+        jpaRepository.eliminarEnProceso(clave, token, ClaveIdempotenciaEntity.EstadoClave.EN_PROCESO);
+    }
+
+    @Override
+    @Transactional
+    public int eliminarVencidas(LocalDateTime ahora) {
+        return jpaRepository.eliminarVencidas(ahora);
+    }
+}
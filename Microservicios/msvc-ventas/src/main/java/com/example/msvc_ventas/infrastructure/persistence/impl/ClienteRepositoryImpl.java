@@ -5,10 +5,14 @@ import com.example.msvc_ventas.domain.repository.ClienteRepository;
 import com.example.msvc_ventas.infrastructure.persistence.entity.ClienteEntity;
 import com.example.msvc_ventas.infrastructure.persistence.mapper.ClienteEntityMapper;
 import com.example.msvc_ventas.infrastructure.persistence.repository.ClienteJpaRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -18,6 +22,7 @@ public class ClienteRepositoryImpl implements ClienteRepository {
 
     private final ClienteJpaRepository jpaRepository;
     private final ClienteEntityMapper mapper;
+    private final EntityManager entityManager;
 
     @Override
     public Cliente save(Cliente cliente) {
@@ -38,6 +43,17 @@ public class ClienteRepositoryImpl implements ClienteRepository {
                 .map(mapper::toDomain);
     }
 
+    @Override
+    public List<Cliente> findAllByIds(Collection<Long> ids) {
+        // multiLoad resuelve primero desde la caché de segundo nivel y solo consulta los ids que faltan
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(ClienteEntity.class)
+                .multiLoad(List.copyOf(ids)).stream()
+                .filter(Objects::nonNull)
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<Cliente> findAll() {
         return jpaRepository.findAll().stream()
@@ -8,6 +8,8 @@ import com.example.msvc_ventas.infrastructure.persistence.repository.DetalleVent
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,6 +21,9 @@ public class DetalleVentaRepositoryImpl implements DetalleVentaRepository {
     private final DetalleVentaJpaRepository jpaRepository;
     private final DetalleVentaEntityMapper mapper;
 
+    // Tamaño máximo de cada lista IN para no superar el límite de parámetros del driver
+    private static final int TAMANO_MAXIMO_IN = 1000;
+
     @Override
     public DetalleVenta save(DetalleVenta detalleVenta) {
         DetalleVentaEntity entity = mapper.toEntity(detalleVenta);
@@ -51,4 +56,15 @@ public class DetalleVentaRepositoryImpl implements DetalleVentaRepository {
                 .map(mapper::toDomain)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public List<DetalleVenta> findByVentaIdIn(Collection<Long> ventaIds) {
+        List<Long> ids = new ArrayList<>(ventaIds);
+        List<DetalleVenta> detalles = new ArrayList<>();
+        for (int desde = 0; desde < ids.size(); desde += TAMANO_MAXIMO_IN) {
+            List<Long> lote = ids.subList(desde, Math.min(desde + TAMANO_MAXIMO_IN, ids.size()));
+            jpaRepository.findByVentaIdIn(lote).forEach(entity -> detalles.add(mapper.toDomain(entity)));
+        }
+        return detalles;
+    }
 }
\ No newline at end of file
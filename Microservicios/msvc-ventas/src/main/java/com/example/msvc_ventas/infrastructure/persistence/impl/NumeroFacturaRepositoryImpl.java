@@ -0,0 +1,58 @@
+package com.example.msvc_ventas.infrastructure.persistence.impl;
+
+import com.example.msvc_ventas.domain.repository.NumeroFacturaRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reserva bloques de números de factura desde la secuencia factura_seq. Cada nextval
+ * avanza tantas posiciones como el INCREMENT BY de la secuencia, por lo que varias
+ * instancias de ventas nunca reciben el mismo bloque.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NumeroFacturaRepositoryImpl implements NumeroFacturaRepository {
+
+    // Solo se usa al crear la secuencia; si ya existe, manda su INCREMENT BY
+    private static final int TAMANO_BLOQUE_INICIAL = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private int tamanoBloque;
+
+    @PostConstruct
+    public void crearSecuencia() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS factura_seq START WITH 1 INCREMENT BY "
+                + TAMANO_BLOQUE_INICIAL);
+
+        // Un bloque más grande que el incremento repetiría números entre instancias: se lee el real
+        Long incremento = jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                Long.class, "factura_seq");
+        if (incremento == null || incremento < 1) {
+            throw new IllegalStateException("No se pudo leer el incremento de la secuencia factura_seq");
+        }
+        tamanoBloque = Math.toIntExact(incremento);
+        if (tamanoBloque != TAMANO_BLOQUE_INICIAL) {
+            log.info("factura_seq usa bloques de {} números", tamanoBloque);
+        }
+    }
+
+    @Override
+    public long reservarBloque() {
+        Long inicio = jdbcTemplate.queryForObject("SELECT nextval('factura_seq')", Long.class);
+        if (inicio == null) {
+            throw new IllegalStateException("No se pudo reservar un bloque de números de factura");
+        }
+        return inicio;
+    }
+
+    @Override
+    public int tamanoBloque() {
+        return tamanoBloque;
+    }
+}
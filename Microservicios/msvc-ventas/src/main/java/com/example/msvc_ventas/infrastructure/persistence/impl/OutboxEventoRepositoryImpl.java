@@ -0,0 +1,51 @@
+package com.example.msvc_ventas.infrastructure.persistence.impl;
+
+import com.example.msvc_ventas.domain.model.OutboxEvento;
+import com.example.msvc_ventas.domain.repository.OutboxEventoRepository;
+import com.example.msvc_ventas.infrastructure.persistence.entity.OutboxEventoEntity;
+import com.example.msvc_ventas.infrastructure.persistence.mapper.OutboxEventoEntityMapper;
+import com.example.msvc_ventas.infrastructure.persistence.repository.OutboxEventoJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxEventoRepositoryImpl implements OutboxEventoRepository {
+
+    private final OutboxEventoJpaRepository jpaRepository;
+    private final OutboxEventoEntityMapper mapper;
+
+    @Override
+    public OutboxEvento save(OutboxEvento evento) {
+        OutboxEventoEntity entity = jpaRepository.save(mapper.toEntity(evento));
+        return mapper.toDomain(entity);
+    }
+
+    @Override
+    public List<OutboxEvento> saveAll(List<OutboxEvento> eventos) {
+        List<OutboxEventoEntity> entities = eventos.stream()
+                .map(mapper::toEntity)
+                .collect(Collectors.toList());
+
+        return jpaRepository.saveAll(entities).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<OutboxEvento> findPendientesParaActualizar(LocalDateTime ahora, int limite) {
+        return jpaRepository.findPendientesParaActualizar(ahora, limite).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> findClavesRegistradas(OutboxEvento.TipoEvento tipo, Collection<String> claves) {
+        return jpaRepository.findClavesRegistradas(OutboxEventoEntity.TipoEvento.valueOf(tipo.name()), claves);
+    }
+}
@@ -6,9 +6,19 @@ import com.example.msvc_ventas.infrastructure.persistence.entity.VentaEntity;
 import com.example.msvc_ventas.infrastructure.persistence.mapper.VentaEntityMapper;
 import com.example.msvc_ventas.infrastructure.persistence.repository.VentaJpaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Component;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -18,6 +28,7 @@ public class VentaRepositoryImpl implements VentaRepository {
 
     private final VentaJpaRepository jpaRepository;
     private final VentaEntityMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public Venta save(Venta venta) {
@@ -26,6 +37,48 @@ public class VentaRepositoryImpl implements VentaRepository {
         return mapper.toDomain(entity);
     }
 
+    @Override
+    public List<Venta> insertarLote(List<Venta> ventas) {
+        if (ventas.isEmpty()) {
+            return ventas;
+        }
+
+        KeyHolder claves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(
+                        "INSERT INTO ventas (numero_factura, cliente_id, subtotal, impuesto, total, estado, " +
+                                "fecha_venta, fecha_creacion, fecha_actualizacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Venta venta = ventas.get(i);
+                        ps.setString(1, venta.getNumeroFactura());
+                        ps.setLong(2, venta.getCliente().getId());
+                        ps.setBigDecimal(3, venta.getSubtotal());
+                        ps.setBigDecimal(4, venta.getImpuesto());
+                        ps.setBigDecimal(5, venta.getTotal());
+                        ps.setString(6, venta.getEstado().name());
+                        ps.setTimestamp(7, Timestamp.valueOf(venta.getFechaVenta()));
+                        ps.setTimestamp(8, Timestamp.valueOf(venta.getFechaCreacion()));
+                        ps.setTimestamp(9, Timestamp.valueOf(venta.getFechaActualizacion()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ventas.size();
+                    }
+                },
+                claves);
+
+        // Las claves generadas llegan en el mismo orden que las filas del batch
+        List<Map<String, Object>> ids = claves.getKeyList();
+        for (int i = 0; i < ventas.size(); i++) {
+            ventas.get(i).setId(((Number) ids.get(i).get("id")).longValue());
+        }
+        return ventas;
+    }
+
     @Override
     public Optional<Venta> findById(Long id) {
         return jpaRepository.findById(id)
@@ -51,4 +104,22 @@ public class VentaRepositoryImpl implements VentaRepository {
                 .map(mapper::toDomain)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public List<Venta> findPagina(Long despuesDeId, int limite) {
+        return jpaRepository.findByIdGreaterThanOrderByIdAsc(despuesDeId, PageRequest.of(0, limite)).stream()
+                .map(mapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int cancelarPendientesCreadasAntesDe(LocalDateTime limite, LocalDateTime ahora) {
+        return jpaRepository.cambiarEstadoCreadasAntesDe(
+                VentaEntity.EstadoVenta.PENDIENTE, VentaEntity.EstadoVenta.CANCELADA, limite, ahora);
+    }
+
+    @Override
+    public int marcarSalidaInventarioFallida(String numeroFactura, LocalDateTime ahora) {
+        return jpaRepository.marcarSalidaInventarioFallida(numeroFactura, ahora);
+    }
 }
\ No newline at end of file
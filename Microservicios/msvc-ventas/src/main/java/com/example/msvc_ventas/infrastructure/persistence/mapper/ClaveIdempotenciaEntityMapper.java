@@ -0,0 +1,21 @@
+package com.example.msvc_ventas.infrastructure.persistence.mapper;
+
+import com.example.msvc_ventas.domain.model.ClaveIdempotencia;
+import com.example.msvc_ventas.infrastructure.persistence.entity.ClaveIdempotenciaEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ClaveIdempotenciaEntityMapper {
+
+    public ClaveIdempotencia toDomain(ClaveIdempotenciaEntity entity) {
+        return ClaveIdempotencia.builder()
+                .clave(entity.getClave())
+                .operacion(entity.getOperacion())
+                .hashSolicitud(entity.getHashSolicitud())
+                .estado(ClaveIdempotencia.EstadoClave.valueOf(entity.getEstado().name()))
+                .respuesta(entity.getRespuesta())
+                .fechaCreacion(entity.getFechaCreacion())
+                .expiraEn(entity.getExpiraEn())
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.msvc_ventas.infrastructure.persistence.mapper;
+
+import com.example.msvc_ventas.domain.model.OutboxEvento;
+import com.example.msvc_ventas.infrastructure.persistence.entity.OutboxEventoEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OutboxEventoEntityMapper {
+
+    public OutboxEventoEntity toEntity(OutboxEvento domain) {
+        return OutboxEventoEntity.builder()
+                .id(domain.getId())
+                .tipo(OutboxEventoEntity.TipoEvento.valueOf(domain.getTipo().name()))
+                .claveIdempotencia(domain.getClaveIdempotencia())
+                .payload(domain.getPayload())
+                .estado(mapEstado(domain.getEstado()))
+                .intentos(domain.getIntentos())
+                .proximoIntento(domain.getProximoIntento())
+                .ultimoError(domain.getUltimoError())
+                .fechaCreacion(domain.getFechaCreacion())
+                .fechaEnvio(domain.getFechaEnvio())
+                .build();
+    }
+
+    public OutboxEvento toDomain(OutboxEventoEntity entity) {
+        return OutboxEvento.builder()
+                .id(entity.getId())
+                .tipo(OutboxEvento.TipoEvento.valueOf(entity.getTipo().name()))
+                .claveIdempotencia(entity.getClaveIdempotencia())
+                .payload(entity.getPayload())
+                .estado(OutboxEvento.EstadoEvento.valueOf(entity.getEstado().name()))
+                .intentos(entity.getIntentos())
+                .proximoIntento(entity.getProximoIntento())
+                .ultimoError(entity.getUltimoError())
+                .fechaCreacion(entity.getFechaCreacion())
+                .fechaEnvio(entity.getFechaEnvio())
+                .build();
+    }
+
+    public OutboxEventoEntity.EstadoEvento mapEstado(OutboxEvento.EstadoEvento estado) {
+        return OutboxEventoEntity.EstadoEvento.valueOf(estado.name());
+    }
+}
@@ -23,6 +23,7 @@ public class VentaEntityMapper {
                 .fechaVenta(domain.getFechaVenta())
                 .fechaCreacion(domain.getFechaCreacion())
                 .fechaActualizacion(domain.getFechaActualizacion())
+                .salidaInventarioFallida(domain.getSalidaInventarioFallida())
                 .build();
     }
 
@@ -38,6 +39,7 @@ public class VentaEntityMapper {
                 .fechaVenta(entity.getFechaVenta())
                 .fechaCreacion(entity.getFechaCreacion())
                 .fechaActualizacion(entity.getFechaActualizacion())
+                .salidaInventarioFallida(Boolean.TRUE.equals(entity.getSalidaInventarioFallida()))
                 .build();
     }
 
@@ -0,0 +1,64 @@
+package com.example.msvc_ventas.infrastructure.persistence.repository;
+
+import com.example.msvc_ventas.infrastructure.persistence.entity.ClaveIdempotenciaEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ClaveIdempotenciaJpaRepository extends JpaRepository<ClaveIdempotenciaEntity, String> {
+
+    // Inserta la clave solo si no existe: devuelve 1 si esta solicitud la obtuvo, 0 si ya estaba registrada.
+    // Se declara la tabla afectada para que Hibernate no vacíe toda la caché de segundo nivel
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "claves_idempotencia"))
+    @Query(value = "INSERT INTO claves_idempotencia (clave, operacion, hash_solicitud, estado, token_proceso, " +
+            "fecha_creacion, expira_en) " +
+            "VALUES (:clave, :operacion, :hash, 'EN_PROCESO', :token, :ahora, :expiraEn) ON CONFLICT (clave) DO NOTHING",
+            nativeQuery = true)
+    int insertarSiNoExiste(@Param("clave") String clave,
+                           @Param("operacion") String operacion,
+                           @Param("hash") String hash,
+                           @Param("token") String token,
+                           @Param("ahora") LocalDateTime ahora,
+                           @Param("expiraEn") LocalDateTime expiraEn);
+
+    // Cambia el dueño de una clave EN_PROCESO abandonada: solo una solicitud concurrente obtiene 1
+    @Modifying
+    @Query("UPDATE ClaveIdempotenciaEntity c SET c.tokenProceso = :token, c.fechaCreacion = :ahora, " +
+            "c.expiraEn = :expiraEn WHERE c.clave = :clave AND c.estado = :estado AND c.fechaCreacion < :limite")
+    int retomarVencida(@Param("clave") String clave,
+                       @Param("token") String token,
+                       @Param("estado") ClaveIdempotenciaEntity.EstadoClave estado,
+                       @Param("limite") LocalDateTime limite,
+                       @Param("ahora") LocalDateTime ahora,
+                       @Param("expiraEn") LocalDateTime expiraEn);
+
+    // Solo la ejecución que sigue siendo dueña de la clave EN_PROCESO puede completarla
+    @Modifying
+    @Query("UPDATE ClaveIdempotenciaEntity c SET c.estado = :completada, c.respuesta = :respuesta " +
+            "WHERE c.clave = :clave AND c.tokenProceso = :token AND c.estado = :enProceso")
+    int completar(@Param("clave") String clave,
+                  @Param("token") String token,
+                  @Param("respuesta") String respuesta,
+                  @Param("enProceso") ClaveIdempotenciaEntity.EstadoClave enProceso,
+                  @Param("completada") ClaveIdempotenciaEntity.EstadoClave completada);
+
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotenciaEntity c WHERE c.clave = :clave AND c.tokenProceso = :token " +
+            "AND c.estado = :estado")
+    int eliminarEnProceso(@Param("clave") String clave,
+                          @Param("token") String token,
+                          @Param("estado") ClaveIdempotenciaEntity.EstadoClave estado);
+
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotenciaEntity c WHERE c.expiraEn < :ahora")
+    int eliminarVencidas(@Param("ahora") LocalDateTime ahora);
+}
@@ -1,10 +1,15 @@
 package com.example.msvc_ventas.infrastructure.persistence.repository;
 
 import com.example.msvc_ventas.infrastructure.persistence.entity.ClienteEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface ClienteJpaRepository extends JpaRepository<ClienteEntity, Long> {
+    // El resultado (solo el id) va a la caché de consultas; la entidad se resuelve desde la región de clientes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ClienteEntity> findByEmail(String email);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.msvc_ventas.infrastructure.persistence.repository;
+
+import com.example.msvc_ventas.infrastructure.persistence.entity.OutboxEventoEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventoJpaRepository extends JpaRepository<OutboxEventoEntity, Long> {
+
+    // Eventos pendientes cuyo próximo intento ya venció; los que otra instancia tiene bloqueados se saltan
+    @Query(value = "SELECT * FROM outbox_eventos WHERE estado = 'PENDIENTE' AND proximo_intento <= :ahora " +
+            "ORDER BY proximo_intento LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEventoEntity> findPendientesParaActualizar(@Param("ahora") LocalDateTime ahora,
+                                                         @Param("limite") int limite);
+
+    @Query("SELECT e.claveIdempotencia FROM OutboxEventoEntity e WHERE e.tipo = :tipo AND e.claveIdempotencia IN :claves")
+    List<String> findClavesRegistradas(@Param("tipo") OutboxEventoEntity.TipoEvento tipo,
+                                       @Param("claves") Collection<String> claves);
+}
@@ -1,12 +1,42 @@
 package com.example.msvc_ventas.infrastructure.persistence.repository;
 
 import com.example.msvc_ventas.infrastructure.persistence.entity.VentaEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface VentaJpaRepository extends JpaRepository<VentaEntity, Long> {
     Optional<VentaEntity> findByNumeroFactura(String numeroFactura);
+
+    // El cliente se trae en la misma consulta para no disparar una consulta por venta al mapear
+    @EntityGraph(attributePaths = "cliente")
     List<VentaEntity> findByClienteId(Long clienteId);
+
+    @Override
+    @EntityGraph(attributePaths = "cliente")
+    List<VentaEntity> findAll();
+
+    // Paginación por cursor (keyset) sobre la clave primaria
+    @EntityGraph(attributePaths = "cliente")
+    List<VentaEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VentaEntity v SET v.estado = :nuevoEstado, v.fechaActualizacion = :ahora " +
+            "WHERE v.estado = :estadoActual AND v.fechaCreacion < :limite")
+    int cambiarEstadoCreadasAntesDe(@Param("estadoActual") VentaEntity.EstadoVenta estadoActual,
+                                    @Param("nuevoEstado") VentaEntity.EstadoVenta nuevoEstado,
+                                    @Param("limite") LocalDateTime limite,
+                                    @Param("ahora") LocalDateTime ahora);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VentaEntity v SET v.salidaInventarioFallida = true, v.fechaActualizacion = :ahora " +
+            "WHERE v.numeroFactura = :numeroFactura")
+    int marcarSalidaInventarioFallida(@Param("numeroFactura") String numeroFactura, @Param("ahora") LocalDateTime ahora);
 }
\ No newline at end of file
@@ -1,13 +1,18 @@
 package com.example.msvc_ventas.presentation.controller;
 
+import com.example.msvc_ventas.application.dto.PaginaResponseDto;
+import com.example.msvc_ventas.application.dto.ResultadoVentaLoteDto;
+import com.example.msvc_ventas.application.dto.VentaLoteRequestDto;
 import com.example.msvc_ventas.application.dto.VentaRequestDto;
 import com.example.msvc_ventas.application.dto.VentaResponseDto;
 import com.example.msvc_ventas.application.mapper.VentaMapper;
+import com.example.msvc_ventas.application.service.IdempotenciaService;
 import com.example.msvc_ventas.application.service.VentaApplicationService;
 import com.example.msvc_ventas.domain.model.Cliente;
 import com.example.msvc_ventas.domain.model.Venta;
 import com.example.msvc_ventas.domain.service.ClienteService;
 import com.example.msvc_ventas.domain.service.VentaService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -30,16 +35,34 @@ public class VentaController {
     private final ClienteService clienteService;
     private final VentaApplicationService ventaApplicationService;
     private final VentaMapper ventaMapper;
+    private final IdempotenciaService idempotenciaService;
 
     @PostMapping
     @Operation(summary = "Crear una nueva venta")
-    public ResponseEntity<VentaResponseDto> crearVenta(@Valid @RequestBody VentaRequestDto requestDto) {
+    public ResponseEntity<VentaResponseDto> crearVenta(
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+            @Valid @RequestBody VentaRequestDto requestDto) {
         // Delegamos la lógica de creación al servicio de aplicación que manejará
-        // la comunicación con otros microservicios (productos e inventario)
-        VentaResponseDto ventaCreada = ventaApplicationService.crearVenta(requestDto);
+        // la comunicación con otros microservicios (productos e inventario).
+        // Un reintento con la misma Idempotency-Key devuelve la venta ya creada
+        VentaResponseDto ventaCreada = idempotenciaService.ejecutar(
+                claveIdempotencia, "crear-venta", requestDto, new TypeReference<VentaResponseDto>() {},
+                () -> ventaApplicationService.crearVenta(requestDto));
         return new ResponseEntity<>(ventaCreada, HttpStatus.CREATED);
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Crear un lote de ventas (carga desde puntos de venta)")
+    public ResponseEntity<List<ResultadoVentaLoteDto>> crearVentasLote(
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+            @Valid @RequestBody VentaLoteRequestDto requestDto) {
+        // Cada venta informa su propio resultado: una venta inválida no impide crear las demás
+        List<ResultadoVentaLoteDto> resultados = idempotenciaService.ejecutar(
+                claveIdempotencia, "crear-ventas-lote", requestDto, new TypeReference<List<ResultadoVentaLoteDto>>() {},
+                () -> ventaApplicationService.crearVentasLote(requestDto.getVentas()));
+        return ResponseEntity.ok(resultados);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener una venta por su ID")
     public ResponseEntity<VentaResponseDto> obtenerVenta(@PathVariable Long id) {
@@ -74,6 +97,24 @@ public class VentaController {
         return ResponseEntity.ok(ventasDto);
     }
 
+    @GetMapping("/pagina")
+    @Operation(summary = "Listar ventas paginadas por cursor")
+    public ResponseEntity<PaginaResponseDto<VentaResponseDto>> listarVentasPaginadas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        int tamano = PaginaResponseDto.normalizarLimite(limite);
+        // Se pide un registro extra para saber si existe una página siguiente
+        List<Venta> ventas = ventaService.listarVentasPagina(PaginaResponseDto.decodificarCursor(cursor), tamano + 1);
+        boolean hayMas = ventas.size() > tamano;
+        List<Venta> pagina = hayMas ? ventas.subList(0, tamano) : ventas;
+
+        List<VentaResponseDto> ventasDto = pagina.stream()
+                .map(ventaMapper::toDto)
+                .collect(Collectors.toList());
+        Long ultimoId = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId();
+        return ResponseEntity.ok(PaginaResponseDto.de(ventasDto, hayMas, ultimoId));
+    }
+
     @PutMapping("/{id}/completar")
     @Operation(summary = "Completar una venta (actualiza el inventario)")
     public ResponseEntity<VentaResponseDto> completarVenta(@PathVariable Long id) {
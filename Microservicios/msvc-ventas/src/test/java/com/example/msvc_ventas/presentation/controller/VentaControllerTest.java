@@ -0,0 +1,172 @@
+package com.example.msvc_ventas.presentation.controller;
+
+import com.example.msvc_ventas.application.dto.ResultadoVentaLoteDto;
+import com.example.msvc_ventas.application.dto.VentaItemRequestDto;
+import com.example.msvc_ventas.application.dto.VentaLoteRequestDto;
+import com.example.msvc_ventas.application.dto.VentaRequestDto;
+import com.example.msvc_ventas.application.dto.VentaResponseDto;
+import com.example.msvc_ventas.application.mapper.VentaMapper;
+import com.example.msvc_ventas.application.service.IdempotenciaService;
+import com.example.msvc_ventas.application.service.SolicitudEnProcesoException;
+import com.example.msvc_ventas.application.service.VentaApplicationService;
+import com.example.msvc_ventas.domain.model.ClaveIdempotencia;
+import com.example.msvc_ventas.domain.repository.ClaveIdempotenciaRepository;
+import com.example.msvc_ventas.domain.service.ClienteService;
+import com.example.msvc_ventas.domain.service.VentaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VentaControllerTest {
+
+    private ClaveIdempotenciaRepository claveRepository;
+    private VentaApplicationService ventaApplicationService;
+    private VentaController controller;
+
+    @BeforeEach
+    void setUp() {
+        claveRepository = mock(ClaveIdempotenciaRepository.class);
+        ventaApplicationService = mock(VentaApplicationService.class);
+        IdempotenciaService idempotenciaService = new IdempotenciaService(claveRepository,
+                new ObjectMapper().findAndRegisterModules(), mock(PlatformTransactionManager.class), 24, 100, 120);
+        controller = new VentaController(mock(VentaService.class), mock(ClienteService.class),
+                ventaApplicationService, mock(VentaMapper.class), idempotenciaService);
+        when(claveRepository.completar(anyString(), anyString(), anyString())).thenReturn(true);
+    }
+
+    @Test
+    void crearVentaSinClaveNoRegistraNada() {
+        when(ventaApplicationService.crearVenta(any())).thenReturn(venta("F-1"));
+
+        ResponseEntity<VentaResponseDto> respuesta = controller.crearVenta(null, solicitud(1L));
+
+        assertEquals(HttpStatus.CREATED, respuesta.getStatusCode());
+        assertEquals("F-1", respuesta.getBody().getNumeroFactura());
+        verify(claveRepository, never()).registrar(anyString(), anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void reintentoDeCrearVentaDevuelveLaVentaGuardadaSinCrearOtra() {
+        VentaRequestDto solicitud = solicitud(1L);
+        when(claveRepository.registrar(eq("k1"), eq("crear-venta"), anyString(), anyString(), any()))
+                .thenReturn(true);
+        when(ventaApplicationService.crearVenta(solicitud)).thenReturn(venta("F-1"));
+        controller.crearVenta("k1", solicitud);
+
+        // Otra instancia atiende el reintento: la clave ya está COMPLETADA en la tabla
+        VentaController otraInstancia = new VentaController(mock(VentaService.class), mock(ClienteService.class),
+                ventaApplicationService, mock(VentaMapper.class), new IdempotenciaService(claveRepository,
+                new ObjectMapper().findAndRegisterModules(), mock(PlatformTransactionManager.class), 24, 100, 120));
+        when(claveRepository.registrar(eq("k1"), eq("crear-venta"), anyString(), anyString(), any()))
+                .thenReturn(false);
+        when(claveRepository.findByClave("k1")).thenReturn(Optional.of(completada("k1", "crear-venta")));
+
+        ResponseEntity<VentaResponseDto> reintento = otraInstancia.crearVenta("k1", solicitud);
+
+        assertEquals(HttpStatus.CREATED, reintento.getStatusCode());
+        assertEquals("F-1", reintento.getBody().getNumeroFactura());
+        verify(ventaApplicationService, times(1)).crearVenta(solicitud);
+    }
+
+    @Test
+    void crearVentasLoteUsaSuPropiaOperacion() {
+        VentaLoteRequestDto lote = VentaLoteRequestDto.builder()
+                .ventas(List.of(solicitud(1L), solicitud(2L)))
+                .build();
+        when(claveRepository.registrar(eq("k2"), eq("crear-ventas-lote"), anyString(), anyString(), any()))
+                .thenReturn(true);
+        when(ventaApplicationService.crearVentasLote(lote.getVentas())).thenReturn(List.of(
+                ResultadoVentaLoteDto.builder().indice(0).creada(true).venta(venta("F-2")).build(),
+                ResultadoVentaLoteDto.builder().indice(1).creada(false).error("Sin stock").build()));
+
+        ResponseEntity<List<ResultadoVentaLoteDto>> respuesta = controller.crearVentasLote("k2", lote);
+
+        assertEquals(2, respuesta.getBody().size());
+        verify(claveRepository).completar(eq("k2"), anyString(), anyString());
+    }
+
+    @Test
+    void claveDeCrearVentaReutilizadaEnElLoteEsRechazada() {
+        when(claveRepository.registrar(eq("k3"), anyString(), anyString(), anyString(), any())).thenReturn(true);
+        when(ventaApplicationService.crearVenta(any())).thenReturn(venta("F-3"));
+        controller.crearVenta("k3", solicitud(1L));
+
+        VentaLoteRequestDto lote = VentaLoteRequestDto.builder().ventas(List.of(solicitud(1L))).build();
+        assertThrows(IllegalArgumentException.class, () -> controller.crearVentasLote("k3", lote));
+        verify(ventaApplicationService, never()).crearVentasLote(any());
+    }
+
+    @Test
+    void siOtroReintentoRetomoLaClaveLaVentaNoSeConfirma() {
+        when(claveRepository.registrar(eq("k4"), anyString(), anyString(), anyString(), any())).thenReturn(true);
+        when(claveRepository.completar(eq("k4"), anyString(), anyString())).thenReturn(false);
+        when(ventaApplicationService.crearVenta(any())).thenReturn(venta("F-4"));
+
+        assertThrows(SolicitudEnProcesoException.class, () -> controller.crearVenta("k4", solicitud(1L)));
+
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(claveRepository).registrar(eq("k4"), anyString(), anyString(), token.capture(), any());
+        verify(claveRepository).eliminar("k4", token.getValue());
+    }
+
+    @Test
+    void siLaVentaFallaLaClaveSeLiberaParaReintentar() {
+        when(claveRepository.registrar(eq("k5"), anyString(), anyString(), anyString(), any())).thenReturn(true);
+        when(ventaApplicationService.crearVenta(any())).thenThrow(new IllegalStateException("Inventario insuficiente"));
+
+        assertThrows(IllegalStateException.class, () -> controller.crearVenta("k5", solicitud(1L)));
+
+        verify(claveRepository).eliminar(eq("k5"), anyString());
+        verify(claveRepository, never()).completar(eq("k5"), anyString(), anyString());
+    }
+
+    // Registro COMPLETADO con el hash y la respuesta que guardó la primera ejecución de la clave
+    private ClaveIdempotencia completada(String clave, String operacion) {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> respuesta = ArgumentCaptor.forClass(String.class);
+        verify(claveRepository).registrar(eq(clave), eq(operacion), hash.capture(), anyString(), any());
+        verify(claveRepository).completar(eq(clave), anyString(), respuesta.capture());
+        return ClaveIdempotencia.builder()
+                .clave(clave)
+                .operacion(operacion)
+                .hashSolicitud(hash.getValue())
+                .estado(ClaveIdempotencia.EstadoClave.COMPLETADA)
+                .respuesta(respuesta.getValue())
+                .expiraEn(LocalDateTime.now().plusHours(24))
+                .build();
+    }
+
+    private static VentaRequestDto solicitud(Long clienteId) {
+        return VentaRequestDto.builder()
+                .clienteId(clienteId)
+                .items(List.of(VentaItemRequestDto.builder().productoId(5L).cantidad(2).build()))
+                .build();
+    }
+
+    private static VentaResponseDto venta(String numeroFactura) {
+        return VentaResponseDto.builder()
+                .numeroFactura(numeroFactura)
+                .estado("PENDIENTE")
+                .fechaVenta(LocalDateTime.now())
+                .build();
+    }
+}